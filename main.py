@@ -8,6 +8,7 @@ import logging
 import time
 import os
 from typing import Dict, List, Tuple
+from urllib.parse import unquote_plus
 import threading
 from concurrent.futures import ThreadPoolExecutor
 
@@ -344,38 +345,72 @@ def health_check():
         'optimization': 'enabled'
     })
 
+def _open_image(data) -> Image.Image:
+    """Decode image bytes or a stream into an RGB image sized for fast inference"""
+    source = io.BytesIO(data) if isinstance(data, (bytes, bytearray)) else data
+    image = Image.open(source).convert('RGB')
+
+    # Resize image for faster processing
+    max_size = (512, 512)
+    if image.size[0] > max_size[0] or image.size[1] > max_size[1]:
+        image.thumbnail(max_size, Image.Resampling.LANCZOS)
+    return image
+
+def _run_analysis(image):
+    """Run the full analysis and wrap it in the standard response"""
+    results = vqa_service.analyze_image_fast(image)
+    return jsonify({
+        'success': True,
+        'results': results,
+        'timestamp': time.time()
+    })
+
+def _run_quick_question(image, question):
+    """Answer a single question and wrap it in the standard response"""
+    results = vqa_service.answer_questions_batch(image, [question])
+    question, answer, confidence = results[0]
+    return jsonify({
+        'success': True,
+        'question': question,
+        'answer': answer,
+        'confidence': confidence
+    })
+
 @app.route('/analyze', methods=['POST'])
 def analyze_image():
     """Optimized analysis endpoint"""
     try:
-        if 'image' not in request.files and 'image_base64' not in request.json:
+        if 'image' not in request.files and 'image_base64' not in (request.get_json(silent=True) or {}):
             return jsonify({'error': 'No image provided'}), 400
         
         # Get image from request
         if 'image' in request.files:
-            image_file = request.files['image']
-            image = Image.open(image_file.stream).convert('RGB')
+            image = _open_image(request.files['image'].stream)
         else:
             # Handle base64 image
-            image_data = base64.b64decode(request.json['image_base64'])
-            image = Image.open(io.BytesIO(image_data)).convert('RGB')
+            image = _open_image(base64.b64decode(request.json['image_base64']))
         
-        # Resize image for faster processing (optional)
-        max_size = (512, 512)
-        if image.size[0] > max_size[0] or image.size[1] > max_size[1]:
-            image.thumbnail(max_size, Image.Resampling.LANCZOS)
-        
-        # Perform fast analysis
-        results = vqa_service.analyze_image_fast(image)
+        return _run_analysis(image)
         
+    except Exception as e:
+        logger.error(f"Analysis error: {e}")
         return jsonify({
-            'success': True,
-            'results': results,
-            'timestamp': time.time()
-        })
+            'success': False,
+            'error': str(e)
+        }), 500
+
+@app.route('/analyze/binary', methods=['POST'])
+def analyze_image_binary():
+    """Analysis endpoint taking the raw image bytes as the request body"""
+    try:
+        data = request.get_data()
+        if not data:
+            return jsonify({'error': 'No image provided'}), 400
+        
+        return _run_analysis(_open_image(data))
         
     except Exception as e:
-        logger.error(f"Analysis error: {e}")
+        logger.error(f"Binary analysis error: {e}")
         return jsonify({
             'success': False,
             'error': str(e)
@@ -390,28 +425,31 @@ def quick_question():
         if 'image_base64' not in data or 'question' not in data:
             return jsonify({'error': 'Missing image_base64 or question'}), 400
         
-        # Decode image
-        image_data = base64.b64decode(data['image_base64'])
-        image = Image.open(io.BytesIO(image_data)).convert('RGB')
+        image = _open_image(base64.b64decode(data['image_base64']))
+        return _run_quick_question(image, data['question'])
         
-        # Resize for speed
-        max_size = (512, 512)
-        if image.size[0] > max_size[0] or image.size[1] > max_size[1]:
-            image.thumbnail(max_size, Image.Resampling.LANCZOS)
+    except Exception as e:
+        logger.error(f"Quick question error: {e}")
+        return jsonify({
+            'success': False,
+            'error': str(e)
+        }), 500
+
+@app.route('/quick-question/binary', methods=['POST'])
+def quick_question_binary():
+    """Single question endpoint taking the raw image bytes as the request body
+    and the URL-encoded question in the X-VQA-Question header"""
+    try:
+        data = request.get_data()
+        question = unquote_plus(request.headers.get('X-VQA-Question', ''))
         
-        # Answer single question
-        results = vqa_service.answer_questions_batch(image, [data['question']])
-        question, answer, confidence = results[0]
+        if not data or not question:
+            return jsonify({'error': 'Missing image body or X-VQA-Question header'}), 400
         
-        return jsonify({
-            'success': True,
-            'question': question,
-            'answer': answer,
-            'confidence': confidence
-        })
+        return _run_quick_question(_open_image(data), question)
         
     except Exception as e:
-        logger.error(f"Quick question error: {e}")
+        logger.error(f"Binary quick question error: {e}")
         return jsonify({
             'success': False,
             'error': str(e)
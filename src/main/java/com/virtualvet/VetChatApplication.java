@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.event.EventListener;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.web.multipart.MultipartResolver;
@@ -14,12 +15,15 @@ import org.springframework.web.multipart.support.StandardServletMultipartResolve
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.virtualvet.service.VQAHealthTracker;
+
 import java.io.*;
 import java.util.concurrent.TimeUnit;
 
@@ -34,6 +38,7 @@ import java.util.concurrent.TimeUnit;
 @EnableJpaRepositories
 @EnableTransactionManagement
 @EnableAsync
+@EnableScheduling
 @EnableConfigurationProperties
 public class VetChatApplication {
 
@@ -183,6 +188,9 @@ class PythonVQAServerManager {
     @Value("${vqa.health.check.interval:10}")
     private int healthCheckIntervalSeconds;
 
+    @Autowired
+    private VQAHealthTracker vqaHealthTracker;
+
     private Process pythonProcess;
 
     /**
@@ -269,7 +277,7 @@ class PythonVQAServerManager {
                     return false;
                 }
 
-                if (checkServerHealth()) {
+                if (vqaHealthTracker.probe()) {
                     return true;
                 }
 
@@ -287,29 +295,6 @@ class PythonVQAServerManager {
         return false;
     }
 
-    /**
-     * Performs a health check on the Python server by making an HTTP request to its health endpoint.
-     *
-     * @return true if the health check succeeds (HTTP 200 response), false otherwise
-     */
-    private boolean checkServerHealth() {
-        try {
-            ProcessBuilder healthCheck = new ProcessBuilder(
-                    "curl", "-f", "-s", "--max-time", "5",
-                    String.format("http://%s:%s/health", vqaServerHost, vqaServerPort));
-
-            Process process = healthCheck.start();
-            boolean finished = process.waitFor(5, TimeUnit.SECONDS);
-
-            return finished && process.exitValue() == 0;
-
-        } catch (Exception e) {
-            logger.debug("Health check failed: {}", e.getMessage());
-        }
-
-        return false;
-    }
-
     /**
      * Stops the Python server process gracefully, with a fallback to forced termination.
      * Attempts graceful shutdown first, then forces termination if necessary.
@@ -335,11 +320,12 @@ class PythonVQAServerManager {
 
     /**
      * Checks if the Python server is currently running and responsive.
+     * Responsiveness is read from the shared VQA health state rather than probed here.
      *
-     * @return true if the server process is alive and health checks succeed, false otherwise
+     * @return true if the server process is alive and the service is healthy, false otherwise
      */
     public boolean isServerRunning() {
-        return pythonProcess != null && pythonProcess.isAlive() && checkServerHealth();
+        return pythonProcess != null && pythonProcess.isAlive() && vqaHealthTracker.isHealthy();
     }
 }
 
@@ -363,8 +349,9 @@ class VQAServerHealthMonitor {
     }
 
     /**
-     * Scheduled method that performs health checks on the Python VQA server.
-     * Runs every 60 seconds and logs warnings if the server is not responsive.
+     * Scheduled method that reports on the health of the Python VQA server.
+     * Runs every 60 seconds and logs warnings if the server is not responsive,
+     * using the health state maintained by VQAHealthTracker.
      */
     @Scheduled(fixedRate = 60000)
     public void performHealthCheck() {
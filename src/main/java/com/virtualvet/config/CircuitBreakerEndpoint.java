@@ -0,0 +1,38 @@
+package com.virtualvet.config;
+
+import com.virtualvet.service.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the state of the backend circuit breakers.
+ *
+ * Available at /actuator/circuitbreakers, it reports for each guarded backend
+ * whether its breaker is closed, open or half-open together with the failure
+ * and slow-call rates of its rolling window.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@Endpoint(id = "circuitbreakers")
+public class CircuitBreakerEndpoint {
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    /**
+     * Reports the current state of every circuit breaker.
+     *
+     * @return map of backend names to breaker state and statistics
+     */
+    @ReadOperation
+    public Map<String, Map<String, Object>> circuitBreakers() {
+        return circuitBreakerRegistry.snapshots();
+    }
+}
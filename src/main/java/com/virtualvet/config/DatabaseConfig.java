@@ -1,30 +1,41 @@
 package com.virtualvet.config;
 
-import org.springframework.context.annotation.Configuration;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
-import javax.sql.DataSource;
-import org.springframework.boot.jdbc.DataSourceBuilder;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
 
+/**
+ * Database connection configuration for the Virtual Vet application.
+ *
+ * Connections come from a HikariCP pool. The connection settings are read from the
+ * spring.datasource.* properties and the pool settings from
+ * spring.datasource.hikari.*. The default profile uses an in-memory H2 database.
+ * The prod profile (application-prod.properties) uses a file-backed H2 database
+ * whose schema Flyway manages, so conversations survive a restart.
+ *
+ * Because the bean is a HikariDataSource, Spring Boot's actuator publishes the
+ * pool's metrics under the hikaricp.connections.* names.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
 @Configuration
 public class DatabaseConfig {
 
-    @Value("${spring.datasource.url:jdbc:h2:mem:vetchat}")
-    private String datasourceUrl;
-    
-    @Value("${spring.datasource.username:sa}")
-    private String datasourceUsername;
-    
-    @Value("${spring.datasource.password:}")
-    private String datasourcePassword;
-    
+    /**
+     * Creates the pooled data source.
+     *
+     * @param properties the spring.datasource.* connection properties
+     * @return the HikariCP data source, configured from spring.datasource.hikari.*
+     */
     @Bean
-    public DataSource dataSource() {
-        return DataSourceBuilder.create()
-                .driverClassName("org.h2.Driver")
-                .url(datasourceUrl)
-                .username(datasourceUsername)
-                .password(datasourcePassword)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
                 .build();
     }
-}
\ No newline at end of file
+}
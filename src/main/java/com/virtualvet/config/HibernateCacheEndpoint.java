@@ -0,0 +1,73 @@
+package com.virtualvet.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the Hibernate second-level and query cache statistics.
+ *
+ * Available at /actuator/hibernatecache, it reports the hit, miss and put counts of
+ * every cache region together with the number of entries it currently holds, and the
+ * totals of the query cache. The same counters are published as hibernate.* metrics.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@Endpoint(id = "hibernatecache")
+public class HibernateCacheEndpoint {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Reports the statistics of the second-level cache regions and the query cache.
+     *
+     * @return map of region names to their statistics, plus a "queryCache" summary
+     */
+    @ReadOperation
+    public Map<String, Object> cacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("statisticsEnabled", statistics.isStatisticsEnabled());
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> regionReport = new LinkedHashMap<>();
+            regionReport.put("hits", region.getHitCount());
+            regionReport.put("misses", region.getMissCount());
+            regionReport.put("puts", region.getPutCount());
+            regionReport.put("hitRatio", hitRatio(region.getHitCount(), region.getMissCount()));
+            regionReport.put("entries", region.getElementCountInMemory());
+            regions.put(regionName, regionReport);
+        }
+        report.put("regions", regions);
+
+        Map<String, Object> queryCache = new LinkedHashMap<>();
+        queryCache.put("hits", statistics.getQueryCacheHitCount());
+        queryCache.put("misses", statistics.getQueryCacheMissCount());
+        queryCache.put("puts", statistics.getQueryCachePutCount());
+        queryCache.put("hitRatio", hitRatio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+        report.put("queryCache", queryCache);
+        return report;
+    }
+
+    private static double hitRatio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
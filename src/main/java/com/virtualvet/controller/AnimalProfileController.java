@@ -3,6 +3,7 @@ package com.virtualvet.controller;
 
 import com.virtualvet.dto.AnimalProfileDto;
 import com.virtualvet.entity.AnimalProfile;
+import com.virtualvet.enums.entity.SymptomSource;
 import com.virtualvet.service.AnimalProfileService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -104,6 +105,31 @@ public class AnimalProfileController {
         }
     }
     
+    /**
+     * Lists the sessions whose animal profile has a given symptom.
+     * @param symptom the symptom name
+     * @return ResponseEntity containing the matching session IDs and status
+     */
+    @GetMapping("/symptoms/{symptom}/sessions")
+    public ResponseEntity<Map<String, Object>> getSessionsWithSymptom(@PathVariable String symptom) {
+        try {
+            List<String> sessionIds = animalProfileService.findSessionIdsWithSymptom(symptom);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("symptom", symptom.trim().toLowerCase());
+            response.put("sessionIds", sessionIds);
+            response.put("count", sessionIds.size());
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("error", "Failed to find sessions: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     private AnimalProfileDto convertToDto(AnimalProfile profile) {
     /**
      * Converts an AnimalProfileDto to its entity representation.
@@ -117,8 +143,8 @@ public class AnimalProfileController {
         dto.setAge(profile.getAge());
         dto.setWeight(profile.getWeight());
         
-        if (profile.getSymptoms() != null && !profile.getSymptoms().trim().isEmpty()) {
-            dto.setSymptoms(List.of(profile.getSymptoms().split(",\\s*")));
+        if (!profile.getSymptomSet().isEmpty()) {
+            dto.setSymptoms(List.copyOf(profile.getSymptomSet()));
         }
         
         return dto;
@@ -132,7 +158,7 @@ public class AnimalProfileController {
         profile.setWeight(dto.getWeight());
         
         if (dto.getSymptoms() != null && !dto.getSymptoms().isEmpty()) {
-            profile.setSymptoms(String.join(", ", dto.getSymptoms()));
+            profile.addSymptoms(dto.getSymptoms(), SymptomSource.USER_TEXT);
         }
         
         return profile;
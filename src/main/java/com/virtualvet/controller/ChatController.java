@@ -8,6 +8,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 /**
  * Controller for managing chat-related endpoints.
@@ -41,30 +43,31 @@ public class ChatController {
      * @param sessionId the session identifier
      * @param message the user's message
      * @param images optional image attachments
-     * @return ResponseEntity with chat response
+     * @return a future completing with the ResponseEntity holding the chat response
      */
-    public ResponseEntity<ChatResponse> sendMessage(
+    public CompletableFuture<ResponseEntity<ChatResponse>> sendMessage(
             @RequestParam("sessionId") String sessionId,
             @RequestParam("message") String message,
             @RequestParam(value = "images", required = false) MultipartFile[] images) {
 
         try {
             if (sessionId == null || sessionId.trim().isEmpty()) {
-                return ResponseEntity.badRequest()
-                    .body(ChatResponse.error("Session ID is required"));
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(ChatResponse.error("Session ID is required")));
             }
             
             if (message == null || message.trim().isEmpty()) {
-                return ResponseEntity.badRequest()
-                    .body(ChatResponse.error("Message cannot be empty"));
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(ChatResponse.error("Message cannot be empty")));
             }
             
-            ChatResponse response = chatService.processMessage(sessionId, message, images);
-            return ResponseEntity.ok(response);
+            // The request thread is released while the images are analyzed and the AI responds
+            return chatService.processMessageAsync(sessionId, message, images, null)
+                .thenApply(response -> ResponseEntity.ok(response));
             
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(ChatResponse.error("Failed to process message: " + e.getMessage()));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ChatResponse.error("Failed to process message: " + e.getMessage())));
         }
     /**
      * Retrieves the conversation history for a session.
@@ -76,17 +79,28 @@ public class ChatController {
 
 
     @GetMapping("/history/{sessionId}")
-    public ResponseEntity<ConversationHistoryResponse> getConversationHistory(@PathVariable String sessionId) {
+    public CompletableFuture<ResponseEntity<ConversationHistoryResponse>> getConversationHistory(
+            @PathVariable String sessionId,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal) {
         try {
             if (sessionId == null || sessionId.trim().isEmpty()) {
                 ConversationHistoryResponse errorResponse = new ConversationHistoryResponse();
                 errorResponse.setSuccess(false);
-                return ResponseEntity.badRequest().body(errorResponse);
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(errorResponse));
             }
             
-            ConversationHistoryResponse response = chatService.getConversationHistory(sessionId);
-            return ResponseEntity.ok(response);
+            // The request thread is released while the session's pending turns are finished
+            return chatService.getConversationHistoryAsync(sessionId, before, after, limit, includeTotal)
+                .thenApply(response -> ResponseEntity.ok(response));
             
+        } catch (IllegalArgumentException e) {
+            // Both cursors given, or a cursor that was not issued by this API
+            ConversationHistoryResponse errorResponse = new ConversationHistoryResponse();
+            errorResponse.setSuccess(false);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(errorResponse));
         } catch (Exception e) {
             ConversationHistoryResponse errorResponse = new ConversationHistoryResponse();
     /**
@@ -94,7 +108,8 @@ public class ChatController {
      * @return ResponseEntity with health status
      */
             errorResponse.setSuccess(false);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            return CompletableFuture.completedFuture(
+                ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
         }
     }
     
@@ -1,7 +1,6 @@
 package com.virtualvet.controller;
 
 import com.virtualvet.service.EmergencyService;
-import com.virtualvet.model.VetLocation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
@@ -9,9 +8,9 @@ import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller for handling emergency veterinary services in the Virtual Vet application.
@@ -61,7 +60,7 @@ public class EmergencyController {
      * @throws Exception if the search operation fails due to service errors
      */
     @PostMapping("/nearby-vets")
-    public ResponseEntity<Map<String, Object>> findNearbyVets(@RequestBody Map<String, Object> request) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> findNearbyVets(@RequestBody Map<String, Object> request) {
         // Log the incoming request for monitoring and debugging
         logger.info("Received request for nearby vets: {}", request);
         
@@ -72,7 +71,7 @@ public class EmergencyController {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("success", false);
                 errorResponse.put("error", "Request body is required");
-                return ResponseEntity.badRequest().body(errorResponse);
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(errorResponse));
             }
 
             // Validate that required coordinate parameters are present
@@ -81,7 +80,7 @@ public class EmergencyController {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("success", false);
                 errorResponse.put("error", "Latitude and longitude are required");
-                return ResponseEntity.badRequest().body(errorResponse);
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(errorResponse));
             }
 
             // Parse and validate coordinate parameters with proper error handling
@@ -102,26 +101,27 @@ public class EmergencyController {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("success", false);
                 errorResponse.put("error", "Invalid parameter format. Latitude and longitude must be numbers.");
-                return ResponseEntity.badRequest().body(errorResponse);
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(errorResponse));
             }
 
             // Log the search parameters for monitoring
             logger.info("Searching for vets near coordinates: {}, {} within {} km", latitude, longitude, radiusKm);
 
-            // Call service methods to find nearby veterinary clinics and emergency contacts
-            List<VetLocation> nearbyVets = emergencyService.findNearbyVets(latitude, longitude, radiusKm);
-            Map<String, Object> contactInfo = emergencyService.getEmergencyContactInfo(latitude, longitude);
-            
-            // Create successful response with all relevant information
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("nearbyVets", nearbyVets);
-            response.put("emergencyContacts", contactInfo);
-            response.put("message", "Found " + nearbyVets.size() + " nearby veterinary clinics");
-            
-            // Log successful completion
-            logger.info("Successfully found {} nearby vets", nearbyVets.size());
-            return ResponseEntity.ok(response);
+            // Search for nearby clinics and emergency contacts concurrently without holding the request thread
+            return emergencyService.findNearbyVetsAsync(latitude, longitude, radiusKm)
+                .thenCombine(emergencyService.getEmergencyContactInfoAsync(latitude, longitude),
+                    (nearbyVets, contactInfo) -> {
+                        // Create successful response with all relevant information
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("success", true);
+                        response.put("nearbyVets", nearbyVets);
+                        response.put("emergencyContacts", contactInfo);
+                        response.put("message", "Found " + nearbyVets.size() + " nearby veterinary clinics");
+                        
+                        // Log successful completion
+                        logger.info("Successfully found {} nearby vets", nearbyVets.size());
+                        return ResponseEntity.ok(response);
+                    });
             
         } catch (Exception e) {
             // Handle unexpected errors and log them for debugging
@@ -129,7 +129,8 @@ public class EmergencyController {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
             errorResponse.put("error", "Internal server error: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            return CompletableFuture.completedFuture(
+                ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
         }
     }
 
@@ -1,5 +1,6 @@
 package com.virtualvet.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 import java.util.ArrayList;
@@ -7,9 +8,10 @@ import java.util.ArrayList;
 /**
  * Data Transfer Object (DTO) for conversation history responses in the Virtual Vet application.
  * 
- * This DTO represents the complete conversation history for a chat session, including
- * all messages exchanged between the user and the AI, associated animal profile
- * information, and session metadata. It provides a comprehensive view of the
+ * This DTO represents one page of the conversation history for a chat session,
+ * including the messages exchanged between the user and the AI, associated animal
+ * profile information, and session metadata. Pages are navigated with the opaque
+ * olderCursor and newerCursor tokens, passed back as the before and after parameters. It provides a comprehensive view of the
  * conversation context for both display purposes and conversation continuity.
  * 
  * The class includes message count tracking, success status indication, and proper
@@ -23,7 +25,7 @@ import java.util.ArrayList;
 public class ConversationHistoryResponse {
     
     /**
-     * List of all messages in the conversation, ordered chronologically.
+     * Messages of this page, ordered chronologically.
      * Each MessageDto contains the message content, type, timestamp, and other metadata
      * necessary for displaying the complete conversation history.
      */
@@ -47,11 +49,38 @@ public class ConversationHistoryResponse {
     
     /**
      * Total number of messages in the conversation.
-     * Provides a quick count of conversation activity and can be used for
-     * pagination or display purposes.
+     * Counting reads the whole history, so it is only filled in when requested
+     * with includeTotal and left out of the JSON otherwise.
      */
     @JsonProperty("totalMessages")
-    private int totalMessages;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalMessages;
+    
+    /**
+     * Cursor of the first message in this page, passed as "before" to read the
+     * previous page. Null when the page is empty.
+     */
+    @JsonProperty("olderCursor")
+    private String olderCursor;
+    
+    /**
+     * Cursor of the last message in this page, passed as "after" to read the
+     * next page. Null when the page is empty.
+     */
+    @JsonProperty("newerCursor")
+    private String newerCursor;
+    
+    /**
+     * Whether there are messages older than this page.
+     */
+    @JsonProperty("hasOlder")
+    private boolean hasOlder;
+    
+    /**
+     * Whether there are messages newer than this page.
+     */
+    @JsonProperty("hasNewer")
+    private boolean hasNewer;
     
     /**
      * Flag indicating whether the history retrieval was successful.
@@ -116,16 +145,72 @@ public class ConversationHistoryResponse {
     /**
      * Gets the total number of messages in this conversation.
      * 
-     * @return the count of messages in the conversation
+     * @return the count of messages in the conversation, or null if it was not requested
      */
-    public int getTotalMessages() { return totalMessages; }
+    public Integer getTotalMessages() { return totalMessages; }
     
     /**
      * Sets the total number of messages in this conversation.
      * 
      * @param totalMessages the message count to set
      */
-    public void setTotalMessages(int totalMessages) { this.totalMessages = totalMessages; }
+    public void setTotalMessages(Integer totalMessages) { this.totalMessages = totalMessages; }
+    
+    /**
+     * Gets the cursor that reads the page before this one.
+     * 
+     * @return the cursor of the first message in this page, or null if the page is empty
+     */
+    public String getOlderCursor() { return olderCursor; }
+    
+    /**
+     * Sets the cursor that reads the page before this one.
+     * 
+     * @param olderCursor the cursor of the first message in this page
+     */
+    public void setOlderCursor(String olderCursor) { this.olderCursor = olderCursor; }
+    
+    /**
+     * Gets the cursor that reads the page after this one.
+     * 
+     * @return the cursor of the last message in this page, or null if the page is empty
+     */
+    public String getNewerCursor() { return newerCursor; }
+    
+    /**
+     * Sets the cursor that reads the page after this one.
+     * 
+     * @param newerCursor the cursor of the last message in this page
+     */
+    public void setNewerCursor(String newerCursor) { this.newerCursor = newerCursor; }
+    
+    /**
+     * Checks whether there are messages older than this page.
+     * 
+     * @return true if a previous page exists
+     */
+    public boolean isHasOlder() { return hasOlder; }
+    
+    /**
+     * Sets whether there are messages older than this page.
+     * 
+     * @param hasOlder true if a previous page exists
+     */
+    public void setHasOlder(boolean hasOlder) { this.hasOlder = hasOlder; }
+    
+    /**
+     * Checks whether there are messages newer than this page.
+     * 
+     * @return true if a next page exists
+     */
+    public boolean isHasNewer() { return hasNewer; }
+    
+    /**
+     * Sets whether there are messages newer than this page.
+     * 
+     * @param hasNewer true if a next page exists
+     */
+    public void setHasNewer(boolean hasNewer) { this.hasNewer = hasNewer; }
     
     /**
      * Checks if the history retrieval was successful.
@@ -1,7 +1,19 @@
 package com.virtualvet.entity;
 
+import com.virtualvet.enums.entity.SymptomSource;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * JPA Entity representing an animal profile in the Virtual Vet application.
@@ -12,8 +24,12 @@ import java.math.BigDecimal;
  * helps the AI provide species-specific and breed-appropriate veterinary advice.
  * 
  * The entity uses JPA annotations for database mapping, including proper column
- * specifications for data types and precision. The symptoms field uses LOB (Large Object)
- * type to accommodate potentially lengthy symptom descriptions.
+ * specifications for data types and precision. Symptoms are kept as ProfileSymptom
+ * rows in a child table, so recording a new symptom inserts one row instead of
+ * rewriting the whole symptom list.
+ * 
+ * Profiles, their symptom lists and the symptom rows are held in second-level
+ * cache regions, so a profile is assembled from memory once it has been read.
  * 
  * @author Elliott Starosta
  * @version 1.0
@@ -21,14 +37,17 @@ import java.math.BigDecimal;
  */
 @Entity
 @Table(name = "animal_profiles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vetchat.animalProfile")
 public class AnimalProfile {
     
     /**
      * Unique identifier for this animal profile.
-     * Generated automatically by the database using identity strategy.
+     * Allocated from the animal_profiles_seq sequence in blocks of 50, so inserts can be batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "animal_profiles_seq")
+    @SequenceGenerator(name = "animal_profiles_seq", sequenceName = "animal_profiles_seq", allocationSize = 50)
     private Long id;
     
     /**
@@ -75,14 +94,21 @@ public class AnimalProfile {
     private BigDecimal weight;
     
     /**
-     * Observed symptoms or health concerns reported by the pet owner.
-     * Stored as a LOB (Large Object) to accommodate potentially lengthy
-     * symptom descriptions. Symptoms are typically stored as comma-separated
-     * values or in a structured format for easy parsing.
+     * Observed symptoms or health concerns recorded for this animal, in the
+     * order they were first reported. Loaded eagerly because profiles are kept
+     * in the cached conversation context and read after their session is closed.
+     */
+    @OneToMany(mappedBy = "profile", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OrderBy("firstSeen ASC, id ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vetchat.animalProfile.symptoms")
+    private List<ProfileSymptom> symptoms = new ArrayList<>();
+
+    /**
+     * Names of the recorded symptoms, built on first use so that checking
+     * for duplicates does not scan the symptom list.
      */
-    @Lob
-    @Column(name = "symptoms")
-    private String symptoms;
+    @Transient
+    private Set<String> symptomNames;
     
     /**
      * Default constructor required by JPA.
@@ -184,18 +210,109 @@ public class AnimalProfile {
     public void setWeight(BigDecimal weight) { this.weight = weight; }
     
     /**
-     * Gets the observed symptoms for this animal.
+     * Gets the observed symptoms for this animal as one line of text.
      * 
-     * @return the symptoms as a string, typically comma-separated values
+     * @return the symptoms as comma-separated values, or null if there are none
      */
-    public String getSymptoms() { return symptoms; }
-    
+    public String getSymptoms() {
+        return symptoms.isEmpty() ? null : String.join(", ", getSymptomSet());
+    }
+
+    /**
+     * Gets the symptom records of this animal, including when and where each
+     * symptom was first reported.
+     * 
+     * @return an unmodifiable list of the symptom records, oldest first
+     */
+    public List<ProfileSymptom> getSymptomRecords() {
+        return Collections.unmodifiableList(symptoms);
+    }
+
+    /**
+     * Gets the observed symptoms for this animal as a set.
+     * 
+     * @return an unmodifiable set of the symptom names, in the order they were first reported
+     */
+    public Set<String> getSymptomSet() {
+        Set<String> names = new LinkedHashSet<>();
+        for (ProfileSymptom record : symptoms) {
+            names.add(record.getSymptom());
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
     /**
-     * Sets the observed symptoms for this animal.
+     * Adds observed symptoms to this animal, ignoring blanks and symptoms that are
+     * already recorded. Each new symptom becomes one ProfileSymptom row, inserted
+     * when the profile is flushed.
      * 
-     * @param symptoms the symptoms string to set
+     * @param newSymptoms the symptoms to add
+     * @param source where the symptoms were reported
+     * @return true if at least one symptom was added
      */
-    public void setSymptoms(String symptoms) { this.symptoms = symptoms; }
+    public boolean addSymptoms(Collection<String> newSymptoms, SymptomSource source) {
+        if (newSymptoms == null) {
+            return false;
+        }
+
+        Set<String> known = symptomNames();
+        boolean changed = false;
+        for (String symptom : newSymptoms) {
+            String normalized = normalizeSymptom(symptom);
+            if (normalized != null && known.add(normalized)) {
+                symptoms.add(new ProfileSymptom(this, normalized, source));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Replaces the observed symptoms for this animal. Symptoms that are already
+     * recorded keep their original record; the others are removed or added.
+     * 
+     * @param newSymptoms the complete set of symptoms
+     * @param source where newly added symptoms were reported
+     */
+    public void replaceSymptoms(Collection<String> newSymptoms, SymptomSource source) {
+        Set<String> wanted = new HashSet<>();
+        if (newSymptoms != null) {
+            for (String symptom : newSymptoms) {
+                String normalized = normalizeSymptom(symptom);
+                if (normalized != null) {
+                    wanted.add(normalized);
+                }
+            }
+        }
+
+        Set<String> known = symptomNames();
+        for (Iterator<ProfileSymptom> it = symptoms.iterator(); it.hasNext();) {
+            ProfileSymptom record = it.next();
+            if (!wanted.contains(record.getSymptom())) {
+                it.remove();
+                known.remove(record.getSymptom());
+            }
+        }
+        addSymptoms(newSymptoms, source);
+    }
+
+    private Set<String> symptomNames() {
+        if (symptomNames == null) {
+            symptomNames = new HashSet<>();
+            for (ProfileSymptom record : symptoms) {
+                symptomNames.add(record.getSymptom());
+            }
+        }
+        return symptomNames;
+    }
+
+    private static String normalizeSymptom(String symptom) {
+        if (symptom == null) {
+            return null;
+        }
+        String normalized = symptom.trim().toLowerCase();
+        return normalized.isEmpty() ? null : normalized;
+    }
 
     /**
      * Generates a string representation of this animal profile.
@@ -214,7 +331,7 @@ public class AnimalProfile {
                 ", breed='" + breed + '\'' +
                 ", age=" + age +
                 ", weight=" + weight +
-                ", symptoms='" + symptoms + '\'' +
+                ", symptoms='" + getSymptoms() + '\'' +
                 '}';
     }
 }
\ No newline at end of file
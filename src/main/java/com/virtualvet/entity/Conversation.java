@@ -1,6 +1,9 @@
 package com.virtualvet.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -21,12 +24,17 @@ import java.util.ArrayList;
  * relationship mappings with Message entities. It features automatic timestamp
  * management and urgency level tracking for conversation prioritization.
  * 
+ * Conversations are held in the vetchat.conversation second-level cache region,
+ * so loading one by ID after the first read needs no query.
+ * 
  * @author Elliott Starosta
  * @version 1.0
  * @since 2025
  */
 @Entity
 @Table(name = "conversations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vetchat.conversation")
 public class Conversation {
 
     /**
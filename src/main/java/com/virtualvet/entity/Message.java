@@ -27,10 +27,11 @@ public class Message {
 
     /**
      * Unique identifier for this message.
-     * Generated automatically by the database using identity strategy.
+     * Allocated from the messages_seq sequence in blocks of 50, so inserts can be batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "messages_seq")
+    @SequenceGenerator(name = "messages_seq", sequenceName = "messages_seq", allocationSize = 50)
     private Long id;
 
     /**
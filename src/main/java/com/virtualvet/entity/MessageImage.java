@@ -24,10 +24,11 @@ public class MessageImage {
 
     /**
      * Unique identifier for this message image.
-     * Generated automatically by the database using identity strategy.
+     * Allocated from the message_images_seq sequence in blocks of 50, so inserts can be batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_images_seq")
+    @SequenceGenerator(name = "message_images_seq", sequenceName = "message_images_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -63,6 +64,14 @@ public class MessageImage {
     @Column(name = "analysis_result", columnDefinition = "TEXT")
     private String analysisResult; // JSON string of AnalysisResult
 
+    /**
+     * SHA-256 hash of the image content, hex encoded.
+     * Set when the stored analysis result is reusable, allowing the analysis
+     * cache to find an earlier analysis of identical image content.
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     /**
      * Default constructor required by JPA.
      * Creates a new MessageImage instance without any preset values.
@@ -186,6 +195,24 @@ public class MessageImage {
         this.analysisResult = analysisResult;
     }
 
+    /**
+     * Gets the SHA-256 hash of the image content.
+     * 
+     * @return the hex encoded content hash, or null if the analysis is not reusable
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Sets the SHA-256 hash of the image content.
+     * 
+     * @param contentHash the hex encoded content hash to set
+     */
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     /**
      * Generates a string representation of this message image.
      * 
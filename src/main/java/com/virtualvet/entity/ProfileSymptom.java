@@ -0,0 +1,148 @@
+package com.virtualvet.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.LocalDateTime;
+
+import com.virtualvet.enums.entity.SymptomSource;
+
+/**
+ * JPA Entity representing one symptom recorded on an animal profile in the Virtual Vet application.
+ * 
+ * Symptoms are stored one row per symptom in the profile_symptoms table instead of
+ * as a comma-separated string on the profile. Recording a new symptom is a single
+ * insert, and the index on the symptom column allows all profiles with a given
+ * symptom to be found without scanning every profile.
+ * 
+ * The symptom is stored in its canonical lowercase form, for example "vomiting",
+ * together with when it was first seen and where it was first reported. A symptom
+ * is recorded only once per profile.
+ * 
+ * Identifiers come from a sequence rather than an identity column so that Hibernate
+ * can batch the inserts when several symptoms are added in one turn.
+ * 
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Entity
+@Table(name = "profile_symptoms",
+        uniqueConstraints = @UniqueConstraint(name = "uk_profile_symptoms_profile_symptom",
+                columnNames = { "profile_id", "symptom" }),
+        indexes = {
+                @Index(name = "idx_profile_symptoms_profile_id", columnList = "profile_id"),
+                @Index(name = "idx_profile_symptoms_symptom", columnList = "symptom")
+        })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vetchat.profileSymptom")
+public class ProfileSymptom {
+
+    /**
+     * Unique identifier for this symptom record.
+     * Allocated from the profile_symptoms_seq sequence in blocks of 50.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "profile_symptoms_seq")
+    @SequenceGenerator(name = "profile_symptoms_seq", sequenceName = "profile_symptoms_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The animal profile this symptom was recorded on.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "profile_id", nullable = false)
+    private AnimalProfile profile;
+
+    /**
+     * Canonical lowercase name of the symptom (e.g., "vomiting", "limping").
+     */
+    @Column(name = "symptom", nullable = false)
+    private String symptom;
+
+    /**
+     * Timestamp of when the symptom was first reported for this profile.
+     */
+    @Column(name = "first_seen", nullable = false)
+    private LocalDateTime firstSeen;
+
+    /**
+     * Where the symptom was first reported.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source", nullable = false, length = 20)
+    private SymptomSource source;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public ProfileSymptom() {
+    }
+
+    /**
+     * Constructor that records a symptom on a profile.
+     * Automatically sets the first seen timestamp to the current time.
+     * 
+     * @param profile the profile the symptom belongs to
+     * @param symptom the canonical symptom name
+     * @param source where the symptom was reported
+     */
+    public ProfileSymptom(AnimalProfile profile, String symptom, SymptomSource source) {
+        this.profile = profile;
+        this.symptom = symptom;
+        this.source = source;
+        this.firstSeen = LocalDateTime.now();
+    }
+
+    /**
+     * Gets the unique identifier for this symptom record.
+     * 
+     * @return the record ID, or null if not yet persisted
+     */
+    public Long getId() { return id; }
+
+    /**
+     * Gets the animal profile this symptom was recorded on.
+     * 
+     * @return the owning profile
+     */
+    public AnimalProfile getProfile() { return profile; }
+
+    /**
+     * Gets the canonical name of the symptom.
+     * 
+     * @return the symptom name in lowercase
+     */
+    public String getSymptom() { return symptom; }
+
+    /**
+     * Gets when the symptom was first reported for this profile.
+     * 
+     * @return the first seen timestamp
+     */
+    public LocalDateTime getFirstSeen() { return firstSeen; }
+
+    /**
+     * Gets where the symptom was first reported.
+     * 
+     * @return the symptom source
+     */
+    public SymptomSource getSource() { return source; }
+
+    /**
+     * Generates a string representation of this symptom record.
+     * The profile is left out to avoid loading it.
+     * 
+     * @return a formatted string representation of the symptom record
+     */
+    @Override
+    public String toString() {
+        return "ProfileSymptom{" +
+                "id=" + id +
+                ", symptom='" + symptom + '\'' +
+                ", firstSeen=" + firstSeen +
+                ", source=" + source +
+                '}';
+    }
+}
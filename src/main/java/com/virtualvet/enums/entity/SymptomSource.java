@@ -0,0 +1,29 @@
+package com.virtualvet.enums.entity;
+
+/**
+ * Enumeration of where a symptom on an animal profile was first reported in the Virtual Vet application.
+ * 
+ * Each symptom recorded on a profile keeps the source it first came from, so the
+ * symptoms the owner described can be told apart from those seen in uploaded
+ * images or identified by the AI assistant.
+ * 
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public enum SymptomSource {
+    /**
+     * Described by the pet owner, either in a chat message or by editing the profile.
+     */
+    USER_TEXT,
+
+    /**
+     * Observed by image analysis of a photo the owner uploaded.
+     */
+    IMAGE,
+
+    /**
+     * Identified by the AI veterinary assistant in its response.
+     */
+    AI
+}
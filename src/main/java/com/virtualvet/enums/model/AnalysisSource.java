@@ -0,0 +1,61 @@
+package com.virtualvet.enums.model;
+
+/**
+ * Enumeration of the backends that can produce an image analysis result in the Virtual Vet application.
+ *
+ * Image analysis runs through a chain of backends, starting with the local VQA
+ * service and falling back to Hugging Face classification, basic image inspection
+ * and finally a static error result. Recording which backend produced a result
+ * allows callers to tell genuine model output apart from degraded fallbacks, for
+ * example to decide whether a result is worth caching and reusing for the same
+ * image later.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public enum AnalysisSource {
+    /**
+     * Full visual question answering analysis from the local Python VQA service.
+     */
+    LOCAL_VQA(true),
+
+    /**
+     * Basic image classification from the Hugging Face inference API.
+     */
+    HUGGING_FACE(true),
+
+    /**
+     * Local inspection of image dimensions and format without any AI model.
+     */
+    BASIC_DETECTION(false),
+
+    /**
+     * Static error result returned when no analysis could be performed.
+     */
+    FALLBACK(false);
+
+    /**
+     * Whether results from this source reflect the image content and can be
+     * reused for the same image instead of analyzing it again.
+     */
+    private final boolean reusable;
+
+    /**
+     * Constructor for AnalysisSource enum values.
+     *
+     * @param reusable whether results from this source may be cached and reused
+     */
+    AnalysisSource(boolean reusable) {
+        this.reusable = reusable;
+    }
+
+    /**
+     * Checks whether results from this source may be cached and reused.
+     *
+     * @return true if results from this source can be reused, false otherwise
+     */
+    public boolean isReusable() {
+        return reusable;
+    }
+}
@@ -0,0 +1,60 @@
+package com.virtualvet.enums.model;
+
+/**
+ * Enumeration of the categories of terms in the shared keyword vocabulary of the Virtual Vet application.
+ *
+ * Every term the application looks for in owner messages, AI responses and symptom
+ * lists belongs to one category, and each keyword check asks for the matches of a
+ * single category. The same phrase may appear in several categories, for example a
+ * seizure is both a symptom and an emergency sign.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public enum KeywordCategory {
+    /**
+     * Symptoms recorded on the animal profile and in the conversation context.
+     */
+    SYMPTOM,
+
+    /**
+     * Signs that a situation needs emergency veterinary care.
+     */
+    EMERGENCY,
+
+    /**
+     * Symptoms that make an image analysis critical.
+     */
+    URGENCY_CRITICAL,
+
+    /**
+     * Symptoms that make an image analysis high urgency.
+     */
+    URGENCY_HIGH,
+
+    /**
+     * Symptoms that make an image analysis medium urgency.
+     */
+    URGENCY_MEDIUM,
+
+    /**
+     * Words naming a kind of animal, mapped to the animal type.
+     */
+    ANIMAL_TYPE,
+
+    /**
+     * Dog breed names.
+     */
+    DOG_BREED,
+
+    /**
+     * Cat breed names.
+     */
+    CAT_BREED,
+
+    /**
+     * Words describing a mixed breed animal.
+     */
+    MIXED_BREED
+}
@@ -2,6 +2,7 @@ package com.virtualvet.model;
 
 import java.util.List;
 
+import com.virtualvet.enums.model.AnalysisSource;
 import com.virtualvet.enums.model.UrgencyLevel;
 
 import java.util.ArrayList;
@@ -73,6 +74,13 @@ public class AnalysisResult {
      */
     private Integer imageIndex;
 
+    /**
+     * The analysis backend that produced this result.
+     * Distinguishes genuine model output from degraded fallbacks so that
+     * only meaningful results are cached and reused.
+     */
+    private AnalysisSource source;
+
     /**
      * Default constructor that initializes the analysis result with default values.
      * Creates a new AnalysisResult with empty symptoms list, LOW urgency level,
@@ -238,4 +246,22 @@ public class AnalysisResult {
         this.imageIndex = imageIndex;
     }
 
-}
\ No newline at end of file
+    /**
+     * Gets the analysis backend that produced this result.
+     * 
+     * @return the analysis source, or null if unknown
+     */
+    public AnalysisSource getSource() {
+        return source;
+    }
+
+    /**
+     * Sets the analysis backend that produced this result.
+     * 
+     * @param source the analysis source to set
+     */
+    public void setSource(AnalysisSource source) {
+        this.source = source;
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.virtualvet.model;
+
+import com.virtualvet.entity.AnimalProfile;
+import com.virtualvet.entity.Message;
+import com.virtualvet.entity.MessageImage;
+import com.virtualvet.enums.entity.SymptomSource;
+import com.virtualvet.enums.model.UrgencyLevel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Everything one chat turn writes to the database, collected in memory.
+ *
+ * A chat turn used to save the conversation, messages, images and animal profile
+ * separately as each step finished. Now each step records its changes here, and
+ * ChatTurnWriter stores the whole turn in one transaction when the turn is complete.
+ * The turn includes the owner's message and its images, what was detected about the
+ * animal, the new symptoms by source, the bot's reply and the resulting urgency.
+ *
+ * Profile changes are recorded rather than the profile entity itself. The writer
+ * applies them to the stored profile: detected fields fill only fields that are still
+ * empty, and symptoms are added alongside those already recorded. This way a turn
+ * never overwrites a profile edit made while it was running.
+ *
+ * A turn is built by one thread at a time as it moves through its stages and is
+ * handed to the writer once complete. The profile changes found after the reply are
+ * written as a separate turn without messages.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public class ChatTurn {
+
+    private final String sessionId;
+    private final Message userMessage;
+    private final List<MessageImage> messageImages = new ArrayList<>();
+    private final Map<SymptomSource, Set<String>> newSymptoms = new EnumMap<>(SymptomSource.class);
+    private AnimalProfile detectedProfile;
+    private Message botMessage;
+    private UrgencyLevel urgencyLevel;
+
+    /**
+     * Creates a turn for a message from the owner.
+     *
+     * @param sessionId the session the turn belongs to
+     * @param userMessage the owner's message, not yet saved, or null for a turn that
+     *        only records profile changes
+     */
+    public ChatTurn(String sessionId, Message userMessage) {
+        this.sessionId = sessionId;
+        this.userMessage = userMessage;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public Message getUserMessage() {
+        return userMessage;
+    }
+
+    /**
+     * Adds an image of the owner's message, with its analysis.
+     *
+     * @param messageImage the image record, attached to the user message
+     */
+    public void addMessageImage(MessageImage messageImage) {
+        messageImages.add(messageImage);
+    }
+
+    public List<MessageImage> getMessageImages() {
+        return Collections.unmodifiableList(messageImages);
+    }
+
+    /**
+     * Gets the animal profile as updated by this turn. Its type, breed, age and
+     * weight are what the turn detected, or what was already stored.
+     *
+     * @return the updated profile, or null if the turn did not look at the profile
+     */
+    public AnimalProfile getDetectedProfile() {
+        return detectedProfile;
+    }
+
+    public void setDetectedProfile(AnimalProfile detectedProfile) {
+        this.detectedProfile = detectedProfile;
+    }
+
+    /**
+     * Records symptoms found during the turn, in the order they were found.
+     *
+     * @param symptoms the symptoms, may be null
+     * @param source where the symptoms were reported
+     */
+    public void addSymptoms(Collection<String> symptoms, SymptomSource source) {
+        if (symptoms != null && !symptoms.isEmpty()) {
+            newSymptoms.computeIfAbsent(source, key -> new LinkedHashSet<>()).addAll(symptoms);
+        }
+    }
+
+    /**
+     * Gets the symptoms found during the turn.
+     *
+     * @return the symptoms of each source; sources without symptoms are absent
+     */
+    public Map<SymptomSource, Set<String>> getNewSymptoms() {
+        return Collections.unmodifiableMap(newSymptoms);
+    }
+
+    public Message getBotMessage() {
+        return botMessage;
+    }
+
+    public void setBotMessage(Message botMessage) {
+        this.botMessage = botMessage;
+    }
+
+    /**
+     * Gets the urgency the AI assigned to the turn.
+     *
+     * @return the urgency level, or null if it should not change the conversation's level
+     */
+    public UrgencyLevel getUrgencyLevel() {
+        return urgencyLevel;
+    }
+
+    public void setUrgencyLevel(UrgencyLevel urgencyLevel) {
+        this.urgencyLevel = urgencyLevel;
+    }
+}
@@ -4,6 +4,7 @@ import com.virtualvet.entity.AnimalProfile;
 import com.virtualvet.entity.Message;
 import com.virtualvet.enums.model.UrgencyLevel;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -59,6 +60,26 @@ public class ConversationContext {
      */
     private List<Message> recentHistory;
 
+    /**
+     * Rolling summary of the messages that have slid out of the prompt window.
+     * Covers the first summarizedMessageCount messages of the conversation, which
+     * are no longer sent to the AI verbatim.
+     */
+    private String historySummary;
+
+    /**
+     * Number of messages, counted from the start of the conversation, that are
+     * folded into the history summary.
+     */
+    private int summarizedMessageCount;
+
+    /**
+     * Number of leading messages of the conversation that are no longer held in the
+     * history, because they were summarized and dropped to bound its size. The first
+     * message of the history is this message of the conversation.
+     */
+    private int historyOffset;
+
     /**
      * Default constructor that initializes the conversation context with default values.
      * Creates a new ConversationContext with empty collections, LOW urgency level,
@@ -80,6 +101,26 @@ public class ConversationContext {
         this.sessionId = sessionId;
     }
 
+    /**
+     * Copy constructor that creates an independent snapshot of another context.
+     *
+     * The symptom and history lists are copied so the snapshot can be modified
+     * without affecting the original. The animal profile and messages themselves
+     * are shared by reference.
+     *
+     * @param other the conversation context to copy
+     */
+    public ConversationContext(ConversationContext other) {
+        this.sessionId = other.sessionId;
+        this.animalProfile = other.animalProfile;
+        this.identifiedSymptoms = new ArrayList<>(other.getIdentifiedSymptoms());
+        this.currentUrgency = other.currentUrgency;
+        this.recentHistory = new ArrayList<>(other.getRecentHistory());
+        this.historySummary = other.historySummary;
+        this.summarizedMessageCount = other.summarizedMessageCount;
+        this.historyOffset = other.historyOffset;
+    }
+
     /**
      * Gets the unique session identifier for this conversation context.
      * 
@@ -182,6 +223,60 @@ public class ConversationContext {
         this.recentHistory = recentHistory;
     }
 
+    /**
+     * Gets the rolling summary of messages that have slid out of the prompt window.
+     * 
+     * @return the history summary, or null if no messages have been summarized
+     */
+    public String getHistorySummary() {
+        return historySummary;
+    }
+
+    /**
+     * Sets the rolling summary of messages that have slid out of the prompt window.
+     * 
+     * @param historySummary the history summary to set
+     */
+    public void setHistorySummary(String historySummary) {
+        this.historySummary = historySummary;
+    }
+
+    /**
+     * Gets the number of leading conversation messages folded into the history summary.
+     * 
+     * @return the number of summarized messages
+     */
+    public int getSummarizedMessageCount() {
+        return summarizedMessageCount;
+    }
+
+    /**
+     * Sets the number of leading conversation messages folded into the history summary.
+     * 
+     * @param summarizedMessageCount the number of summarized messages
+     */
+    public void setSummarizedMessageCount(int summarizedMessageCount) {
+        this.summarizedMessageCount = summarizedMessageCount;
+    }
+
+    /**
+     * Gets the number of leading conversation messages dropped from the history.
+     * 
+     * @return the position in the conversation of the first message in the history
+     */
+    public int getHistoryOffset() {
+        return historyOffset;
+    }
+
+    /**
+     * Sets the number of leading conversation messages dropped from the history.
+     * 
+     * @param historyOffset the number of dropped messages
+     */
+    public void setHistoryOffset(int historyOffset) {
+        this.historyOffset = historyOffset;
+    }
+
     /**
      * Adds a single symptom to the identified symptoms list if not already present.
      * 
@@ -202,9 +297,9 @@ public class ConversationContext {
      * This utility method processes a list of symptoms and adds each one
      * individually, ensuring no duplicates are added to the symptoms list.
      * 
-     * @param symptoms the list of symptom strings to add
+     * @param symptoms the symptom strings to add
      */
-    public void addSymptoms(List<String> symptoms) {
+    public void addSymptoms(Collection<String> symptoms) {
         for (String symptom : symptoms) {
             addSymptom(symptom);
         }
@@ -0,0 +1,88 @@
+package com.virtualvet.model;
+
+import com.virtualvet.entity.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a message in a conversation's history, used as a keyset pagination cursor.
+ *
+ * Messages are ordered by timestamp and then by ID, so a (timestamp, id) pair marks
+ * an exact position even when two messages share a timestamp. A page is then read
+ * with a range condition on the messages(conversation_id, timestamp, id) index
+ * instead of an OFFSET, so every page costs the same however far back it is.
+ *
+ * Clients see the cursor as an opaque URL-safe token and pass it back unchanged.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public class HistoryCursor {
+
+    private final LocalDateTime timestamp;
+    private final long id;
+
+    /**
+     * Creates a cursor at the given position.
+     *
+     * @param timestamp the message timestamp
+     * @param id the message ID
+     */
+    public HistoryCursor(LocalDateTime timestamp, long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    /**
+     * Creates a cursor at the position of a stored message.
+     *
+     * @param message the message, which must have been saved
+     * @return the cursor of the message
+     */
+    public static HistoryCursor of(Message message) {
+        return new HistoryCursor(message.getTimestamp(), message.getId());
+    }
+
+    /**
+     * Reads a cursor from its token.
+     *
+     * @param token the token returned by encode()
+     * @return the cursor
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static HistoryCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid history cursor: " + token);
+            }
+            return new HistoryCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid history cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Writes the cursor as an opaque URL-safe token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        String value = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,193 @@
+package com.virtualvet.model;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Handle for a single uploaded image, shared by every stage that processes it.
+ *
+ * One ImageUpload is created per uploaded file and passed through validation,
+ * content hashing, analysis and storage. Everything derived from the upload is
+ * computed lazily on first use and then kept, so no stage repeats the work of
+ * another:
+ * - the file content is read from the upload once
+ * - the format and pixel dimensions come from the image header via an ImageReader,
+ *   without decoding any pixel data
+ * - the SHA-256 content hash is computed once over the in-memory content
+ *
+ * The handle may be used from the request thread and the analysis pool at the same
+ * time, so the lazy accessors are synchronized.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public class ImageUpload {
+
+    /** The uploaded file this handle wraps */
+    private final MultipartFile file;
+
+    /** File content, read on first use */
+    private byte[] content;
+
+    /** Lowercase hexadecimal SHA-256 digest of the content, computed on first use */
+    private String contentHash;
+
+    /** Whether the image header has been probed */
+    private boolean probed;
+
+    /** Lowercase format name reported by the image reader, such as jpeg or png */
+    private String formatName;
+
+    /** Width in pixels as stored, before any orientation is applied */
+    private int width;
+
+    /** Height in pixels as stored, before any orientation is applied */
+    private int height;
+
+    /**
+     * Constructs a handle for an uploaded file.
+     *
+     * @param file the uploaded image file
+     */
+    public ImageUpload(MultipartFile file) {
+        this.file = file;
+    }
+
+    /**
+     * Gets the file content, reading it from the upload on first use.
+     *
+     * @return the file content
+     * @throws IOException if the upload cannot be read
+     */
+    public synchronized byte[] getContent() throws IOException {
+        if (content == null) {
+            content = file.getBytes();
+        }
+        return content;
+    }
+
+    /**
+     * Gets the SHA-256 hash of the file content, computing it on first use.
+     *
+     * @return the lowercase hexadecimal SHA-256 digest of the content
+     * @throws IOException if the upload cannot be read
+     */
+    public synchronized String getContentHash() throws IOException {
+        if (contentHash == null) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(getContent());
+                contentHash = HexFormat.of().formatHex(digest);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+        return contentHash;
+    }
+
+    /**
+     * Gets the image format detected from the file header.
+     *
+     * @return the lowercase format name, such as jpeg, png, gif or bmp
+     * @throws IOException if the content is not a readable image
+     */
+    public synchronized String getFormatName() throws IOException {
+        probe();
+        return formatName;
+    }
+
+    /**
+     * Gets the image width read from the file header.
+     *
+     * @return the width in pixels
+     * @throws IOException if the content is not a readable image
+     */
+    public synchronized int getWidth() throws IOException {
+        probe();
+        return width;
+    }
+
+    /**
+     * Gets the image height read from the file header.
+     *
+     * @return the height in pixels
+     * @throws IOException if the content is not a readable image
+     */
+    public synchronized int getHeight() throws IOException {
+        probe();
+        return height;
+    }
+
+    /**
+     * Gets the original filename of the upload.
+     *
+     * @return the original filename, may be null
+     */
+    public String getOriginalFilename() {
+        return file.getOriginalFilename();
+    }
+
+    /**
+     * Gets the size of the uploaded file.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() {
+        return file.getSize();
+    }
+
+    /**
+     * Checks whether the upload has no content.
+     *
+     * @return true if the file is empty
+     */
+    public boolean isEmpty() {
+        return file.isEmpty();
+    }
+
+    /**
+     * Gets the uploaded file this handle wraps.
+     *
+     * @return the underlying MultipartFile
+     */
+    public MultipartFile getFile() {
+        return file;
+    }
+
+    /**
+     * Reads the format and dimensions from the image header without decoding pixel data.
+     */
+    private void probe() throws IOException {
+        if (probed) {
+            return;
+        }
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(getContent()))) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Invalid image format or corrupted file");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                formatName = reader.getFormatName().toLowerCase(Locale.ROOT);
+                width = reader.getWidth(0);
+                height = reader.getHeight(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+        probed = true;
+    }
+}
@@ -0,0 +1,139 @@
+package com.virtualvet.model;
+
+import com.virtualvet.util.InMemoryMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Model class holding the derivatives produced from a single decode of an uploaded image.
+ *
+ * An uploaded pet photo is decoded once by the ImagePreprocessor, which then produces
+ * every representation the application needs from that one decoded image: a compact
+ * model-resolution JPEG sent to the AI analysis backends, a metadata-free copy of the
+ * original kept in image storage, and a small thumbnail for display. All derivatives
+ * have EXIF and other metadata removed, with the camera orientation already applied to
+ * the pixels.
+ *
+ * Instances are immutable and safe to share between the analysis and storage steps of
+ * a chat turn.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public class PreprocessedImage {
+
+    /** Original filename of the upload, as supplied by the client */
+    private final String originalFilename;
+
+    /** Width of the uploaded image in pixels, after applying its orientation */
+    private final int originalWidth;
+
+    /** Height of the uploaded image in pixels, after applying its orientation */
+    private final int originalHeight;
+
+    /** Size of the uploaded file in bytes */
+    private final long originalSize;
+
+    /** JPEG encoded image downscaled to the analysis model's input resolution */
+    private final byte[] modelImage;
+
+    /** Metadata-free re-encoding of the original image for storage */
+    private final byte[] storedImage;
+
+    /** File extension matching the encoding of the stored image, such as jpg or png */
+    private final String storedExtension;
+
+    /** JPEG encoded thumbnail of the image */
+    private final byte[] thumbnail;
+
+    /**
+     * Constructs a PreprocessedImage from its derivatives.
+     *
+     * @param originalFilename the original filename of the upload
+     * @param originalWidth the width of the uploaded image in pixels
+     * @param originalHeight the height of the uploaded image in pixels
+     * @param originalSize the size of the uploaded file in bytes
+     * @param modelImage the model-resolution JPEG bytes
+     * @param storedImage the re-encoded original bytes for storage
+     * @param storedExtension the file extension of the stored image
+     * @param thumbnail the thumbnail JPEG bytes
+     */
+    public PreprocessedImage(String originalFilename, int originalWidth, int originalHeight, long originalSize,
+            byte[] modelImage, byte[] storedImage, String storedExtension, byte[] thumbnail) {
+        this.originalFilename = originalFilename;
+        this.originalWidth = originalWidth;
+        this.originalHeight = originalHeight;
+        this.originalSize = originalSize;
+        this.modelImage = modelImage;
+        this.storedImage = storedImage;
+        this.storedExtension = storedExtension;
+        this.thumbnail = thumbnail;
+    }
+
+    /**
+     * Wraps the model-resolution JPEG as a MultipartFile for the analysis backends.
+     *
+     * The returned file shares the underlying bytes and does not copy them.
+     *
+     * @return the model input image as a MultipartFile
+     */
+    public MultipartFile getModelImageFile() {
+        return new InMemoryMultipartFile(originalFilename, "image/jpeg", modelImage);
+    }
+
+    /**
+     * Gets the original filename of the upload.
+     *
+     * @return the original filename
+     */
+    public String getOriginalFilename() { return originalFilename; }
+
+    /**
+     * Gets the width of the uploaded image.
+     *
+     * @return the width in pixels
+     */
+    public int getOriginalWidth() { return originalWidth; }
+
+    /**
+     * Gets the height of the uploaded image.
+     *
+     * @return the height in pixels
+     */
+    public int getOriginalHeight() { return originalHeight; }
+
+    /**
+     * Gets the size of the uploaded file.
+     *
+     * @return the size in bytes
+     */
+    public long getOriginalSize() { return originalSize; }
+
+    /**
+     * Gets the model-resolution JPEG bytes.
+     *
+     * @return the model input image bytes
+     */
+    public byte[] getModelImage() { return modelImage; }
+
+    /**
+     * Gets the re-encoded original image bytes for storage.
+     *
+     * @return the stored image bytes
+     */
+    public byte[] getStoredImage() { return storedImage; }
+
+    /**
+     * Gets the file extension matching the stored image encoding.
+     *
+     * @return the stored image extension, such as jpg or png
+     */
+    public String getStoredExtension() { return storedExtension; }
+
+    /**
+     * Gets the thumbnail JPEG bytes.
+     *
+     * @return the thumbnail bytes
+     */
+    public byte[] getThumbnail() { return thumbnail; }
+}
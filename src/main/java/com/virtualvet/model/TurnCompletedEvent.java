@@ -0,0 +1,59 @@
+package com.virtualvet.model;
+
+import com.virtualvet.dto.StructuredVetResponse;
+import com.virtualvet.entity.Conversation;
+
+import java.util.List;
+
+/**
+ * Published once the reply of a chat turn has been built and its messages handed to
+ * the ChatTurnWriter.
+ *
+ * The profile and symptom updates the reply does not depend on are made by the
+ * listener after the response has been returned. The event carries the stored turn,
+ * which the listener only reads, the conversation it belongs to, the AI response the
+ * symptoms are taken from and the symptoms the image analyses observed.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public class TurnCompletedEvent {
+
+    private final ChatTurn turn;
+    private final Conversation conversation;
+    private final StructuredVetResponse structuredResponse;
+    private final List<String> imageSymptoms;
+
+    /**
+     * Creates the event of a completed turn.
+     *
+     * @param turn the turn, with its bot message set
+     * @param conversation the conversation of the turn, possibly an unloaded reference
+     * @param structuredResponse the AI response of the turn, may be null
+     * @param imageSymptoms the symptoms observed in the turn's images, may be empty
+     */
+    public TurnCompletedEvent(ChatTurn turn, Conversation conversation, StructuredVetResponse structuredResponse,
+            List<String> imageSymptoms) {
+        this.turn = turn;
+        this.conversation = conversation;
+        this.structuredResponse = structuredResponse;
+        this.imageSymptoms = imageSymptoms;
+    }
+
+    public ChatTurn getTurn() {
+        return turn;
+    }
+
+    public Conversation getConversation() {
+        return conversation;
+    }
+
+    public StructuredVetResponse getStructuredResponse() {
+        return structuredResponse;
+    }
+
+    public List<String> getImageSymptoms() {
+        return imageSymptoms;
+    }
+}
@@ -1,11 +1,15 @@
 package com.virtualvet.repository;
 
 import com.virtualvet.entity.AnimalProfile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,11 +40,27 @@ public interface AnimalProfileRepository extends JpaRepository<AnimalProfile, Lo
      * specified ID. This method is useful for getting all pet information
      * associated with a particular consultation session.
      * 
+     * The result is kept in the query cache and the profiles themselves in the
+     * second-level cache, until the animal_profiles table changes.
+     * 
      * @param conversationId the ID of the conversation to search for
      * @return a list of AnimalProfile entities associated with the conversation
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "vetchat.query.profileByConversation")
+    })
     List<AnimalProfile> findByConversationId(Long conversationId);
     
+    /**
+     * Finds the IDs of the animal profiles of the given conversations.
+     * 
+     * @param conversationIds the conversation IDs
+     * @return the IDs of the profiles belonging to those conversations
+     */
+    @Query("SELECT ap.id FROM AnimalProfile ap WHERE ap.conversation.id IN :conversationIds")
+    List<Long> findIdsByConversationIdIn(@Param("conversationIds") Collection<Long> conversationIds);
+    
     /**
      * Finds an animal profile by the session ID of its associated conversation.
      * 
@@ -1,12 +1,18 @@
 package com.virtualvet.repository;
 
 import com.virtualvet.entity.Conversation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -37,9 +43,16 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
      * This is the primary method for finding conversations in session-based
      * operations and is commonly used throughout the application.
      * 
+     * The result is kept in the query cache until the conversations table changes,
+     * which includes every activity update, so it mainly serves bursts of reads.
+     * 
      * @param sessionId the unique session identifier to search for
      * @return an Optional containing the Conversation if found, empty otherwise
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "vetchat.query.conversationBySession")
+    })
     Optional<Conversation> findBySessionId(String sessionId);
     
     /**
@@ -69,14 +82,48 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     Optional<Conversation> findBySessionIdWithMessages(@Param("sessionId") String sessionId);
     
     /**
-     * Deletes all conversations that have been inactive since a specified cutoff time.
+     * Finds the IDs of a bounded batch of conversations inactive since a cutoff time.
      * 
-     * Removes all conversations where the last activity timestamp is before the
-     * specified cutoff time. This method is typically used for automated cleanup
-     * of old, inactive conversations to manage database storage and maintain
-     * system performance.
+     * Only IDs are read, so selecting a batch of expired sessions loads no entities.
+     * The oldest conversations come first, using the last_activity index.
      * 
-     * @param cutoffTime the timestamp before which conversations should be deleted
+     * @param cutoffTime the timestamp before which conversations are considered inactive
+     * @param pageable the batch size; only the first page is requested
+     * @return the IDs of up to the batch size of inactive conversations
+     */
+    @Query("SELECT c.id FROM Conversation c WHERE c.lastActivity < :cutoffTime ORDER BY c.lastActivity ASC")
+    List<Long> findInactiveIds(@Param("cutoffTime") LocalDateTime cutoffTime, Pageable pageable);
+    
+    /**
+     * Finds the session IDs of the given conversations.
+     * 
+     * @param ids the conversation IDs
+     * @return the session IDs of those conversations that still exist
+     */
+    @Query("SELECT c.sessionId FROM Conversation c WHERE c.id IN :ids")
+    List<String> findSessionIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Deletes the given conversations in one statement if they are still inactive.
+     * 
+     * This is a bulk delete: no entities are loaded and the database removes the
+     * messages, images, animal profiles and profile symptoms through their
+     * ON DELETE CASCADE foreign keys. The cutoff is checked again so a session that
+     * became active after it was selected is kept.
+     * 
+     * @param ids the conversation IDs to delete
+     * @param cutoffTime the timestamp before which conversations are considered inactive
+     * @return the number of conversations deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Conversation c WHERE c.id IN :ids AND c.lastActivity < :cutoffTime")
+    int deleteInactiveByIdIn(@Param("ids") Collection<Long> ids, @Param("cutoffTime") LocalDateTime cutoffTime);
+    
+    /**
+     * Counts conversations inactive since a cutoff time.
+     * 
+     * @param cutoffTime the timestamp before which conversations are considered inactive
+     * @return the number of inactive conversations
      */
-    void deleteByLastActivityBefore(LocalDateTime cutoffTime);
-}
\ No newline at end of file
+    long countByLastActivityBefore(LocalDateTime cutoffTime);
+}
@@ -0,0 +1,48 @@
+package com.virtualvet.repository;
+
+import com.virtualvet.entity.MessageImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing MessageImage entities in the Virtual Vet application.
+ *
+ * This repository provides data access methods for the images attached to user
+ * messages, including CRUD operations inherited from JpaRepository. Each stored
+ * image carries the serialized AnalysisResult produced when it was uploaded, so
+ * the analysis can be read back without running the image through the VQA
+ * service again.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Repository
+public interface MessageImageRepository extends JpaRepository<MessageImage, Long> {
+
+    /**
+     * Finds all images attached to a specific message in upload order.
+     *
+     * @param messageId the ID of the message the images belong to
+     * @return a list of MessageImage entities ordered by their image order
+     */
+    List<MessageImage> findByMessageIdOrderByImageOrderAsc(Long messageId);
+
+    /**
+     * Finds the most recently stored analysis result for images with the given content hash.
+     * 
+     * Used by the image analysis cache as a persistent tier, so that analyses of
+     * identical image content survive application restarts.
+     * 
+     * @param contentHash the hex encoded SHA-256 hash of the image content
+     * @return an Optional containing the analysis result JSON if found, empty otherwise
+     */
+    @Query("SELECT mi.analysisResult FROM MessageImage mi WHERE mi.contentHash = :contentHash " +
+            "AND mi.analysisResult IS NOT NULL ORDER BY mi.id DESC LIMIT 1")
+    Optional<String> findLatestAnalysisByContentHash(@Param("contentHash") String contentHash);
+}
@@ -2,6 +2,7 @@ package com.virtualvet.repository;
 
 import com.virtualvet.entity.Message;
 import com.virtualvet.enums.entity.MessageType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -42,6 +43,101 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
      */
     List<Message> findByConversationIdOrderByTimestampAsc(Long conversationId);
     
+    /**
+     * Finds the newest messages of a conversation, newest first.
+     * 
+     * Reads the first page of a keyset-paginated history. Together with
+     * findPageBefore and findPageAfter, pages are read in (timestamp, id) order,
+     * which the idx_messages_conversation_timestamp_id index serves directly.
+     * 
+     * @param conversationId the ID of the conversation to retrieve messages for
+     * @param pageable the page size; only the first page is requested
+     * @return up to the page size of messages, ordered by timestamp and ID descending
+     */
+    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId " +
+           "ORDER BY m.timestamp DESC, m.id DESC")
+    List<Message> findLatestPage(@Param("conversationId") Long conversationId, Pageable pageable);
+    
+    /**
+     * Finds the messages of a conversation that come before a cursor position, newest first.
+     * 
+     * @param conversationId the ID of the conversation to retrieve messages for
+     * @param timestamp the timestamp of the cursor position
+     * @param id the message ID of the cursor position
+     * @param pageable the page size; only the first page is requested
+     * @return up to the page size of older messages, ordered by timestamp and ID descending
+     */
+    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId " +
+           "AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id)) " +
+           "ORDER BY m.timestamp DESC, m.id DESC")
+    List<Message> findPageBefore(@Param("conversationId") Long conversationId,
+                                 @Param("timestamp") LocalDateTime timestamp,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
+    
+    /**
+     * Finds the messages of a conversation that come after a cursor position, oldest first.
+     * 
+     * @param conversationId the ID of the conversation to retrieve messages for
+     * @param timestamp the timestamp of the cursor position
+     * @param id the message ID of the cursor position
+     * @param pageable the page size; only the first page is requested
+     * @return up to the page size of newer messages, ordered by timestamp and ID ascending
+     */
+    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId " +
+           "AND (m.timestamp > :timestamp OR (m.timestamp = :timestamp AND m.id > :id)) " +
+           "ORDER BY m.timestamp ASC, m.id ASC")
+    List<Message> findPageAfter(@Param("conversationId") Long conversationId,
+                                @Param("timestamp") LocalDateTime timestamp,
+                                @Param("id") Long id,
+                                Pageable pageable);
+    
+    /**
+     * Finds the IDs of the messages of a conversation at or before a cursor position,
+     * newest first. Requested with a page size of one, it probes whether anything
+     * older than a page read after the cursor exists without counting the history.
+     * 
+     * @param conversationId the ID of the conversation to search in
+     * @param timestamp the timestamp of the cursor position
+     * @param id the message ID of the cursor position
+     * @param pageable the number of IDs to return
+     * @return up to the page size of message IDs, ordered by timestamp and ID descending
+     */
+    @Query("SELECT m.id FROM Message m WHERE m.conversation.id = :conversationId " +
+           "AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id <= :id)) " +
+           "ORDER BY m.timestamp DESC, m.id DESC")
+    List<Long> findIdsAtOrBefore(@Param("conversationId") Long conversationId,
+                                 @Param("timestamp") LocalDateTime timestamp,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
+    
+    /**
+     * Finds the IDs of the messages of a conversation at or after a cursor position,
+     * oldest first. Requested with a page size of one, it probes whether anything
+     * newer than a page read before the cursor exists without counting the history.
+     * 
+     * @param conversationId the ID of the conversation to search in
+     * @param timestamp the timestamp of the cursor position
+     * @param id the message ID of the cursor position
+     * @param pageable the number of IDs to return
+     * @return up to the page size of message IDs, ordered by timestamp and ID ascending
+     */
+    @Query("SELECT m.id FROM Message m WHERE m.conversation.id = :conversationId " +
+           "AND (m.timestamp > :timestamp OR (m.timestamp = :timestamp AND m.id >= :id)) " +
+           "ORDER BY m.timestamp ASC, m.id ASC")
+    List<Long> findIdsAtOrAfter(@Param("conversationId") Long conversationId,
+                                @Param("timestamp") LocalDateTime timestamp,
+                                @Param("id") Long id,
+                                Pageable pageable);
+    
+    /**
+     * Counts all messages in a conversation.
+     * 
+     * @param conversationId the ID of the conversation to count messages for
+     * @return the number of messages in the conversation
+     */
+    long countByConversationId(Long conversationId);
+    
     /**
      * Finds messages for a specific conversation and message type, ordered by timestamp in descending order.
      * 
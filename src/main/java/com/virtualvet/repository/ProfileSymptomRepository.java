@@ -0,0 +1,60 @@
+package com.virtualvet.repository;
+
+import com.virtualvet.entity.ProfileSymptom;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for managing ProfileSymptom entities in the Virtual Vet application.
+ * 
+ * Symptom records are normally created and removed through their AnimalProfile, so
+ * this repository is mainly used for queries across profiles, such as finding every
+ * session in which a symptom was reported. These queries use the index on the
+ * symptom column rather than scanning the symptom lists of all profiles.
+ * 
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Repository
+public interface ProfileSymptomRepository extends JpaRepository<ProfileSymptom, Long> {
+
+    /**
+     * Finds the symptom records of one animal profile.
+     * 
+     * @param profileId the ID of the animal profile
+     * @return the profile's symptom records, oldest first
+     */
+    List<ProfileSymptom> findByProfileIdOrderByFirstSeenAsc(Long profileId);
+
+    /**
+     * Finds the IDs of the symptom records of the given animal profiles.
+     * 
+     * @param profileIds the animal profile IDs
+     * @return the IDs of the symptom records belonging to those profiles
+     */
+    @Query("SELECT ps.id FROM ProfileSymptom ps WHERE ps.profile.id IN :profileIds")
+    List<Long> findIdsByProfileIdIn(@Param("profileIds") Collection<Long> profileIds);
+
+    /**
+     * Finds the session IDs of all conversations whose animal profile has a symptom.
+     * 
+     * @param symptom the canonical lowercase symptom name
+     * @return the distinct session IDs, empty if no profile has the symptom
+     */
+    @Query("SELECT DISTINCT ps.profile.conversation.sessionId FROM ProfileSymptom ps WHERE ps.symptom = :symptom")
+    List<String> findSessionIdsBySymptom(@Param("symptom") String symptom);
+
+    /**
+     * Counts the animal profiles that have a symptom.
+     * 
+     * @param symptom the canonical lowercase symptom name
+     * @return the number of profiles with the symptom
+     */
+    long countBySymptom(String symptom);
+}
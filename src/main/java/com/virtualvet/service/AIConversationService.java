@@ -2,19 +2,28 @@ package com.virtualvet.service;
 
 import com.virtualvet.model.*;
 import com.virtualvet.entity.*;
-import com.virtualvet.enums.entity.MessageType;
+import com.virtualvet.enums.model.KeywordCategory;
 import com.virtualvet.enums.model.UrgencyLevel;
 import com.virtualvet.config.AIServiceConfig;
 import com.virtualvet.dto.StructuredVetResponse;
+import com.virtualvet.enums.entity.MessageType;
+import com.virtualvet.util.StreamingSegmentParser;
+import com.virtualvet.util.SymptomVocabulary;
+import com.virtualvet.util.TokenEstimator;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -37,11 +46,10 @@ import java.util.stream.Collectors;
 public class AIConversationService {
 
     /**
-     * REST template for making HTTP requests to external AI services.
-     * Used for communicating with the HackClub API for AI-powered responses.
+     * Shared non-blocking HTTP client used for calls to the AI chat service.
      */
     @Autowired
-    private RestTemplate restTemplate;
+    private AsyncApiClient asyncApiClient;
 
     /**
      * Configuration service for AI service settings and endpoints.
@@ -50,6 +58,20 @@ public class AIConversationService {
     @Autowired
     private AIServiceConfig aiServiceConfig;
 
+    /**
+     * Selects the token-budgeted slice of the conversation sent with each prompt
+     * and maintains the rolling summary of older messages.
+     */
+    @Autowired
+    private PromptWindowManager promptWindowManager;
+
+    /**
+     * Whether responses are streamed from the AI service when the caller can display
+     * message segments as they arrive.
+     */
+    @Value("${ai.streaming.enabled:true}")
+    private boolean streamingEnabled;
+
     /**
      * Jackson ObjectMapper for JSON serialization and deserialization.
      * Used for parsing AI responses and converting them to structured data.
@@ -57,6 +79,18 @@ public class AIConversationService {
     /** Jackson ObjectMapper for JSON serialization and deserialization */
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /** Reusable writer for chat completion request bodies */
+    private final ObjectWriter requestWriter = objectMapper.writerFor(JsonNode.class);
+
+    /** Chat completion model used for veterinary responses */
+    private static final String CHAT_MODEL = "gpt-4o-mini";
+
+    /** Response field holding the message segments shown to the owner */
+    private static final String MESSAGE_SEGMENTS_FIELD = "messageSegments";
+
+    /** Reminder sent after the per-turn context, since earlier assistant turns are replayed as plain text */
+    private static final String RESPONSE_FORMAT_REMINDER = "Respond with ONLY the JSON object described in your instructions.";
+
     /**
      * Comprehensive system prompt that defines the AI assistant's role, personality,
      * conversation flow rules, and response structure for veterinary consultations.
@@ -215,6 +249,15 @@ public class AIConversationService {
             + "- Make each response feel like part of a natural conversation with a caring veterinary friend\n"
             + "- Use casual, warm language while maintaining professional expertise\n\n";
 
+    /**
+     * System message holding the static prompt. It is built once and sent byte-identical
+     * as the first message of every request, so the provider's prompt cache can reuse it
+     * instead of processing the instructions again on every turn.
+     */
+    private static final ObjectNode SYSTEM_MESSAGE = JsonNodeFactory.instance.objectNode()
+            .put("role", "system")
+            .put("content", SYSTEM_PROMPT);
+
     /**
      * Generates an AI response to a user message with conversation context and image analysis.
      * 
@@ -239,10 +282,12 @@ public class AIConversationService {
     public String generateResponse(String userMessage, ConversationContext context,
             List<AnalysisResult> imageAnalyses) {
         try {
-            String contextPrompt = buildContextPrompt(context, imageAnalyses);
-            String fullPrompt = SYSTEM_PROMPT + "\n\n" + contextPrompt + "\n\nUser: " + userMessage;
+            if (context == null) {
+                context = new ConversationContext("unknown-session");
+            }
+            PromptWindowManager.PromptWindow window = promptWindowManager.buildWindow(context);
 
-            String rawResponse = callHackClubAPI(fullPrompt);
+            String rawResponse = callHackClubAPI(buildChatMessages(userMessage, context, imageAnalyses, window)).join();
             return cleanAIResponse(rawResponse);
 
         } catch (Exception e) {
@@ -286,39 +331,132 @@ public class AIConversationService {
         return cleaned;
     }
 
-    private String callHackClubAPI(String prompt) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+    /**
+     * Builds the chat completion messages for one turn.
+     *
+     * The static system prompt always comes first. It is followed by the rolling summary
+     * and the windowed history as user and assistant turns, then the per-turn patient
+     * context, and finally the owner's new message. Content that changes every turn is
+     * kept at the end so it does not break the prefix shared with earlier requests.
+     */
+    private ArrayNode buildChatMessages(String userMessage, ConversationContext context,
+            List<AnalysisResult> imageAnalyses, PromptWindowManager.PromptWindow window) {
+        ArrayNode messages = objectMapper.createArrayNode();
+        messages.add(SYSTEM_MESSAGE);
+
+        if (window.getSummary() != null && !window.getSummary().isEmpty()) {
+            addChatMessage(messages, "system", "Earlier in this conversation (summary):\n" + window.getSummary());
+        }
+
+        // The owner's new message is already in the history when the context was refreshed during this turn
+        List<Message> history = window.getMessages();
+        int end = history.size();
+        if (end > 0 && history.get(end - 1).getMessageType() == MessageType.USER
+                && Objects.equals(history.get(end - 1).getContent(), userMessage)) {
+            end--;
+        }
+
+        for (Message msg : history.subList(0, end)) {
+            if (msg.getMessageType() == MessageType.USER) {
+                addChatMessage(messages, "user", msg.getContent());
+            } else {
+                // Assistant turns are stored in display form; send them without the segment markers
+                addChatMessage(messages, "assistant",
+                        msg.getContent() != null ? msg.getContent().replace("|||SPLIT|||", "\n\n") : null);
+            }
+        }
 
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", "gpt-4o-mini");
+        addChatMessage(messages, "system", buildPatientContext(context, imageAnalyses) + "\n" + RESPONSE_FORMAT_REMINDER);
+        addChatMessage(messages, "user", userMessage);
+        return messages;
+    }
 
-            List<Map<String, String>> messages = new ArrayList<>();
-            Map<String, String> message = new HashMap<>();
-            message.put("role", "user");
-            message.put("content", prompt);
-            messages.add(message);
+    private void addChatMessage(ArrayNode messages, String role, String content) {
+        if (content == null || content.trim().isEmpty()) {
+            return;
+        }
+        messages.addObject()
+                .put("role", role)
+                .put("content", content);
+    }
 
-            requestBody.put("messages", messages);
+    private int estimateTokens(ArrayNode messages) {
+        int tokens = 0;
+        for (JsonNode message : messages) {
+            tokens += TokenEstimator.estimate(message.path("content").asText());
+        }
+        return tokens;
+    }
 
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
+    /**
+     * Calls the AI service for a complete, non-streamed chat completion.
+     *
+     * @return a future completing with the content of the completion
+     */
+    private CompletableFuture<String> callHackClubAPI(ArrayNode messages) {
+        return asyncApiClient.postJson(AsyncApiClient.Backend.LLM, aiServiceConfig.getHackClub().getApiUrl(),
+                        serializeRequest(messages, false))
+                .thenApply(this::extractCompletionContent);
+    }
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    aiServiceConfig.getHackClub().getApiUrl(),
-                    HttpMethod.POST,
-                    request,
-                    String.class);
+    /**
+     * Calls the AI service with a streamed completion and feeds each content delta to
+     * the parser as it arrives. Falls back to reading a regular completion if the
+     * service answers without an event stream.
+     *
+     * @return a future completing with the complete response text
+     */
+    private CompletableFuture<String> streamHackClubAPI(ArrayNode messages, StreamingSegmentParser parser) {
+        StringBuilder unstreamed = new StringBuilder();
+        return asyncApiClient.postJsonForLines(AsyncApiClient.Backend.LLM, aiServiceConfig.getHackClub().getApiUrl(),
+                        serializeRequest(messages, true), "text/event-stream, application/json",
+                        line -> {
+                            if (!line.startsWith("data:")) {
+                                unstreamed.append(line).append('\n');
+                                return;
+                            }
+                            String data = line.substring(5).trim();
+                            if (data.isEmpty() || "[DONE]".equals(data)) {
+                                return;
+                            }
+                            try {
+                                JsonNode delta = objectMapper.readTree(data)
+                                        .path("choices").path(0).path("delta").path("content");
+                                if (delta.isTextual()) {
+                                    parser.feed(delta.asText());
+                                }
+                            } catch (Exception e) {
+                                throw new RuntimeException("Invalid stream event: " + e.getMessage(), e);
+                            }
+                        })
+                .thenApply(ignored -> {
+                    if (parser.getText().isEmpty() && unstreamed.length() > 0) {
+                        parser.feed(extractCompletionContent(unstreamed.toString()));
+                    }
+                    return parser.getText();
+                });
+    }
 
-            if (response.getStatusCode() == HttpStatus.OK) {
-                JsonNode jsonResponse = objectMapper.readTree(response.getBody());
-                return jsonResponse.path("choices").get(0).path("message").path("content").asText();
-            } else {
-                throw new RuntimeException("API call failed with status: " + response.getStatusCode());
-            }
+    private byte[] serializeRequest(ArrayNode messages, boolean stream) {
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        requestBody.put("model", CHAT_MODEL);
+        if (stream) {
+            requestBody.put("stream", true);
+        }
+        requestBody.set("messages", messages);
+        try {
+            return requestWriter.writeValueAsBytes(requestBody);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize AI request: " + e.getMessage(), e);
+        }
+    }
 
+    private String extractCompletionContent(String responseBody) {
+        try {
+            JsonNode jsonResponse = objectMapper.readTree(responseBody);
+            return jsonResponse.path("choices").path(0).path("message").path("content").asText();
         } catch (Exception e) {
-            throw new RuntimeException("Failed to call AI API: " + e.getMessage(), e);
+            throw new RuntimeException("Failed to read AI API response: " + e.getMessage(), e);
         }
     }
 
@@ -342,6 +480,15 @@ public class AIConversationService {
         return "{}";
     }
 
+    private StructuredVetResponse.ResponseMessage parseResponseMessage(JsonNode segment) {
+        StructuredVetResponse.ResponseMessage message = new StructuredVetResponse.ResponseMessage();
+        message.setType(segment.path("type").asText("assessment"));
+        message.setContent(segment.path("content").asText(""));
+        message.setEmphasis(segment.path("emphasis").asText("normal"));
+        message.setDelay(segment.path("delay").asInt(800));
+        return message;
+    }
+
     private StructuredVetResponse parseStructuredResponse(String rawResponse) {
         try {
             String jsonResponse = extractJsonFromResponse(rawResponse);
@@ -354,15 +501,10 @@ public class AIConversationService {
             response.setAssessment(rootNode.path("assessment").asText(""));
 
             // Parse messageSegments - NOW INCLUDES "closure" type
-            JsonNode messageSegments = rootNode.path("messageSegments");
+            JsonNode messageSegments = rootNode.path(MESSAGE_SEGMENTS_FIELD);
             if (messageSegments.isArray()) {
                 for (JsonNode segment : messageSegments) {
-                    StructuredVetResponse.ResponseMessage message = new StructuredVetResponse.ResponseMessage();
-                    message.setType(segment.path("type").asText("assessment"));
-                    message.setContent(segment.path("content").asText(""));
-                    message.setEmphasis(segment.path("emphasis").asText("normal"));
-                    message.setDelay(segment.path("delay").asInt(800));
-                    response.getMessages().add(message);
+                    response.getMessages().add(parseResponseMessage(segment));
                 }
             }
 
@@ -541,24 +683,106 @@ public class AIConversationService {
      */
     public StructuredVetResponse generateStructuredResponse(String userMessage, ConversationContext context,
             List<AnalysisResult> imageAnalyses) {
-        try {
+        return generateStructuredResponse(userMessage, context, imageAnalyses, null);
+    }
 
+    /**
+     * Generates a structured veterinary response, passing each message segment to a
+     * listener as soon as it has been generated.
+     *
+     * The completion is streamed from the AI service and parsed incrementally, so the
+     * first segment can be shown to the owner while the rest of the response, including
+     * the structured content, is still being generated. The complete response is parsed
+     * and returned as usual once the stream ends. If the stream breaks after some
+     * segments were delivered, a response holding just those segments is returned so
+     * nothing already shown is contradicted by a fallback.
+     *
+     * @param userMessage the user's message or question about their pet
+     * @param context the conversation context containing session information, animal profile, and message history
+     * @param imageAnalyses list of image analysis results from uploaded pet images
+     * @param segmentListener receives each message segment as it completes, or null to not stream
+     * @return the complete structured response
+     */
+    public StructuredVetResponse generateStructuredResponse(String userMessage, ConversationContext context,
+            List<AnalysisResult> imageAnalyses, Consumer<StructuredVetResponse.ResponseMessage> segmentListener) {
+        return generateStructuredResponseAsync(userMessage, context, imageAnalyses, segmentListener).join();
+    }
 
-            String contextPrompt = buildContextPrompt(context, imageAnalyses);
+    /**
+     * Starts generating a structured veterinary response without blocking the caller.
+     *
+     * The request is sent through the shared non-blocking HTTP client and the returned
+     * future completes on its I/O pool, so no thread waits for the AI service. The
+     * future never completes exceptionally: failures produce the fallback response.
+     *
+     * @param userMessage the user's message or question about their pet
+     * @param context the conversation context containing session information, animal profile, and message history
+     * @param imageAnalyses list of image analysis results from uploaded pet images
+     * @param segmentListener receives each message segment as it completes, or null to not stream
+     * @return a future completing with the structured response
+     * @see #generateStructuredResponse(String, ConversationContext, List, Consumer)
+     */
+    public CompletableFuture<StructuredVetResponse> generateStructuredResponseAsync(String userMessage,
+            ConversationContext context, List<AnalysisResult> imageAnalyses,
+            Consumer<StructuredVetResponse.ResponseMessage> segmentListener) {
+        ConversationContext turnContext = context != null ? context : new ConversationContext("unknown-session");
+        try {
+            PromptWindowManager.PromptWindow window = promptWindowManager.buildWindow(turnContext);
+            ArrayNode messages = buildChatMessages(userMessage, turnContext, imageAnalyses, window);
+
+            int promptTokens = estimateTokens(messages);
+            promptWindowManager.recordPromptSize(promptTokens, window);
 
-            String fullPrompt = SYSTEM_PROMPT + "\n\n" + contextPrompt + "\n\nUser: " + userMessage;
+            if (segmentListener == null || !streamingEnabled) {
+                return callHackClubAPI(messages)
+                        .thenApply(this::parseStructuredResponse)
+                        .exceptionally(throwable -> structuredResponseFailed(throwable, userMessage, turnContext,
+                                imageAnalyses));
+            }
 
-            String rawResponse = callHackClubAPI(fullPrompt);
+            List<StructuredVetResponse.ResponseMessage> streamed = new ArrayList<>();
+            StreamingSegmentParser parser = new StreamingSegmentParser(MESSAGE_SEGMENTS_FIELD, segment -> {
+                StructuredVetResponse.ResponseMessage message = parseResponseMessage(segment);
+                streamed.add(message);
+                segmentListener.accept(message);
+            });
+
+            return streamHackClubAPI(messages, parser)
+                    .handle((rawResponse, throwable) -> {
+                        if (throwable != null) {
+                            if (streamed.isEmpty()) {
+                                return structuredResponseFailed(throwable, userMessage, turnContext, imageAnalyses);
+                            }
+                            System.err.println("AI response stream interrupted after " + streamed.size()
+                                    + " segments: " + AsyncApiClient.unwrap(throwable).getMessage());
+                            StructuredVetResponse partial = new StructuredVetResponse();
+                            partial.setUrgency(UrgencyLevel.MEDIUM.name());
+                            partial.setMessages(streamed);
+                            return partial;
+                        }
 
-            return parseStructuredResponse(rawResponse);
+                        StructuredVetResponse response = parseStructuredResponse(rawResponse);
+                        // Keep the final response consistent with the segments the owner has already seen
+                        if (!streamed.isEmpty()) {
+                            response.setMessages(streamed);
+                        }
+                        return response;
+                    });
 
         } catch (Exception e) {
-            System.err.println("ERROR in generateStructuredResponse: " + e.getMessage());
-            e.printStackTrace();
-            return generateFallbackStructuredResponse(userMessage, context, imageAnalyses);
+            return CompletableFuture.completedFuture(
+                    structuredResponseFailed(e, userMessage, turnContext, imageAnalyses));
         }
     }
 
+    private StructuredVetResponse structuredResponseFailed(Throwable throwable, String userMessage,
+            ConversationContext context, List<AnalysisResult> imageAnalyses) {
+        Throwable cause = AsyncApiClient.unwrap(throwable);
+        System.err.println("ERROR in generateStructuredResponse: " + cause.getMessage());
+        cause.printStackTrace();
+        return generateFallbackStructuredResponse(userMessage, context, imageAnalyses);
+    }
+
     /**
      * Builds a comprehensive context prompt for AI conversation generation.
      * 
@@ -572,13 +796,41 @@ public class AIConversationService {
      * @return a formatted context prompt string ready for AI processing
      */
     public String buildContextPrompt(ConversationContext context, List<AnalysisResult> imageAnalyses) {
-        StringBuilder contextBuilder = new StringBuilder();
-
-        contextBuilder.append("CONVERSATION CONTEXT:\n");
-
         if (context == null) {
             context = new ConversationContext("unknown-session");
         }
+        return buildContextPrompt(context, imageAnalyses, promptWindowManager.buildWindow(context));
+    }
+
+    private String buildContextPrompt(ConversationContext context, List<AnalysisResult> imageAnalyses,
+            PromptWindowManager.PromptWindow window) {
+        StringBuilder contextBuilder = new StringBuilder(buildPatientContext(context, imageAnalyses));
+
+        // Summary of the older part of the conversation that no longer fits the window
+        if (window.getSummary() != null && !window.getSummary().isEmpty()) {
+            contextBuilder.append("\nEarlier in this conversation (summary):\n");
+            contextBuilder.append(window.getSummary()).append("\n");
+        }
+
+        // Recent conversation history, limited to the token-budgeted window
+        if (!window.getMessages().isEmpty()) {
+            contextBuilder.append("\nRecent Conversation:\n");
+            for (Message msg : window.getMessages()) {
+                contextBuilder.append(promptWindowManager.formatMessage(msg)).append("\n");
+            }
+        }
+
+        return contextBuilder.toString();
+    }
+
+    /**
+     * Builds the per-turn part of the context: the animal profile, identified symptoms,
+     * urgency level and image analysis results.
+     */
+    private String buildPatientContext(ConversationContext context, List<AnalysisResult> imageAnalyses) {
+        StringBuilder contextBuilder = new StringBuilder();
+
+        contextBuilder.append("CONVERSATION CONTEXT:\n");
 
         // Animal profile information
         if (context.getAnimalProfile() != null) {
@@ -664,18 +916,6 @@ public class AIConversationService {
             contextBuilder.append("\n");
         }
 
-        // Recent conversation history
-        if (!context.getRecentHistory().isEmpty()) {
-            contextBuilder.append("\nRecent Conversation:\n");
-            List<Message> recentMessages = context.getRecentHistory();
-            
-
-            for (Message msg : recentMessages) {
-                String role = msg.getMessageType() == MessageType.USER ? "Owner" : "Vet Assistant";
-                contextBuilder.append(role).append(": ").append(msg.getContent()).append("\n");
-            }
-        }
-
         return contextBuilder.toString();
     }
 
@@ -775,12 +1015,7 @@ public class AIConversationService {
     
 
     private boolean containsEmergencyKeywords(String message) {
-        List<String> emergencyKeywords = Arrays.asList(
-                "not breathing", "can't breathe", "unconscious", "bleeding heavily", "blood",
-                "convulsing", "seizure", "choking", "collapsed", "emergency", "dying",
-                "severe pain", "won't wake up", "hit by car", "poisoned");
-
-        return emergencyKeywords.stream().anyMatch(message::contains);
+        return SymptomVocabulary.MATCHER.containsAny(message, KeywordCategory.EMERGENCY);
     }
 
     // Helper method to detect resolution messages
@@ -834,47 +1069,18 @@ public class AIConversationService {
      * Extracts potential symptoms from text using keyword matching and pattern recognition.
      * 
      * This method analyzes text content to identify veterinary symptoms and health concerns
-     * mentioned by pet owners. It uses a comprehensive list of symptom keywords and patterns
-     * to detect various health issues, behavioral changes, and physical symptoms that may
-     * require veterinary attention.
+     * mentioned by pet owners. The text is scanned once with the shared symptom vocabulary,
+     * which detects various health issues, behavioral changes, and physical symptoms that
+     * may require veterinary attention.
      * 
      * @param text the text to analyze for symptoms (typically user messages or conversation history)
      * @return a list of identified symptoms found in the text
      */
     public List<String> extractSymptomsFromText(String text) {
-        List<String> symptoms = new ArrayList<>();
-        String lowerText = text.toLowerCase();
-
-        // Common symptom keywords
-        Map<String, String> symptomKeywords = new HashMap<>();
-        symptomKeywords.put("vomit", "vomiting");
-        symptomKeywords.put("throw up", "vomiting");
-        symptomKeywords.put("limp", "limping");
-        symptomKeywords.put("diarrhea", "diarrhea");
-        symptomKeywords.put("loose stool", "diarrhea");
-        symptomKeywords.put("not eating", "loss of appetite");
-        symptomKeywords.put("won't eat", "loss of appetite");
-        symptomKeywords.put("lethargic", "lethargy");
-        symptomKeywords.put("tired", "lethargy");
-        symptomKeywords.put("scratch", "scratching");
-        symptomKeywords.put("itch", "itching");
-        symptomKeywords.put("cough", "coughing");
-        symptomKeywords.put("sneez", "sneezing");
-        symptomKeywords.put("discharge", "discharge");
-        symptomKeywords.put("swelling", "swelling");
-        symptomKeywords.put("swollen", "swelling");
-        symptomKeywords.put("pain", "pain");
-        symptomKeywords.put("hurt", "pain");
-        symptomKeywords.put("breathing", "breathing difficulty");
-        symptomKeywords.put("panting", "excessive panting");
-
-        for (Map.Entry<String, String> entry : symptomKeywords.entrySet()) {
-            if (lowerText.contains(entry.getKey())) {
-                symptoms.add(entry.getValue());
-            }
+        if (text == null) {
+            return new ArrayList<>();
         }
-
-        return symptoms;
+        return new ArrayList<>(SymptomVocabulary.MATCHER.findCanonical(text, KeywordCategory.SYMPTOM));
     }
 
     /**
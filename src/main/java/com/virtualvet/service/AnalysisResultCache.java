@@ -0,0 +1,204 @@
+package com.virtualvet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualvet.model.AnalysisResult;
+import com.virtualvet.repository.MessageImageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+
+/**
+ * Content-addressed cache of image analysis results for the Virtual Vet application.
+ *
+ * Analysis results are keyed by the SHA-256 hash of the image bytes, so a re-uploaded
+ * photo, an edited-and-resent message or a duplicate attachment reuses the earlier
+ * analysis instead of making another VQA round trip. The in-memory tier is a bounded
+ * LRU map with a time-to-live per entry. When persistence is enabled, misses fall
+ * back to the analysis JSON stored in message_images.analysis_result, which lets
+ * cached analyses survive application restarts.
+ *
+ * Entries are held as JSON and deserialized on every hit, so each caller receives
+ * its own AnalysisResult instance and can set per-turn fields such as the image
+ * index without affecting other callers.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+public class AnalysisResultCache {
+
+    @Autowired
+    private MessageImageRepository messageImageRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${image.analysis.cache.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${image.analysis.cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${image.analysis.cache.persistent:true}")
+    private boolean persistent;
+
+    /** Access-ordered map used as an LRU; guarded by its own monitor */
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private Counter hitCounter;
+    private Counter persistentHitCounter;
+    private Counter missCounter;
+
+    /**
+     * Registers the cache metrics once the meter registry has been injected.
+     */
+    @PostConstruct
+    void registerMetrics() {
+        hitCounter = Counter.builder("vetchat.image.analysis.cache")
+                .tag("result", "hit")
+                .description("Image analysis cache lookups served from memory")
+                .register(meterRegistry);
+        persistentHitCounter = Counter.builder("vetchat.image.analysis.cache")
+                .tag("result", "persistent-hit")
+                .description("Image analysis cache lookups served from stored message images")
+                .register(meterRegistry);
+        missCounter = Counter.builder("vetchat.image.analysis.cache")
+                .tag("result", "miss")
+                .description("Image analysis cache lookups that required a fresh analysis")
+                .register(meterRegistry);
+        Gauge.builder("vetchat.image.analysis.cache.size", this, AnalysisResultCache::size)
+                .description("Number of image analyses held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks up a previously computed analysis for the given content hash.
+     *
+     * The in-memory tier is checked first. On a miss, and when persistence is
+     * enabled, the most recent stored analysis for the same hash is loaded from
+     * the message_images table and promoted into memory.
+     *
+     * @param contentHash the SHA-256 hash of the image content
+     * @return the cached analysis, or empty if none is available
+     */
+    public Optional<AnalysisResult> get(String contentHash) {
+        if (contentHash == null) {
+            return Optional.empty();
+        }
+
+        String json = null;
+        synchronized (entries) {
+            CacheEntry entry = entries.get(contentHash);
+            if (entry != null) {
+                if (entry.isExpired(ttlMinutes)) {
+                    entries.remove(contentHash);
+                } else {
+                    json = entry.json;
+                }
+            }
+        }
+
+        if (json != null) {
+            AnalysisResult result = deserialize(json);
+            if (result != null) {
+                hitCounter.increment();
+                return Optional.of(result);
+            }
+        }
+
+        if (persistent) {
+            try {
+                Optional<String> stored = messageImageRepository.findLatestAnalysisByContentHash(contentHash);
+                if (stored.isPresent()) {
+                    AnalysisResult result = deserialize(stored.get());
+                    if (result != null) {
+                        store(contentHash, stored.get());
+                        persistentHitCounter.increment();
+                        return Optional.of(result);
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("Failed to load stored image analysis: " + e.getMessage());
+            }
+        }
+
+        missCounter.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Stores an analysis result under the given content hash.
+     *
+     * @param contentHash the SHA-256 hash of the image content
+     * @param result the analysis result to cache
+     */
+    public void put(String contentHash, AnalysisResult result) {
+        if (contentHash == null || result == null) {
+            return;
+        }
+
+        try {
+            store(contentHash, objectMapper.writeValueAsString(result));
+        } catch (Exception e) {
+            System.err.println("Failed to cache image analysis: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number of analyses currently held in memory.
+     *
+     * @return the in-memory entry count
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void store(String contentHash, String json) {
+        synchronized (entries) {
+            entries.put(contentHash, new CacheEntry(json));
+            while (entries.size() > maxEntries) {
+                String eldest = entries.keySet().iterator().next();
+                entries.remove(eldest);
+            }
+        }
+    }
+
+    private AnalysisResult deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, AnalysisResult.class);
+        } catch (Exception e) {
+            System.err.println("Failed to read cached image analysis: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Cached analysis JSON together with the time it was stored.
+     */
+    private static class CacheEntry {
+        private final String json;
+        private final long storedAt;
+
+        CacheEntry(String json) {
+            this.json = json;
+            this.storedAt = System.currentTimeMillis();
+        }
+
+        boolean isExpired(long ttlMinutes) {
+            return System.currentTimeMillis() - storedAt > ttlMinutes * 60_000L;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.virtualvet.service;
 
 import com.virtualvet.entity.*;
+import com.virtualvet.enums.entity.SymptomSource;
+import com.virtualvet.enums.model.KeywordCategory;
+import com.virtualvet.model.ChatTurn;
 import com.virtualvet.repository.*;
+import com.virtualvet.util.KeywordMatcher;
+import com.virtualvet.util.SymptomVocabulary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,7 +16,6 @@ import java.math.RoundingMode;
 import java.util.*;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
-import java.util.stream.Collectors;
 
 /**
  * Service for managing animal profile information in the Virtual Vet application.
@@ -26,6 +30,9 @@ import java.util.stream.Collectors;
  * and provides utilities for generating profile summaries and identifying missing
  * information fields.
  * 
+ * Each message is lowercased and tokenized once, and all extractors share the
+ * result. The age and weight patterns are compiled once when the class is loaded.
+ * 
  * @author Elliott Starosta
  * @version 1.0
  * @since 2025
@@ -34,63 +41,48 @@ import java.util.stream.Collectors;
 @Transactional
 public class AnimalProfileService {
 
+    /**
+     * Age expressions. Groups: 1 number with "old" and unit 2 years, 3 months or 4 weeks;
+     * 5 number after "age"; 6 number of years without "old".
+     */
+    private static final Pattern AGE_PATTERN = Pattern.compile(
+            "(\\d+)\\s*(?:(year|yr)|(month|mo)|(week|wk))s?\\s*old|\\bage\\s*(\\d+)|(\\d+)\\s*(?:year|yr)s?");
+
+    /** Weight expressions. Groups: 1 number, 2 unit */
+    private static final Pattern WEIGHT_PATTERN = Pattern.compile(
+            "(\\d+(?:\\.\\d+)?)\\s*(kg|kilograms?|lbs?|pounds?)\\b");
+
+    private static final double KG_PER_POUND = 0.453592;
+
     @Autowired
     private ConversationRepository conversationRepository;
 
     @Autowired
     private AnimalProfileRepository animalProfileRepository;
 
-    private static final Map<String, List<String>> ANIMAL_TYPES = new HashMap<>();
-    private static final Map<String, List<String>> DOG_BREEDS = new HashMap<>();
-    private static final Map<String, List<String>> CAT_BREEDS = new HashMap<>();
-
-    static {
-        // Initialize animal type keywords
-        ANIMAL_TYPES.put("dog", Arrays.asList("dog", "puppy", "canine", "pup"));
-        ANIMAL_TYPES.put("cat", Arrays.asList("cat", "kitten", "feline", "kitty"));
-        ANIMAL_TYPES.put("bird", Arrays.asList("bird", "parrot", "canary", "cockatiel", "budgie"));
-        ANIMAL_TYPES.put("rabbit", Arrays.asList("rabbit", "bunny", "hare"));
-        ANIMAL_TYPES.put("hamster", Arrays.asList("hamster", "gerbil", "guinea pig"));
-        ANIMAL_TYPES.put("reptile", Arrays.asList("lizard", "snake", "gecko", "iguana", "bearded dragon"));
-        ANIMAL_TYPES.put("fish", Arrays.asList("fish", "goldfish", "betta"));
-
-        // Initialize dog breeds
-        DOG_BREEDS.put("large", Arrays.asList("labrador", "golden retriever", "german shepherd",
-                "rottweiler", "doberman", "great dane", "mastiff", "husky", "malamute", "saint bernard"));
-        DOG_BREEDS.put("medium", Arrays.asList("border collie", "australian shepherd", "cocker spaniel",
-                "bulldog", "boxer", "beagle", "corgi", "shiba inu", "australian cattle dog"));
-        DOG_BREEDS.put("small", Arrays.asList("chihuahua", "yorkshire terrier", "pomeranian",
-                "maltese", "pug", "french bulldog", "boston terrier", "dachshund", "jack russell"));
-
-        // Initialize cat breeds
-        CAT_BREEDS.put("longhair", Arrays.asList("persian", "maine coon", "ragdoll", "norwegian forest",
-                "siberian", "himalayan", "angora"));
-        CAT_BREEDS.put("shorthair", Arrays.asList("siamese", "british shorthair", "bengal", "russian blue",
-                "abyssinian", "scottish fold", "american shorthair", "domestic shorthair"));
-    }
+    @Autowired
+    private ProfileSymptomRepository profileSymptomRepository;
+
+    @Autowired
+    private ConversationContextCache conversationContextCache;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
 
     public AnimalProfile updateFromMessage(String sessionId, String message) {
         try {
             // Get or create conversation
-            Optional<Conversation> conversationOpt = conversationRepository.findBySessionId(sessionId);
-            if (!conversationOpt.isPresent()) {
+            Optional<Long> conversationId = sessionRegistry.findConversationId(sessionId);
+            if (!conversationId.isPresent()) {
                 return null;
             }
 
-            Conversation conversation = conversationOpt.get();
-
             // Get existing profile or create new one
-            // Fixed code:
-            AnimalProfile profile = animalProfileRepository.findByConversationId(conversation.getId())
-                    .stream()
-                    .findFirst()
-                    .orElseGet(() -> {
-                        AnimalProfile newProfile = new AnimalProfile(conversation);
-                        return animalProfileRepository.save(newProfile);
-                    });
+            AnimalProfile profile = sessionRegistry.findProfile(sessionId, conversationId.get())
+                    .orElseGet(() -> createProfile(sessionId, conversationId.get()));
 
             // Extract information from message
-            extractAnimalInfo(profile, message);
+            applyMessage(profile, message);
 
             return animalProfileRepository.save(profile);
 
@@ -99,7 +91,7 @@ public class AnimalProfileService {
         }
     }
 
-    public AnimalProfile addSymptomsToProfile(String sessionId, List<String> newSymptoms) {
+    public AnimalProfile addSymptomsToProfile(String sessionId, List<String> newSymptoms, SymptomSource source) {
         try {
             if (newSymptoms == null || newSymptoms.isEmpty()) {
                 return getProfileBySessionId(sessionId);
@@ -108,34 +100,18 @@ public class AnimalProfileService {
             AnimalProfile profile = getProfileBySessionId(sessionId);
             if (profile == null) {
                 // Create a new profile if none exists
-                Optional<Conversation> conversation = conversationRepository.findBySessionId(sessionId);
-                if (conversation.isPresent()) {
-                    profile = new AnimalProfile(conversation.get());
-                    profile = animalProfileRepository.save(profile);
+                Optional<Long> conversationId = sessionRegistry.findConversationId(sessionId);
+                if (conversationId.isPresent()) {
+                    profile = createProfile(sessionId, conversationId.get());
                 } else {
                     return null;
                 }
             }
 
-            // Get existing symptoms
-            Set<String> existingSymptoms = new HashSet<>();
-            if (profile.getSymptoms() != null && !profile.getSymptoms().trim().isEmpty()) {
-                existingSymptoms.addAll(Arrays.asList(profile.getSymptoms().split(",\\s*")));
-            }
-
-            // Add new symptoms (deduplicated)
-            for (String symptom : newSymptoms) {
-                if (symptom != null && !symptom.trim().isEmpty()) {
-                    existingSymptoms.add(symptom.trim().toLowerCase());
-                }
+            // Add new symptoms (deduplicated); nothing is written if they were all known
+            if (!profile.addSymptoms(newSymptoms, source)) {
+                return profile;
             }
-
-            // Update profile with combined symptoms
-            String updatedSymptoms = existingSymptoms.stream()
-                    .filter(s -> s != null && !s.trim().isEmpty())
-                    .collect(Collectors.joining(", "));
-
-            profile.setSymptoms(updatedSymptoms);
             return animalProfileRepository.save(profile);
 
         } catch (Exception e) {
@@ -144,12 +120,21 @@ public class AnimalProfileService {
         }
     }
 
-    private void extractAnimalInfo(AnimalProfile profile, String message) {
-        String lowerMessage = message.toLowerCase();
+    /**
+     * Fills in the profile fields that are still empty from what a message says about
+     * the animal, and records the symptoms the message mentions. The profile is only
+     * changed in memory; it is not saved.
+     * 
+     * @param profile the profile to update
+     * @param message the owner's message
+     * @return the symptoms mentioned in the message, in the order they appear
+     */
+    public Set<String> applyMessage(AnimalProfile profile, String message) {
+        MessageTokens tokens = MessageTokens.of(message);
 
         // Extract animal type
         if (profile.getAnimalType() == null) {
-            String detectedType = detectAnimalType(lowerMessage);
+            String detectedType = detectAnimalType(tokens);
             if (detectedType != null) {
                 profile.setAnimalType(detectedType);
             }
@@ -157,7 +142,7 @@ public class AnimalProfileService {
 
         // Extract breed
         if (profile.getBreed() == null) {
-            String detectedBreed = detectBreed(lowerMessage, profile.getAnimalType());
+            String detectedBreed = detectBreed(tokens, profile.getAnimalType());
             if (detectedBreed != null) {
                 profile.setBreed(detectedBreed);
             }
@@ -165,7 +150,7 @@ public class AnimalProfileService {
 
         // Extract age
         if (profile.getAge() == null) {
-            Integer detectedAge = extractAge(lowerMessage);
+            Integer detectedAge = extractAge(tokens);
             if (detectedAge != null) {
                 profile.setAge(detectedAge);
             }
@@ -173,112 +158,143 @@ public class AnimalProfileService {
 
         // Extract weight
         if (profile.getWeight() == null) {
-            BigDecimal detectedWeight = extractWeight(lowerMessage);
+            BigDecimal detectedWeight = extractWeight(tokens);
             if (detectedWeight != null) {
                 profile.setWeight(detectedWeight);
             }
         }
 
         // Extract and update symptoms
-        List<String> newSymptoms = extractSymptoms(lowerMessage);
-        if (!newSymptoms.isEmpty()) {
-            updateSymptoms(profile, newSymptoms);
-        }
+        Set<String> symptoms = extractSymptoms(tokens);
+        profile.addSymptoms(symptoms, SymptomSource.USER_TEXT);
+        return symptoms;
     }
 
-    private String detectAnimalType(String message) {
-        for (Map.Entry<String, List<String>> entry : ANIMAL_TYPES.entrySet()) {
-            for (String keyword : entry.getValue()) {
-                if (message.contains(keyword)) {
-                    return entry.getKey();
+    /**
+     * Applies the profile changes of completed chat turns to the stored profile of
+     * their conversation, creating the profile if there is none yet. Detected fields
+     * only fill fields that are still empty, so edits made while the turns were
+     * running are kept, and symptoms are added to those already recorded.
+     * 
+     * Must run in the transaction that stores the turns; the changes are written when
+     * it commits.
+     * 
+     * @param conversation the managed conversation the turns belong to
+     * @param turns the turns in the order they were completed
+     * @return the managed profile, or null if the turns did not change the profile
+     */
+    public AnimalProfile applyTurns(Conversation conversation, List<ChatTurn> turns) {
+        AnimalProfile profile = null;
+        for (ChatTurn turn : turns) {
+            AnimalProfile detected = turn.getDetectedProfile();
+            if (detected == null && turn.getNewSymptoms().isEmpty()) {
+                continue;
+            }
+            if (profile == null) {
+                profile = sessionRegistry.findProfile(turn.getSessionId(), conversation.getId())
+                        .orElseGet(() -> createProfile(turn.getSessionId(), conversation.getId()));
+            }
+
+            if (detected != null) {
+                if (profile.getAnimalType() == null) {
+                    profile.setAnimalType(detected.getAnimalType());
                 }
+                if (profile.getBreed() == null) {
+                    profile.setBreed(detected.getBreed());
+                }
+                if (profile.getAge() == null) {
+                    profile.setAge(detected.getAge());
+                }
+                if (profile.getWeight() == null) {
+                    profile.setWeight(detected.getWeight());
+                }
+            }
+            for (Map.Entry<SymptomSource, Set<String>> symptoms : turn.getNewSymptoms().entrySet()) {
+                profile.addSymptoms(symptoms.getValue(), symptoms.getKey());
             }
         }
-        return null;
+        return profile;
+    }
+
+    private String detectAnimalType(MessageTokens message) {
+        return SymptomVocabulary.MATCHER.findFirst(message.text, KeywordCategory.ANIMAL_TYPE)
+                .map(KeywordMatcher.Match::getCanonical)
+                .orElse(null);
     }
 
-    private String detectBreed(String message, String animalType) {
+    private String detectBreed(MessageTokens message, String animalType) {
         if (animalType == null) {
             return null;
         }
 
-        Map<String, List<String>> breedMap = null;
+        KeywordCategory breedCategory = null;
         if ("dog".equals(animalType)) {
-            breedMap = DOG_BREEDS;
+            breedCategory = KeywordCategory.DOG_BREED;
         } else if ("cat".equals(animalType)) {
-            breedMap = CAT_BREEDS;
+            breedCategory = KeywordCategory.CAT_BREED;
         }
 
-        if (breedMap != null) {
-            for (Map.Entry<String, List<String>> entry : breedMap.entrySet()) {
-                for (String breed : entry.getValue()) {
-                    if (message.contains(breed)) {
-                        return breed;
-                    }
-                }
+        if (breedCategory != null) {
+            Optional<KeywordMatcher.Match> breed = SymptomVocabulary.MATCHER.findFirst(message.text, breedCategory);
+            if (breed.isPresent()) {
+                return breed.get().getCanonical();
             }
         }
 
         // Check for mixed breed indicators
-        if (message.contains("mixed") || message.contains("mix") || message.contains("mutt")) {
+        if (SymptomVocabulary.MATCHER.containsAny(message.text, KeywordCategory.MIXED_BREED)) {
             return "mixed breed";
         }
 
         return null;
     }
 
-    private Integer extractAge(String message) {
-        // Pattern to match age expressions
-        Pattern agePattern = Pattern.compile(
-                "(?:(\\d+)\\s*(?:year|yr)s?\\s*old)|(?:(\\d+)\\s*(?:month|mo)s?\\s*old)|(?:(\\d+)\\s*(?:week|wk)s?\\s*old)|(?:age\\s*(\\d+))|(?:(\\d+)\\s*(?:year|yr)s?)");
-        Matcher matcher = agePattern.matcher(message);
+    private Integer extractAge(MessageTokens message) {
+        Matcher matcher = AGE_PATTERN.matcher(message.text);
 
         if (matcher.find()) {
-            for (int i = 1; i <= matcher.groupCount(); i++) {
-                String group = matcher.group(i);
-                if (group != null) {
-                    try {
-                        int age = Integer.parseInt(group);
-
-                        // Convert months/weeks to approximate years for consistency
-                        if (message.contains("month") || message.contains("mo")) {
-                            return age < 12 ? 0 : age / 12; // Under 1 year = 0, else convert
-                        } else if (message.contains("week") || message.contains("wk")) {
-                            return age < 52 ? 0 : age / 52; // Under 1 year = 0, else convert
-                        } else {
-                            return age;
-                        }
-                    } catch (NumberFormatException e) {
-                        continue;
+            try {
+                if (matcher.group(1) != null) {
+                    int age = Integer.parseInt(matcher.group(1));
+
+                    // Convert months/weeks to approximate years for consistency
+                    if (matcher.group(3) != null) {
+                        return age < 12 ? 0 : age / 12; // Under 1 year = 0, else convert
+                    } else if (matcher.group(4) != null) {
+                        return age < 52 ? 0 : age / 52; // Under 1 year = 0, else convert
                     }
+                    return age;
                 }
+                String years = matcher.group(5) != null ? matcher.group(5) : matcher.group(6);
+                return Integer.parseInt(years);
+            } catch (NumberFormatException e) {
+                // Too many digits to be an age, fall through to the life stage keywords
             }
         }
 
         // Check for life stage keywords
-        if (message.contains("puppy") || message.contains("kitten")) {
+        if (message.hasAnyWord("puppy", "kitten")) {
             return 0; // Less than 1 year
-        } else if (message.contains("senior") || message.contains("elderly") || message.contains("old")) {
+        } else if (message.hasAnyWord("senior", "elderly", "old")) {
             return 10; // Senior pet
-        } else if (message.contains("young") || message.contains("juvenile")) {
+        } else if (message.hasAnyWord("young", "juvenile")) {
             return 2; // Young adult
         }
 
         return null;
     }
 
-    private BigDecimal extractWeight(String message) {
-        // Pattern to match weight expressions (kg, lbs, pounds)
-        Pattern weightPattern = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*(?:kg|kilogram|lb|lbs|pound|pounds)");
-        Matcher matcher = weightPattern.matcher(message);
+    private BigDecimal extractWeight(MessageTokens message) {
+        Matcher matcher = WEIGHT_PATTERN.matcher(message.text);
 
         if (matcher.find()) {
             try {
                 double weight = Double.parseDouble(matcher.group(1));
 
                 // Convert pounds to kg if needed
-                if (message.contains("lb") || message.contains("pound")) {
-                    weight = weight * 0.453592; // Convert lbs to kg
+                String unit = matcher.group(2);
+                if (unit.startsWith("lb") || unit.startsWith("pound")) {
+                    weight = weight * KG_PER_POUND;
                 }
 
                 return BigDecimal.valueOf(weight).setScale(2, RoundingMode.HALF_UP);
@@ -288,90 +304,33 @@ public class AnimalProfileService {
         }
 
         // Check for size descriptors
-        if (message.contains("small") || message.contains("tiny")) {
+        if (message.hasAnyWord("small", "tiny")) {
             return BigDecimal.valueOf(5.0); // Approximate small pet weight
-        } else if (message.contains("large") || message.contains("big")) {
+        } else if (message.hasAnyWord("large", "big")) {
             return BigDecimal.valueOf(30.0); // Approximate large pet weight
-        } else if (message.contains("medium")) {
+        } else if (message.hasAnyWord("medium")) {
             return BigDecimal.valueOf(15.0); // Approximate medium pet weight
         }
 
         return null;
     }
 
-    private List<String> extractSymptoms(String message) {
-        List<String> symptoms = new ArrayList<>();
-
-        Map<String, String> symptomKeywords = new HashMap<>();
-        symptomKeywords.put("vomit", "vomiting");
-        symptomKeywords.put("throw up", "vomiting");
-        symptomKeywords.put("limp", "limping");
-        symptomKeywords.put("diarrhea", "diarrhea");
-        symptomKeywords.put("loose stool", "diarrhea");
-        symptomKeywords.put("not eating", "loss of appetite");
-        symptomKeywords.put("won't eat", "loss of appetite");
-        symptomKeywords.put("appetite", "appetite changes");
-        symptomKeywords.put("lethargic", "lethargy");
-        symptomKeywords.put("tired", "lethargy");
-        symptomKeywords.put("weak", "weakness");
-        symptomKeywords.put("scratch", "scratching");
-        symptomKeywords.put("itch", "itching");
-        symptomKeywords.put("cough", "coughing");
-        symptomKeywords.put("sneez", "sneezing");
-        symptomKeywords.put("discharge", "discharge");
-        symptomKeywords.put("runny", "discharge");
-        symptomKeywords.put("swelling", "swelling");
-        symptomKeywords.put("swollen", "swelling");
-        symptomKeywords.put("pain", "pain");
-        symptomKeywords.put("hurt", "pain");
-        symptomKeywords.put("yelp", "pain");
-        symptomKeywords.put("whimper", "pain");
-        symptomKeywords.put("breathing", "breathing difficulty");
-        symptomKeywords.put("panting", "excessive panting");
-        symptomKeywords.put("drool", "drooling");
-        symptomKeywords.put("shaking", "trembling");
-        symptomKeywords.put("trembl", "trembling");
-        symptomKeywords.put("seizure", "seizure");
-        symptomKeywords.put("convuls", "convulsions");
-        symptomKeywords.put("blood", "bleeding");
-        symptomKeywords.put("wound", "wound");
-        symptomKeywords.put("cut", "cut");
-        symptomKeywords.put("limp", "limping");
-
-        for (Map.Entry<String, String> entry : symptomKeywords.entrySet()) {
-            if (message.contains(entry.getKey())) {
-                symptoms.add(entry.getValue());
-            }
-        }
-
-        return symptoms;
+    private Set<String> extractSymptoms(MessageTokens message) {
+        return SymptomVocabulary.MATCHER.findCanonical(message.text, KeywordCategory.SYMPTOM);
     }
 
-    private void updateSymptoms(AnimalProfile profile, List<String> newSymptoms) {
-        Set<String> existingSymptoms = new HashSet<>();
-
-        if (profile.getSymptoms() != null && !profile.getSymptoms().trim().isEmpty()) {
-            existingSymptoms.addAll(Arrays.asList(profile.getSymptoms().split(",\\s*")));
-        }
-
-        existingSymptoms.addAll(newSymptoms);
-
-        String updatedSymptoms = existingSymptoms.stream()
-                .filter(s -> s != null && !s.trim().isEmpty())
-                .collect(Collectors.joining(", "));
-
-        profile.setSymptoms(updatedSymptoms);
+    public AnimalProfile getProfileBySessionId(String sessionId) {
+        return sessionRegistry.findProfile(sessionId).orElse(null);
     }
 
-    public AnimalProfile getProfileBySessionId(String sessionId) {
-        Optional<Conversation> conversation = conversationRepository.findBySessionId(sessionId);
-        if (conversation.isPresent()) {
-            return animalProfileRepository.findByConversationId(conversation.get().getId())
-                    .stream()
-                    .findFirst()
-                    .orElse(null);
-        }
-        return null;
+    /**
+     * Saves an empty profile for a conversation and registers it for the session.
+     */
+    private AnimalProfile createProfile(String sessionId, Long conversationId) {
+        AnimalProfile profile = animalProfileRepository.save(
+                new AnimalProfile(conversationRepository.getReferenceById(conversationId)));
+        sessionRegistry.registerProfile(sessionId, conversationId, profile.getId());
+        return profile;
     }
 
     public AnimalProfile updateProfile(String sessionId, AnimalProfile updatedProfile) {
@@ -391,10 +350,12 @@ public class AnimalProfileService {
                 if (updatedProfile.getWeight() != null) {
                     existingProfile.setWeight(updatedProfile.getWeight());
                 }
-                if (updatedProfile.getSymptoms() != null) {
-                    existingProfile.setSymptoms(updatedProfile.getSymptoms());
+                if (!updatedProfile.getSymptomSet().isEmpty()) {
+                    existingProfile.replaceSymptoms(updatedProfile.getSymptomSet(), SymptomSource.USER_TEXT);
                 }
 
+                // Edits made outside the chat flow can remove symptoms, so rebuild the cached context
+                conversationContextCache.invalidate(sessionId);
                 return animalProfileRepository.save(existingProfile);
             }
         } catch (Exception e) {
@@ -403,6 +364,20 @@ public class AnimalProfileService {
         return null;
     }
 
+    /**
+     * Finds the sessions whose animal profile has a given symptom.
+     * 
+     * @param symptom the symptom name, matched case-insensitively
+     * @return the session IDs, empty if no profile has the symptom
+     */
+    @Transactional(readOnly = true)
+    public List<String> findSessionIdsWithSymptom(String symptom) {
+        if (symptom == null || symptom.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return profileSymptomRepository.findSessionIdsBySymptom(symptom.trim().toLowerCase());
+    }
+
     public boolean isProfileComplete(AnimalProfile profile) {
         return profile != null &&
                 profile.getAnimalType() != null &&
@@ -461,4 +436,57 @@ public class AnimalProfileService {
 
         return summary.toString();
     }
+
+    /**
+     * A message lowercased and split into words in a single pass, shared by all
+     * extractors so the message is only processed once.
+     */
+    private static final class MessageTokens {
+
+        /** The whole message in lower case, for the keyword matcher and patterns */
+        private final String text;
+
+        /** The distinct words of the message; letters and digits only */
+        private final Set<String> words;
+
+        private MessageTokens(String text, Set<String> words) {
+            this.text = text;
+            this.words = words;
+        }
+
+        static MessageTokens of(String message) {
+            if (message == null) {
+                return new MessageTokens("", Collections.emptySet());
+            }
+
+            char[] lower = new char[message.length()];
+            Set<String> words = new HashSet<>();
+            int wordStart = -1;
+            for (int i = 0; i < lower.length; i++) {
+                char c = Character.toLowerCase(message.charAt(i));
+                lower[i] = c;
+                if (Character.isLetterOrDigit(c)) {
+                    if (wordStart < 0) {
+                        wordStart = i;
+                    }
+                } else if (wordStart >= 0) {
+                    words.add(new String(lower, wordStart, i - wordStart));
+                    wordStart = -1;
+                }
+            }
+            if (wordStart >= 0) {
+                words.add(new String(lower, wordStart, lower.length - wordStart));
+            }
+            return new MessageTokens(new String(lower), words);
+        }
+
+        boolean hasAnyWord(String... candidates) {
+            for (String candidate : candidates) {
+                if (words.contains(candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -0,0 +1,301 @@
+package com.virtualvet.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Shared non-blocking HTTP client for the external services used by the Virtual Vet application.
+ *
+ * All calls to the AI chat service, the local VQA sidecar, Hugging Face and the
+ * geocoding service go through one java.net.http.HttpClient, so connections are
+ * pooled and reused across requests instead of being opened per call. HTTPS backends
+ * negotiate HTTP/2 where the server supports it and fall back to HTTP/1.1 otherwise;
+ * the plain-HTTP VQA sidecar is always called with HTTP/1.1.
+ *
+ * Every request returns a CompletableFuture that completes on the client's small I/O
+ * pool, so no caller thread waits while a request is in flight. Each backend has its
+ * own response timeout. Responses with a non-2xx status complete exceptionally with
+ * an HttpStatusException carrying the status code and body.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+public class AsyncApiClient {
+
+    /**
+     * External services called through this client, each with its own timeout.
+     */
+    public enum Backend {
+        LLM,
+        VQA,
+        HUGGING_FACE,
+        GEOCODING
+    }
+
+    @Autowired
+    private ExecutorProvider executorProvider;
+
+    @Value("${http.client.connect-timeout-seconds:10}")
+    private int connectTimeoutSeconds;
+
+    @Value("${http.client.io-threads:4}")
+    private int ioThreads;
+
+    @Value("${http.client.llm.timeout-seconds:60}")
+    private int llmTimeoutSeconds;
+
+    @Value("${http.client.vqa.timeout-seconds:${ai.vqa.timeout:25}}")
+    private int vqaTimeoutSeconds;
+
+    @Value("${http.client.hugging-face.timeout-seconds:30}")
+    private int huggingFaceTimeoutSeconds;
+
+    @Value("${http.client.geocoding.timeout-seconds:10}")
+    private int geocodingTimeoutSeconds;
+
+    private final Map<Backend, Duration> timeouts = new EnumMap<>(Backend.class);
+
+    /** Pool that runs response handling and dependent stages; requests never block it */
+    private ExecutorService ioExecutor;
+
+    private HttpClient httpClient;
+
+    @PostConstruct
+    void initializeClient() {
+        timeouts.put(Backend.LLM, Duration.ofSeconds(llmTimeoutSeconds));
+        timeouts.put(Backend.VQA, Duration.ofSeconds(vqaTimeoutSeconds));
+        timeouts.put(Backend.HUGGING_FACE, Duration.ofSeconds(huggingFaceTimeoutSeconds));
+        timeouts.put(Backend.GEOCODING, Duration.ofSeconds(geocodingTimeoutSeconds));
+
+        ioExecutor = executorProvider.newExecutor("http-client", ioThreads);
+
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(connectTimeoutSeconds))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(ioExecutor)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdownClient() {
+        ioExecutor.shutdownNow();
+    }
+
+    /**
+     * Sends a GET request.
+     *
+     * @param backend the service being called
+     * @param url the URL to request
+     * @param headers additional request headers
+     * @return a future completing with the response body
+     */
+    public CompletableFuture<String> get(Backend backend, String url, Map<String, String> headers) {
+        HttpRequest request = newRequest(backend, url, headers).GET().build();
+        return send(request);
+    }
+
+    /**
+     * Sends a POST request with a JSON body.
+     *
+     * @param backend the service being called
+     * @param url the URL to post to
+     * @param json the serialized JSON body
+     * @return a future completing with the response body
+     */
+    public CompletableFuture<String> postJson(Backend backend, String url, byte[] json) {
+        return post(backend, url, "application/json", json, Map.of());
+    }
+
+    /**
+     * Sends a POST request with the given body and content type.
+     *
+     * @param backend the service being called
+     * @param url the URL to post to
+     * @param contentType the content type of the body
+     * @param body the request body
+     * @param headers additional request headers
+     * @return a future completing with the response body
+     */
+    public CompletableFuture<String> post(Backend backend, String url, String contentType, byte[] body,
+            Map<String, String> headers) {
+        HttpRequest request = newRequest(backend, url, headers)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return send(request);
+    }
+
+    /**
+     * Sends a POST request with a JSON body and passes each line of the response to a
+     * consumer as it arrives, for streamed responses such as server-sent events.
+     *
+     * The lines are delivered on the client's I/O pool in order. If the consumer throws,
+     * the remaining lines are still drained and the returned future completes with the
+     * consumer's exception.
+     *
+     * @param backend the service being called
+     * @param url the URL to post to
+     * @param json the serialized JSON body
+     * @param accept the Accept header value
+     * @param lineConsumer receives each response line
+     * @return a future completing once the whole response has been consumed
+     */
+    public CompletableFuture<Void> postJsonForLines(Backend backend, String url, byte[] json, String accept,
+            Consumer<String> lineConsumer) {
+        HttpRequest request = newRequest(backend, url, Map.of("Accept", accept))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                .build();
+
+        AtomicReference<RuntimeException> consumerFailure = new AtomicReference<>();
+        HttpResponse.BodyHandler<Void> handler = info -> isSuccess(info.statusCode())
+                ? HttpResponse.BodySubscribers.fromLineSubscriber(new LineSubscriber(lineConsumer, consumerFailure))
+                : HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8),
+                        body -> {
+                            throw new HttpStatusException(info.statusCode(), body);
+                        });
+
+        return httpClient.sendAsync(request, handler)
+                .thenApply(response -> {
+                    if (consumerFailure.get() != null) {
+                        throw consumerFailure.get();
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Unwraps the CompletionException and ExecutionException layers added by
+     * CompletableFuture to get the exception that actually failed a call.
+     *
+     * @param throwable the exception a future completed with
+     * @return the underlying cause
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private HttpRequest.Builder newRequest(Backend backend, String url, Map<String, String> headers) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeouts.get(backend));
+        // The sidecar speaks plain HTTP/1.1; an h2c upgrade attempt would only add a round trip
+        if (backend == Backend.VQA) {
+            builder.version(HttpClient.Version.HTTP_1_1);
+        }
+        headers.forEach(builder::header);
+        return builder;
+    }
+
+    private CompletableFuture<String> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .thenApply(response -> {
+                    if (!isSuccess(response.statusCode())) {
+                        throw new HttpStatusException(response.statusCode(), response.body());
+                    }
+                    return response.body();
+                });
+    }
+
+    private static boolean isSuccess(int statusCode) {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Passes response lines to a consumer, recording the first failure of the consumer.
+     */
+    private static class LineSubscriber implements Flow.Subscriber<String> {
+        private final Consumer<String> lineConsumer;
+        private final AtomicReference<RuntimeException> failure;
+
+        LineSubscriber(Consumer<String> lineConsumer, AtomicReference<RuntimeException> failure) {
+            this.lineConsumer = lineConsumer;
+            this.failure = failure;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (failure.get() != null) {
+                return;
+            }
+            try {
+                lineConsumer.accept(line);
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // Reported through the future returned by sendAsync
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    /**
+     * Thrown when a backend answers with a non-2xx status.
+     */
+    public static class HttpStatusException extends RuntimeException {
+        private final int statusCode;
+        private final String body;
+
+        public HttpStatusException(int statusCode, String body) {
+            super("HTTP " + statusCode + (body != null && !body.isEmpty()
+                    ? ": " + body.substring(0, Math.min(body.length(), 200)) : ""));
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        /**
+         * Gets the HTTP status code of the response.
+         *
+         * @return the status code
+         */
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * Gets the body of the response.
+         *
+         * @return the response body, may be empty
+         */
+        public String getBody() {
+            return body;
+        }
+    }
+}
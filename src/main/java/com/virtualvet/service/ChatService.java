@@ -6,13 +6,25 @@ import com.virtualvet.enums.model.UrgencyLevel;
 import com.virtualvet.model.*;
 import com.virtualvet.dto.*;
 import com.virtualvet.repository.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 
 /**
  * Service for managing chat conversations and message processing in the Virtual Vet application.
@@ -41,9 +53,6 @@ public class ChatService {
     @Autowired
     private MessageRepository messageRepository;
 
-    @Autowired
-    private AnimalProfileRepository animalProfileRepository;
-
     @Autowired
     private AIConversationService aiConversationService;
 
@@ -54,13 +63,62 @@ public class ChatService {
     private EmergencyService emergencyService;
 
     @Autowired
-    private AnimalProfileService animalProfileService;
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConversationContextCache conversationContextCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ExecutorProvider executorProvider;
+
+    @Autowired
+    private ChatTurnWriter chatTurnWriter;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @Autowired
+    private TurnEnrichmentService turnEnrichmentService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${chat.turn.threads:4}")
+    private int turnThreads;
+
+    @Value("${chat.history.page-size:50}")
+    private int historyPageSize;
+
+    @Value("${chat.history.max-page-size:200}")
+    private int historyMaxPageSize;
+
+    /** Runs the database work of a chat turn once its image analyses or AI response complete */
+    private ExecutorService turnExecutor;
+
+    /** Transactions that only read, so entities changed during a turn are never flushed early */
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @PostConstruct
+    void initializeTurnExecutor() {
+        turnExecutor = executorProvider.newExecutor("chat-turn", turnThreads);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void shutdownTurnExecutor() {
+        turnExecutor.shutdown();
+    }
 
     public SessionStartResponse startNewConversation() {
         try {
             String sessionId = UUID.randomUUID().toString();
             Conversation conversation = new Conversation(sessionId);
             conversation = conversationRepository.save(conversation);
+            sessionRegistry.register(sessionId, conversation.getId());
 
             // Send initial welcome message
             String welcomeMessage = "Hello! I'm your virtual veterinary assistant. I can help you assess your pet's health concerns, analyze symptoms, and provide guidance on when to seek veterinary care. Please tell me about your pet and what concerns you have today.";
@@ -72,185 +130,314 @@ public class ChatService {
         }
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ChatResponse processMessage(String sessionId, String message, MultipartFile[] images) {
-        try {
-            Conversation conversation = getOrCreateConversation(sessionId);
-            conversation.updateLastActivity();
-
-            // Build context BEFORE processing the message to get full conversation history
-            ConversationContext context = buildConversationContext(sessionId);
-
-            conversationRepository.save(conversation);
-
-            Message userMessage = saveMessage(sessionId, message, MessageType.USER);
-
-            // Process multiple images if provided
-            List<AnalysisResult> imageAnalyses = new ArrayList<>();
-            if (images != null && images.length > 0) {
-                for (MultipartFile image : images) {
-                    if (image != null && !image.isEmpty()) {
-                        AnalysisResult imageAnalysis = imageAnalysisService.analyzeAnimalImage(image);
-                        imageAnalyses.add(imageAnalysis);
+        return processMessage(sessionId, message, images, null);
+    }
 
-                        String imageUrl = imageAnalysisService.saveImage(image, sessionId);
-                        if (userMessage.getImageUrl() == null) {
-                            userMessage.setImageUrl(imageUrl);
-                        } else {
-                            userMessage.setImageUrl(userMessage.getImageUrl() + "," + imageUrl);
-                        }
-                    }
-                }
-                messageRepository.save(userMessage);
-            }
+    /**
+     * Processes a chat turn, passing each message segment of the bot response to a
+     * consumer in display form as soon as it has been generated.
+     *
+     * The returned response holds the complete display text, in which the streamed
+     * segments come first, separated by split markers, followed by any lists, warnings,
+     * questions and next steps.
+     *
+     * @param sessionId the session of the conversation
+     * @param message the owner's message
+     * @param images the images attached to the message, may be null
+     * @param segmentConsumer receives each response segment as it is generated, or null to not stream
+     * @return the complete chat response
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ChatResponse processMessage(String sessionId, String message, MultipartFile[] images,
+            Consumer<String> segmentConsumer) {
+        return processMessageAsync(sessionId, message, images, segmentConsumer).join();
+    }
 
-            AnimalProfile updatedProfile = updateAnimalProfileFromMessage(sessionId, message, imageAnalyses);
+    /**
+     * Processes a chat turn without blocking while the image analyses and the AI
+     * response are in progress.
+     *
+     * The uploads are read, hashed and validated on the calling thread, so the request's
+     * files can be released as soon as this method returns; they are decoded and stored
+     * on the analysis pool. Once every image has been stored and analyzed, the
+     * conversation context is built on the turn pool; the AI response is then requested
+     * through the non-blocking HTTP client and the reply is built on the turn pool when
+     * it arrives. No thread waits for the analyses or the AI service in between.
+     *
+     * The turn's writes are collected in a ChatTurn. Once the reply is built, the
+     * messages, images and urgency are handed to the ChatTurnWriter on the response
+     * path, so they are stored, or queued for write-behind, before the reply returns. A
+     * TurnCompletedEvent then hands the turn to the TurnEnrichmentService, which updates
+     * the animal profile and symptoms after the response has been returned. The
+     * messages are added to the context cache as the turn progresses, so the prompt
+     * already reflects the unsaved changes, and the next turn of the session waits for
+     * the enrichment before reading its context; if that wait times out, the context is
+     * rebuilt from the database instead. If the turn fails, the owner's message is
+     * still stored.
+     *
+     * The returned future never completes exceptionally; a failed turn completes with
+     * an error response.
+     *
+     * @param sessionId the session of the conversation
+     * @param message the owner's message
+     * @param images the images attached to the message, may be null
+     * @param segmentConsumer receives each response segment as it is generated, or null to not stream
+     * @return a future completing with the complete chat response
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<ChatResponse> processMessageAsync(String sessionId, String message,
+            MultipartFile[] images, Consumer<String> segmentConsumer) {
+        TurnState turn;
+        try {
+            turn = startTurn(sessionId, message, images);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(turnFailed(sessionId, null, e));
+        }
 
-            if (updatedProfile != null) {
-                // Refresh context with updated profile
-                context = buildConversationContext(sessionId);
-            }
+        List<CompletableFuture<?>> pendingImages = new ArrayList<>(turn.pendingAnalyses);
+        pendingImages.addAll(turn.pendingSaves);
+        return CompletableFuture.allOf(pendingImages.toArray(new CompletableFuture[0]))
+                .thenCompose(ignored -> turnEnrichmentService.awaitSessionAsync(sessionId))
+                .thenApplyAsync(enriched -> prepareTurn(turn, enriched), turnExecutor)
+                .thenCompose(preparedTurn -> aiConversationService
+                        .generateStructuredResponseAsync(message, preparedTurn.context,
+                                preparedTurn.imageAnalyses, segmentListener(segmentConsumer))
+                        .thenApplyAsync(structuredResponse -> completeTurn(preparedTurn, structuredResponse),
+                                turnExecutor))
+                .exceptionally(throwable -> turnFailed(sessionId, turn, AsyncApiClient.unwrap(throwable)));
+    }
 
-            // Update context with all image analyses
-            for (AnalysisResult imageAnalysis : imageAnalyses) {
-                if (imageAnalysis != null && imageAnalysis.getObservedSymptoms() != null) {
-                    context.addSymptoms(imageAnalysis.getObservedSymptoms());
-                }
-                // Add null check for urgency
-                if (imageAnalysis != null && imageAnalysis.getUrgency() != null &&
-                        imageAnalysis.getUrgency().ordinal() > context.getCurrentUrgency().ordinal()) {
-                    context.setCurrentUrgency(imageAnalysis.getUrgency());
+    /**
+     * Starts decoding, analyzing and storing the uploaded images and creates the unsaved
+     * user message. The images are decoded and stored on the analysis pool, in parallel
+     * with each other and their analyses; only reading, hashing and validating the
+     * uploads and getting or creating the conversation, in its own transaction, happen
+     * on the calling thread.
+     */
+    private TurnState startTurn(String sessionId, String message, MultipartFile[] images) throws IOException {
+        TurnState turn = new TurnState(sessionId, message);
+
+        // Process multiple images if provided. Each image is analyzed exactly once here and
+        // the result is carried through the turn and stored alongside the saved image.
+        if (images != null) {
+            for (MultipartFile image : images) {
+                if (image != null && !image.isEmpty()) {
+                    ImageUpload upload = new ImageUpload(image);
+                    String contentHash = upload.getContentHash();
+                    imageAnalysisService.validateImage(upload);
+                    // Each upload is decoded once into its model input, stored copy and thumbnail
+                    CompletableFuture<PreprocessedImage> preprocessed = imageAnalysisService.preprocessImageAsync(upload);
+                    turn.contentHashes.add(contentHash);
+                    turn.pendingAnalyses.add(imageAnalysisService.analyzeAnimalImageAsync(preprocessed, contentHash));
+                    turn.pendingSaves.add(imageAnalysisService.saveImageAsync(preprocessed, sessionId));
                 }
             }
+        }
 
-            // Generate structured AI response with full context
-            StructuredVetResponse structuredResponse = aiConversationService.generateStructuredResponse(message,
-                    context, imageAnalyses);
+        turn.conversation = transactionTemplate.execute(status -> getOrCreateConversation(sessionId));
+        turn.chatTurn = new ChatTurn(sessionId, new Message(turn.conversation, MessageType.USER, message));
+        return turn;
+    }
 
-            updateProfileWithAISymptoms(sessionId, structuredResponse);
+    /**
+     * Records the completed image analyses and builds the conversation context the AI
+     * response is generated from. Runs once the session's earlier enrichment has
+     * finished or its wait has timed out. Nothing is written to the database here, and
+     * the animal profile is left to the enrichment stage.
+     *
+     * @param enriched false if the wait for the session's enrichment timed out
+     */
+    private TurnState prepareTurn(TurnState turn, boolean enriched) {
+        String sessionId = turn.sessionId;
+        ChatTurn chatTurn = turn.chatTurn;
+
+        // Every image has been stored by now
+        for (CompletableFuture<String> save : turn.pendingSaves) {
+            turn.imageUrls.add(save.join());
+        }
+        if (!turn.imageUrls.isEmpty()) {
+            chatTurn.getUserMessage().setImageUrl(String.join(",", turn.imageUrls));
+        }
 
-            UrgencyLevel urgencyLevel = UrgencyLevel.LOW; // Default value
+        for (int i = 0; i < turn.pendingAnalyses.size(); i++) {
+            AnalysisResult imageAnalysis = turn.pendingAnalyses.get(i).join();
+            imageAnalysis.setImageIndex(i);
+            turn.imageAnalyses.add(imageAnalysis);
 
-            // Update conversation urgency level
-            if (structuredResponse != null && structuredResponse.getUrgency() != null) {
-                try {
-                    urgencyLevel = UrgencyLevel.valueOf(structuredResponse.getUrgency());
-                    conversation.setLastUrgencyLevel(urgencyLevel);
-                    conversationRepository.save(conversation);
-                } catch (IllegalArgumentException e) {
-                    // Handle invalid urgency string
-                    conversation.setLastUrgencyLevel(UrgencyLevel.LOW);
-                    conversationRepository.save(conversation);
-                }
+            MessageImage messageImage = new MessageImage(chatTurn.getUserMessage(), turn.imageUrls.get(i), i,
+                    serializeAnalysis(imageAnalysis));
+            // Only genuine model results are indexed for reuse by the analysis cache
+            if (imageAnalysis.getSource() != null && imageAnalysis.getSource().isReusable()) {
+                messageImage.setContentHash(turn.contentHashes.get(i));
             }
+            chatTurn.addMessageImage(messageImage);
+        }
 
-            // Convert structured response to display format
-            String displayResponse = convertStructuredResponseToDisplay(structuredResponse);
-
-            Message botMessage = saveMessage(sessionId, displayResponse, MessageType.BOT);
-            botMessage.setUrgencyLevel(urgencyLevel.name());
-            messageRepository.save(botMessage);
+        // Includes the profile and symptoms of the earlier turns, whose enrichment this
+        // stage was chained after
+        if (!enriched) {
+            System.err.println("Timed out waiting for the enrichment of session " + sessionId);
+            // The cached context may lack the unfinished enrichment; rebuild it from what is stored
+            conversationContextCache.invalidate(sessionId);
+        }
+        chatTurnWriter.flush(sessionId);
+        ConversationContext context = readOnlyTransactionTemplate.execute(
+                status -> getConversationContext(sessionId));
+
+        // The context now comes from the cache; add the unsaved user message to both
+        Message userMessage = chatTurn.getUserMessage();
+        List<String> messageSymptoms = aiConversationService.extractSymptomsFromText(turn.message);
+        conversationContextCache.appendMessage(sessionId, userMessage, messageSymptoms);
+        context.getRecentHistory().add(userMessage);
+        context.addSymptoms(messageSymptoms);
+
+        // Update context with all image analyses
+        for (AnalysisResult imageAnalysis : turn.imageAnalyses) {
+            if (imageAnalysis != null && imageAnalysis.getObservedSymptoms() != null) {
+                context.addSymptoms(imageAnalysis.getObservedSymptoms());
+                turn.imageSymptoms.addAll(imageAnalysis.getObservedSymptoms());
+            }
+            // Add null check for urgency
+            if (imageAnalysis != null && imageAnalysis.getUrgency() != null &&
+                    imageAnalysis.getUrgency().ordinal() > context.getCurrentUrgency().ordinal()) {
+                context.setCurrentUrgency(imageAnalysis.getUrgency());
+            }
+        }
+        turn.context = context;
+        return turn;
+    }
 
-            ChatResponse response = new ChatResponse(displayResponse);
-            // Add null checks for structured response
-            if (structuredResponse != null) {
-                response.setUrgencyLevel(urgencyLevel);
-                response.setStructuredData(structuredResponse);
-            } else {
-                response.setUrgencyLevel(UrgencyLevel.LOW);
+    /**
+     * Records the outcome of the AI response and the bot message, builds the chat
+     * response, stores the turn's messages and hands the profile work to the
+     * enrichment stage.
+     */
+    private ChatResponse completeTurn(TurnState turn, StructuredVetResponse structuredResponse) {
+        String sessionId = turn.sessionId;
+        ConversationContext context = turn.context;
+        ChatTurn chatTurn = turn.chatTurn;
+
+        UrgencyLevel urgencyLevel = UrgencyLevel.LOW; // Default value
+
+        // Update conversation urgency level
+        if (structuredResponse != null && structuredResponse.getUrgency() != null) {
+            try {
+                urgencyLevel = UrgencyLevel.valueOf(structuredResponse.getUrgency());
+            } catch (IllegalArgumentException e) {
+                // Handle invalid urgency string
+                urgencyLevel = UrgencyLevel.LOW;
             }
-            response.setRecommendations(generateRecommendations(response.getUrgencyLevel(), context, imageAnalyses));
+            chatTurn.setUrgencyLevel(urgencyLevel);
+            conversationContextCache.updateUrgency(sessionId, urgencyLevel);
+        }
 
-           
-            response.addContextValue("animalType",
-                    context.getAnimalProfile() != null ? context.getAnimalProfile().getAnimalType() : null);
-            response.addContextValue("symptomsIdentified", context.getIdentifiedSymptoms());
-            response.addContextValue("urgencyLevel", urgencyLevel.getDisplayName());
+        // Convert structured response to display format
+        String displayResponse = convertStructuredResponseToDisplay(structuredResponse);
 
-            return response;
+        Message botMessage = new Message(turn.conversation, MessageType.BOT, displayResponse);
+        botMessage.setUrgencyLevel(urgencyLevel.name());
+        chatTurn.setBotMessage(botMessage);
+        conversationContextCache.appendMessage(sessionId, botMessage, List.of());
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ChatResponse.error("Failed to process message: " + e.getMessage());
+        ChatResponse response = new ChatResponse(displayResponse);
+        // Add null checks for structured response
+        if (structuredResponse != null) {
+            response.setUrgencyLevel(urgencyLevel);
+            response.setStructuredData(structuredResponse);
+        } else {
+            response.setUrgencyLevel(UrgencyLevel.LOW);
         }
-    }
+        response.setRecommendations(generateRecommendations(response.getUrgencyLevel(), context, turn.imageAnalyses));
 
-    private AnimalProfile updateAnimalProfileFromMessage(String sessionId, String message,
-            List<AnalysisResult> imageAnalyses) {
+        response.addContextValue("animalType",
+                context.getAnimalProfile() != null ? context.getAnimalProfile().getAnimalType() : null);
+        response.addContextValue("symptomsIdentified", context.getIdentifiedSymptoms());
+        response.addContextValue("urgencyLevel", urgencyLevel.getDisplayName());
+
+        // The messages are stored, or queued for write-behind, before the reply is returned
         try {
-            // Update profile from user message
-            AnimalProfile profile = animalProfileService.updateFromMessage(sessionId, message);
-
-            if (profile == null) {
-                // Create a new profile if it doesn't exist
-                Optional<Conversation> conversation = conversationRepository.findBySessionId(sessionId);
-                if (conversation.isPresent()) {
-                    profile = new AnimalProfile(conversation.get());
-                    profile = animalProfileRepository.save(profile);
-                } else {
-                    return null;
-                }
-            }
+            chatTurnWriter.write(chatTurn);
+        } catch (Exception e) {
+            System.err.println("Error storing chat turn of session " + sessionId + ": " + e.getMessage());
+            // Rebuild the context and IDs from what was actually stored
+            conversationContextCache.invalidate(sessionId);
+            sessionRegistry.invalidate(sessionId);
+        }
 
-            // Update profile with symptoms from image analyses
-            if (imageAnalyses != null && !imageAnalyses.isEmpty()) {
-                List<String> imageSymptoms = new ArrayList<>();
-                for (AnalysisResult analysis : imageAnalyses) {
-                    if (analysis != null && analysis.getObservedSymptoms() != null) {
-                        imageSymptoms.addAll(analysis.getObservedSymptoms());
-                    }
-                }
+        // Profile and symptom updates happen after the reply
+        eventPublisher.publishEvent(new TurnCompletedEvent(chatTurn, turn.conversation, structuredResponse,
+                new ArrayList<>(turn.imageSymptoms)));
+        return response;
+    }
 
-                if (!imageSymptoms.isEmpty()) {
-                    profile = animalProfileService.addSymptomsToProfile(sessionId, imageSymptoms);
-                }
+    /**
+     * Builds the error response of a failed turn. The owner's message is still stored
+     * if the turn got far enough to create it, so it is not missing from the history.
+     */
+    private ChatResponse turnFailed(String sessionId, TurnState turn, Throwable throwable) {
+        throwable.printStackTrace();
+        // The turn stopped part way, so rebuild the context and IDs from what was actually stored
+        conversationContextCache.invalidate(sessionId);
+        sessionRegistry.invalidate(sessionId);
+
+        if (turn != null && turn.chatTurn != null) {
+            try {
+                Message failed = turn.chatTurn.getUserMessage();
+                Message userMessage = new Message(turn.conversation, MessageType.USER, failed.getContent());
+                userMessage.setTimestamp(failed.getTimestamp());
+                userMessage.setImageUrl(failed.getImageUrl());
+                chatTurnWriter.write(new ChatTurn(sessionId, userMessage));
+            } catch (Exception e) {
+                System.err.println("Error storing message of failed turn: " + e.getMessage());
             }
+        }
+        return ChatResponse.error("Failed to process message: " + throwable.getMessage());
+    }
 
-            return profile;
-        } catch (Exception e) {
-            System.err.println("Error updating animal profile: " + e.getMessage());
+    /**
+     * Adapts a display segment consumer to the AI service's segment listener, skipping empty segments.
+     */
+    private Consumer<StructuredVetResponse.ResponseMessage> segmentListener(Consumer<String> segmentConsumer) {
+        if (segmentConsumer == null) {
             return null;
         }
+        return segment -> {
+            if (segment.getContent() != null && !segment.getContent().trim().isEmpty()) {
+                segmentConsumer.accept(formatSegment(segment));
+            }
+        };
     }
 
-    private void updateProfileWithAISymptoms(String sessionId, StructuredVetResponse structuredResponse) {
+    /**
+     * Serializes an image analysis result to JSON for storage in MessageImage.analysisResult.
+     *
+     * @param analysis the analysis result to serialize
+     * @return the JSON representation, or null if serialization fails
+     */
+    private String serializeAnalysis(AnalysisResult analysis) {
         try {
-            if (structuredResponse == null) {
-                return;
-            }
-
-            // Extract symptoms from structured response content
-            List<String> aiIdentifiedSymptoms = extractSymptomsFromStructuredResponse(structuredResponse);
-
-            if (!aiIdentifiedSymptoms.isEmpty()) {
-                animalProfileService.addSymptomsToProfile(sessionId, aiIdentifiedSymptoms);
-            }
-        } catch (Exception e) {
-            System.err.println("Error updating profile with AI symptoms: " + e.getMessage());
+            return objectMapper.writeValueAsString(analysis);
+        } catch (JsonProcessingException e) {
+            System.err.println("Error serializing image analysis: " + e.getMessage());
+            return null;
         }
     }
 
-    private List<String> extractSymptomsFromStructuredResponse(StructuredVetResponse response) {
-        List<String> symptoms = new ArrayList<>();
-
-        if (response == null) {
-            return symptoms;
-        }
 
-        // Check assessment for symptoms
-        if (response.getAssessment() != null) {
-            symptoms.addAll(aiConversationService.extractSymptomsFromText(response.getAssessment()));
+    /**
+     * Formats a response message segment for display, applying its emphasis.
+     */
+    private String formatSegment(StructuredVetResponse.ResponseMessage segment) {
+        if (segment == null || segment.getContent() == null) {
+            return "";
         }
-
-        // Check message content for symptoms
-        if (response.getMessages() != null) {
-            for (StructuredVetResponse.ResponseMessage message : response.getMessages()) {
-                if (message != null && message.getContent() != null) {
-                    symptoms.addAll(aiConversationService.extractSymptomsFromText(message.getContent()));
-                }
-            }
+        String content = segment.getContent();
+        if ("urgent".equals(segment.getEmphasis()) || "bold".equals(segment.getEmphasis())) {
+            content = "**" + content + "**";
         }
-
-        return symptoms.stream().distinct().collect(Collectors.toList());
+        return content;
     }
 
     private String convertStructuredResponseToDisplay(StructuredVetResponse structuredResponse) {
@@ -267,12 +454,7 @@ public class ChatService {
                 StructuredVetResponse.ResponseMessage msg = messages.get(i);
 
                 if (msg != null && msg.getContent() != null) {
-                    String content = msg.getContent();
-                    if ("urgent".equals(msg.getEmphasis()) || "bold".equals(msg.getEmphasis())) {
-                        content = "**" + content + "**";
-                    }
-
-                    displayText.append(content);
+                    displayText.append(formatSegment(msg));
 
                     // Add split marker between message segments (except last one)
                     if (i < messages.size() - 1) {
@@ -347,62 +529,196 @@ public class ChatService {
                 : result;
     }
 
-    public ConversationHistoryResponse getConversationHistory(String sessionId) {
-        try {
-            Optional<Conversation> conversationOpt = conversationRepository.findBySessionId(sessionId);
-            if (!conversationOpt.isPresent()) {
-                ConversationHistoryResponse response = new ConversationHistoryResponse();
-                response.setSuccess(false);
-                return response;
-            }
+    /**
+     * Gets the newest page of a session's conversation history.
+     *
+     * @param sessionId the session of the conversation
+     * @return a future completing with the newest messages, with the cursors to read older pages
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<ConversationHistoryResponse> getConversationHistoryAsync(String sessionId) {
+        return getConversationHistoryAsync(sessionId, null, null, null, false);
+    }
 
-            Conversation conversation = conversationOpt.get();
-            List<Message> messages = messageRepository.findByConversationIdOrderByTimestampAsc(conversation.getId());
+    /**
+     * Gets one page of a session's conversation history using keyset pagination.
+     *
+     * Without a cursor the newest page is returned. With "before", the page holds the
+     * messages just older than the cursor; with "after", those just newer. Messages
+     * within a page are always in chronological order. Each page is read with a range
+     * condition on (timestamp, id), so deep pages cost no more than the first. Whether
+     * there is anything beyond the cursor side of the page is checked with a one-row
+     * probe, and the total message count, which reads the whole history, is only
+     * computed when requested.
+     *
+     * Turns of the session still being enriched or queued for write-behind belong in the
+     * history, so the page is read on the chat turn pool once the session's enrichment
+     * has finished; the calling thread never waits for it.
+     *
+     * @param sessionId the session of the conversation
+     * @param before cursor to read the page before, may be null
+     * @param after cursor to read the page after, may be null
+     * @param limit the page size, or null for the configured default; capped at chat.history.max-page-size
+     * @param includeTotal whether to count all messages of the conversation
+     * @return a future completing with the page of messages and the cursors of the
+     *         neighboring pages; it never completes exceptionally
+     * @throws IllegalArgumentException if both cursors are given or a cursor is invalid
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<ConversationHistoryResponse> getConversationHistoryAsync(String sessionId,
+            String before, String after, Integer limit, boolean includeTotal) {
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("Only one of before and after may be given");
+        }
+        HistoryCursor beforeCursor = before != null ? HistoryCursor.decode(before) : null;
+        HistoryCursor afterCursor = after != null ? HistoryCursor.decode(after) : null;
+        int pageSize = limit == null || limit <= 0 ? historyPageSize : Math.min(limit, historyMaxPageSize);
+
+        return turnEnrichmentService.awaitSessionAsync(sessionId)
+                .thenApplyAsync(enriched -> readHistory(sessionId, beforeCursor, afterCursor, pageSize,
+                        includeTotal), turnExecutor)
+                .exceptionally(throwable -> {
+                    ConversationHistoryResponse response = new ConversationHistoryResponse();
+                    response.setSuccess(false);
+                    return response;
+                });
+    }
 
+    /**
+     * Stores the session's queued turns and reads one page of its history, before and
+     * in a read-only transaction respectively.
+     */
+    private ConversationHistoryResponse readHistory(String sessionId, HistoryCursor beforeCursor,
+            HistoryCursor afterCursor, int pageSize, boolean includeTotal) {
+        try {
+            chatTurnWriter.flush(sessionId);
+            return readOnlyTransactionTemplate.execute(status -> readHistoryPage(sessionId, beforeCursor,
+                    afterCursor, pageSize, includeTotal));
+        } catch (Exception e) {
             ConversationHistoryResponse response = new ConversationHistoryResponse();
-            response.setSessionId(sessionId);
-            response.setTotalMessages(messages.size());
-
-            // Convert messages to DTOs
-            List<MessageDto> messageDtos = messages.stream()
-                    .map(this::convertToMessageDto)
-                    .collect(Collectors.toList());
-            response.setMessages(messageDtos);
-
-            // Get animal profile
-            List<AnimalProfile> profiles = animalProfileRepository.findByConversationId(conversation.getId());
-            if (!profiles.isEmpty()) {
-                response.setAnimalProfile(convertToAnimalProfileDto(profiles.get(0)));
-            }
-
+            response.setSuccess(false);
             return response;
+        }
+    }
 
-        } catch (Exception e) {
+    /**
+     * Reads one page of a session's history; runs in a read-only transaction.
+     */
+    private ConversationHistoryResponse readHistoryPage(String sessionId, HistoryCursor beforeCursor,
+            HistoryCursor afterCursor, int pageSize, boolean includeTotal) {
+        Optional<Conversation> conversationOpt = sessionRegistry.findConversation(sessionId);
+        if (!conversationOpt.isPresent()) {
             ConversationHistoryResponse response = new ConversationHistoryResponse();
             response.setSuccess(false);
             return response;
         }
+
+        Conversation conversation = conversationOpt.get();
+        Long conversationId = conversation.getId();
+        // One extra row tells whether another page follows in the reading direction
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        PageRequest probe = PageRequest.of(0, 1);
+        List<Message> messages;
+        boolean hasOlder;
+        boolean hasNewer;
+        if (afterCursor != null) {
+            messages = new ArrayList<>(messageRepository.findPageAfter(conversationId,
+                    afterCursor.getTimestamp(), afterCursor.getId(), page));
+            hasNewer = messages.size() > pageSize;
+            hasOlder = !messageRepository.findIdsAtOrBefore(conversationId,
+                    afterCursor.getTimestamp(), afterCursor.getId(), probe).isEmpty();
+            if (hasNewer) {
+                messages.remove(messages.size() - 1);
+            }
+        } else {
+            List<Message> newestFirst = beforeCursor != null
+                    ? messageRepository.findPageBefore(conversationId,
+                            beforeCursor.getTimestamp(), beforeCursor.getId(), page)
+                    : messageRepository.findLatestPage(conversationId, page);
+            messages = new ArrayList<>(newestFirst);
+            hasOlder = messages.size() > pageSize;
+            hasNewer = beforeCursor != null && !messageRepository.findIdsAtOrAfter(conversationId,
+                    beforeCursor.getTimestamp(), beforeCursor.getId(), probe).isEmpty();
+            if (hasOlder) {
+                messages.remove(messages.size() - 1);
+            }
+            // Read newest first; returned oldest first
+            Collections.reverse(messages);
+        }
+
+        ConversationHistoryResponse response = new ConversationHistoryResponse();
+        response.setSessionId(sessionId);
+        if (includeTotal) {
+            response.setTotalMessages((int) messageRepository.countByConversationId(conversationId));
+        }
+        response.setHasOlder(hasOlder);
+        response.setHasNewer(hasNewer);
+        if (!messages.isEmpty()) {
+            response.setOlderCursor(HistoryCursor.of(messages.get(0)).encode());
+            response.setNewerCursor(HistoryCursor.of(messages.get(messages.size() - 1)).encode());
+        }
+
+        // Convert messages to DTOs
+        List<MessageDto> messageDtos = new ArrayList<>();
+        for (Message message : messages) {
+            messageDtos.add(convertToMessageDto(message));
+        }
+        response.setMessages(messageDtos);
+
+        // Get animal profile
+        Optional<AnimalProfile> profile = sessionRegistry.findProfile(sessionId, conversationId);
+        if (profile.isPresent()) {
+            response.setAnimalProfile(convertToAnimalProfileDto(profile.get()));
+        }
+
+        return response;
     }
 
     public Message saveMessage(String sessionId, String content, MessageType messageType) {
         Conversation conversation = getOrCreateConversation(sessionId);
-        Message message = new Message(conversation, messageType, content);
-        return messageRepository.save(message);
+        Message message = messageRepository.save(new Message(conversation, messageType, content));
+
+        // Only the new message's symptoms are extracted; earlier messages were merged when they were saved
+        List<String> symptoms = messageType == MessageType.USER && content != null
+                ? aiConversationService.extractSymptomsFromText(content)
+                : List.of();
+        conversationContextCache.appendMessage(sessionId, message, symptoms);
+        return message;
     }
 
     private Conversation getOrCreateConversation(String sessionId) {
-        return conversationRepository.findBySessionId(sessionId)
-                .orElseGet(() -> {
-                    Conversation newConversation = new Conversation(sessionId);
-                    return conversationRepository.save(newConversation);
-                });
+        // A reference without a query once the session is registered
+        return sessionRegistry.getOrCreateConversation(sessionId);
+    }
+
+    /**
+     * Gets a snapshot of the session's conversation context, served from the context
+     * cache and rebuilt from the database only when the session is not cached.
+     *
+     * Does not wait for the session's pending turn enrichment or write-behind turns.
+     * Callers that need them continue from TurnEnrichmentService.awaitSessionAsync and
+     * call ChatTurnWriter.flush first, before any transaction is opened, so no pooled
+     * connection is held while another thread finishes.
+     *
+     * @param sessionId the session to get the context for
+     * @return an independent copy of the current conversation context
+     */
+    public ConversationContext getConversationContext(String sessionId) {
+        return conversationContextCache.snapshot(sessionId, this::buildConversationContext);
     }
 
+    /**
+     * Rebuilds a session's conversation context from the database by loading the full
+     * message history and profile. Used by the context cache on a miss.
+     *
+     * @param sessionId the session to build the context for
+     * @return the conversation context built from stored data
+     */
     public ConversationContext buildConversationContext(String sessionId) {
         ConversationContext context = new ConversationContext(sessionId);
 
         // Get conversation
-        Optional<Conversation> conversationOpt = conversationRepository.findBySessionId(sessionId);
+        Optional<Conversation> conversationOpt = sessionRegistry.findConversation(sessionId);
         if (!conversationOpt.isPresent()) {
             return context;
         }
@@ -416,18 +732,18 @@ public class ChatService {
         // Get ALL messages, not just recent ones
         // This ensures the AI remembers the entire conversation
         List<Message> allMessages = messageRepository.findByConversationIdOrderByTimestampAsc(conversation.getId());
-        context.setRecentHistory(allMessages); // Pass all messages, not limited to 10
+        context.setRecentHistory(new ArrayList<>(allMessages)); // Pass all messages, not limited to 10
 
         // Get animal profile
-        List<AnimalProfile> profiles = animalProfileRepository.findByConversationId(conversation.getId());
-        if (!profiles.isEmpty()) {
-            context.setAnimalProfile(profiles.get(0));
-            System.out.println("Animal Profile: " + profiles.get(0));
-
-            // Parse symptoms from profile
-            String symptoms = profiles.get(0).getSymptoms();
-            if (symptoms != null && !symptoms.trim().isEmpty()) {
-                context.setIdentifiedSymptoms(new ArrayList<>(Arrays.asList(symptoms.split(",\\s*"))));
+        Optional<AnimalProfile> profile = sessionRegistry.findProfile(sessionId, conversation.getId());
+        if (profile.isPresent()) {
+            context.setAnimalProfile(profile.get());
+            System.out.println("Animal Profile: " + profile.get());
+
+            // Symptoms already recorded on the profile
+            Set<String> symptoms = profile.get().getSymptomSet();
+            if (!symptoms.isEmpty()) {
+                context.setIdentifiedSymptoms(new ArrayList<>(symptoms));
             }
         }
 
@@ -442,9 +758,7 @@ public class ChatService {
 
         // Add accumulated symptoms to context
         if (!accumulatedSymptoms.isEmpty()) {
-            List<String> currentSymptoms = new ArrayList<>(context.getIdentifiedSymptoms());
-            currentSymptoms.addAll(accumulatedSymptoms);
-            context.setIdentifiedSymptoms(currentSymptoms);
+            context.addSymptoms(new ArrayList<>(accumulatedSymptoms));
         }
 
         return context;
@@ -503,10 +817,32 @@ public class ChatService {
         dto.setAge(profile.getAge());
         dto.setWeight(profile.getWeight());
 
-        if (profile.getSymptoms() != null && !profile.getSymptoms().trim().isEmpty()) {
-            dto.setSymptoms(Arrays.asList(profile.getSymptoms().split(",\\s*")));
+        if (!profile.getSymptomSet().isEmpty()) {
+            dto.setSymptoms(new ArrayList<>(profile.getSymptomSet()));
         }
 
         return dto;
     }
-}
\ No newline at end of file
+
+    /**
+     * State of one chat turn carried between its stages.
+     */
+    private static class TurnState {
+        private final String sessionId;
+        private final String message;
+        private final List<String> contentHashes = new ArrayList<>();
+        private final List<String> imageUrls = new ArrayList<>();
+        private final List<CompletableFuture<AnalysisResult>> pendingAnalyses = new ArrayList<>();
+        private final List<CompletableFuture<String>> pendingSaves = new ArrayList<>();
+        private final List<AnalysisResult> imageAnalyses = new ArrayList<>();
+        private final Set<String> imageSymptoms = new LinkedHashSet<>();
+        private Conversation conversation;
+        private ChatTurn chatTurn;
+        private ConversationContext context;
+
+        TurnState(String sessionId, String message) {
+            this.sessionId = sessionId;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.virtualvet.service;
+
+import com.virtualvet.entity.Conversation;
+import com.virtualvet.entity.Message;
+import com.virtualvet.model.ChatTurn;
+import com.virtualvet.repository.MessageImageRepository;
+import com.virtualvet.repository.MessageRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stores completed chat turns, each in a single transaction.
+ *
+ * All of a turn's writes are made in one transaction: the conversation's activity and
+ * urgency, the user and bot messages, the analyzed images and the profile changes.
+ * Messages, images and symptoms get their IDs from pooled sequences, so Hibernate
+ * sends their inserts as JDBC batches when the transaction commits.
+ *
+ * By default, turns are written immediately on the calling thread. With
+ * chat.persistence.write-behind.enabled, turns are queued per session and written by a
+ * single background thread at most max-delay-ms later, or sooner once max-pending turns
+ * are queued. Queued turns of the same session are written together in one transaction.
+ * Replies are then not held up by database writes. The trade-off is the durability
+ * window: a reply is returned before its turn is stored, so the stored conversation may
+ * lag by up to max-delay-ms and a turn queued when the process crashes is lost.
+ *
+ * Readers that need every stored turn of a session call flush(sessionId) first. It
+ * writes only that session's queued turns, on the calling thread, so a busy session
+ * never turns another session's reply into a synchronous write. Writes of one session
+ * are serialized on a lock stripe, so its turns are stored in the order they were
+ * queued whichever thread writes them. When a write-behind write fails, the session's
+ * cached context is invalidated so it is rebuilt from what was actually stored.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class ChatTurnWriter {
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private MessageImageRepository messageImageRepository;
+
+    @Autowired
+    private AnimalProfileService animalProfileService;
+
+    @Autowired
+    private ConversationContextCache conversationContextCache;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${chat.persistence.write-behind.enabled:false}")
+    private boolean writeBehind;
+
+    @Value("${chat.persistence.write-behind.max-delay-ms:1000}")
+    private long maxDelayMs;
+
+    @Value("${chat.persistence.write-behind.max-pending:200}")
+    private int maxPending;
+
+    /** How long shutdown waits for the writer thread to finish its current run */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /** Locks serializing the writes of a session; sessions share a stripe by hash */
+    private static final int LOCK_STRIPES = 64;
+
+    /** Queued turns of each session, in the order they were written */
+    private final Map<String, List<ChatTurn>> pendingBySession = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock[] sessionLocks = new ReentrantLock[LOCK_STRIPES];
+
+    /** Background thread writing the queued turns of every session */
+    private ScheduledExecutorService writerThread;
+
+    public ChatTurnWriter() {
+        for (int i = 0; i < sessionLocks.length; i++) {
+            sessionLocks[i] = new ReentrantLock();
+        }
+    }
+
+    private Timer writeTimer;
+
+    @PostConstruct
+    void startWriter() {
+        writeTimer = Timer.builder("vetchat.chat.turn.write")
+                .description("Time to store chat turns in one transaction")
+                .tag("mode", writeBehind ? "write-behind" : "immediate")
+                .register(meterRegistry);
+        if (!writeBehind) {
+            return;
+        }
+
+        Gauge.builder("vetchat.chat.turn.pending", pendingCount, AtomicInteger::get)
+                .description("Chat turns queued for a write-behind flush")
+                .register(meterRegistry);
+        writerThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chat-turn-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writerThread.scheduleWithFixedDelay(this::writePending, maxDelayMs, maxDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the turns that are still queued before the application stops.
+     */
+    @PreDestroy
+    void stopWriter() {
+        if (writerThread == null) {
+            return;
+        }
+        writerThread.shutdown();
+        try {
+            writerThread.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writePending();
+    }
+
+    /**
+     * Stores a completed chat turn, immediately or through the write-behind queue.
+     *
+     * @param turn the completed turn
+     * @throws RuntimeException if the turn is written immediately and the write fails
+     */
+    public void write(ChatTurn turn) {
+        if (!writeBehind) {
+            store(turn.getSessionId(), List.of(turn));
+            return;
+        }
+
+        // The list is only changed inside compute() and taken out whole by remove()
+        pendingBySession.compute(turn.getSessionId(), (id, turns) -> {
+            List<ChatTurn> queued = turns != null ? turns : new ArrayList<>();
+            queued.add(turn);
+            return queued;
+        });
+        if (pendingCount.incrementAndGet() >= maxPending) {
+            writerThread.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Writes the turns queued so far for one session on the calling thread. Turns of
+     * other sessions stay queued. Returns at once when write-behind is disabled or the
+     * session has nothing queued.
+     *
+     * @param sessionId the session whose turns must be stored
+     */
+    public void flush(String sessionId) {
+        if (!writeBehind || sessionId == null) {
+            return;
+        }
+        writeSession(sessionId);
+    }
+
+    /**
+     * Writes every queued turn, one transaction per session.
+     */
+    private void writePending() {
+        for (String sessionId : new ArrayList<>(pendingBySession.keySet())) {
+            writeSession(sessionId);
+        }
+    }
+
+    /**
+     * Takes the queued turns of a session and writes them in one transaction. The
+     * session's lock stripe is held throughout, so a later batch of the session is never
+     * stored before an earlier one. The stripes are ReentrantLocks rather than monitors,
+     * so a virtual thread waiting on the transaction does not pin its carrier thread.
+     */
+    private void writeSession(String sessionId) {
+        ReentrantLock lock = sessionLocks[Math.floorMod(sessionId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            List<ChatTurn> turns = pendingBySession.remove(sessionId);
+            if (turns == null) {
+                return;
+            }
+            pendingCount.addAndGet(-turns.size());
+            try {
+                store(sessionId, turns);
+            } catch (Exception e) {
+                System.err.println("Failed to write " + turns.size() + " chat turn(s) of session "
+                        + sessionId + ": " + e.getMessage());
+                conversationContextCache.invalidate(sessionId);
+                sessionRegistry.invalidate(sessionId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores the turns of one session in a single transaction.
+     */
+    private void store(String sessionId, List<ChatTurn> turns) {
+        writeTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            // Queries come first, so all inserts stay pending until the commit and are batched together
+            Conversation conversation = sessionRegistry.getOrCreateConversation(sessionId);
+            animalProfileService.applyTurns(conversation, turns);
+
+            for (ChatTurn turn : turns) {
+                persistMessage(turn.getUserMessage(), conversation);
+                messageImageRepository.saveAll(turn.getMessageImages());
+                persistMessage(turn.getBotMessage(), conversation);
+                if (turn.getUrgencyLevel() != null) {
+                    conversation.setLastUrgencyLevel(turn.getUrgencyLevel());
+                }
+            }
+            conversation.updateLastActivity();
+        }));
+    }
+
+    private void persistMessage(Message message, Conversation conversation) {
+        if (message != null) {
+            message.setConversation(conversation);
+            messageRepository.save(message);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.virtualvet.service;
+
+import com.virtualvet.util.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the circuit breakers guarding external backends in the Virtual Vet application.
+ *
+ * Each backend, such as the local VQA service or the Hugging Face inference API,
+ * gets one shared breaker, created on first use. Breaker settings are read from
+ * properties of the form {@code circuit-breaker.<name>.<setting>}, falling back to
+ * the {@code circuit-breaker.default.<setting>} values and then to built-in defaults,
+ * so each backend can be tuned independently.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+public class CircuitBreakerRegistry {
+
+    @Autowired
+    private Environment environment;
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the circuit breaker for a backend, creating it on first use.
+     *
+     * @param name the backend name
+     * @return the shared circuit breaker for the backend
+     */
+    public CircuitBreaker get(String name) {
+        return breakers.computeIfAbsent(name, this::create);
+    }
+
+    /**
+     * Builds a snapshot of every registered breaker, keyed by backend name.
+     *
+     * @return map of backend names to breaker snapshots
+     */
+    public Map<String, Map<String, Object>> snapshots() {
+        Map<String, Map<String, Object>> snapshots = new TreeMap<>();
+        breakers.forEach((name, breaker) -> snapshots.put(name, breaker.snapshot()));
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    private CircuitBreaker create(String name) {
+        return new CircuitBreaker(name,
+                setting(name, "window-size", Integer.class, 20),
+                setting(name, "minimum-calls", Integer.class, 5),
+                setting(name, "failure-rate-threshold", Double.class, 50.0),
+                setting(name, "slow-call-threshold-ms", Long.class, 15000L),
+                setting(name, "slow-call-rate-threshold", Double.class, 80.0),
+                setting(name, "open-duration-seconds", Long.class, 30L) * 1000L,
+                setting(name, "half-open-trial-calls", Integer.class, 1));
+    }
+
+    private <T> T setting(String name, String key, Class<T> type, T defaultValue) {
+        T fallback = environment.getProperty("circuit-breaker.default." + key, type, defaultValue);
+        return environment.getProperty("circuit-breaker." + name + "." + key, type, fallback);
+    }
+}
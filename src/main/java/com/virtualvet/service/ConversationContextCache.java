@@ -0,0 +1,261 @@
+package com.virtualvet.service;
+
+import com.virtualvet.entity.AnimalProfile;
+import com.virtualvet.entity.Message;
+import com.virtualvet.enums.model.UrgencyLevel;
+import com.virtualvet.model.ConversationContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Per-session cache of conversation contexts for the Virtual Vet application.
+ *
+ * Building a ConversationContext from the database means loading the entire message
+ * history and re-extracting symptoms from every user message, which makes each turn
+ * cost O(history). This cache keeps one context per active session and updates it
+ * incrementally as the conversation progresses: each saved message is appended, only
+ * the symptoms of new messages are merged, and profile and urgency changes are applied
+ * as they are written. The database stays the source of truth; a session is rebuilt
+ * from it only on a cache miss, after an idle eviction, or when a write is rolled back
+ * or made outside the chat flow.
+ *
+ * Readers receive snapshots, so a turn can add transient per-turn information, such
+ * as image findings, to its own copy without affecting the cached state. Updates to a
+ * session's context are serialized on its cache entry.
+ *
+ * Only the prompt window and the rolling summary of older messages are ever sent to
+ * the AI, so a cached history is capped at max-messages: once messages have been
+ * folded into the summary, the oldest of them are dropped and the context's history
+ * offset records how many. Messages not yet summarized are always kept, so nothing is
+ * lost from the summary.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+public class ConversationContextCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${conversation.context.cache.idle-minutes:30}")
+    private long idleMinutes;
+
+    /** Messages kept per cached history; at least the prompt window's message limit */
+    @Value("${conversation.context.cache.max-messages:${ai.prompt.window.max-messages:12}}")
+    private int maxMessages;
+
+    private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    /**
+     * Registers the cache metrics once the meter registry has been injected.
+     */
+    @PostConstruct
+    void registerMetrics() {
+        hitCounter = Counter.builder("vetchat.conversation.context.cache")
+                .tag("result", "hit")
+                .description("Conversation contexts served from memory")
+                .register(meterRegistry);
+        missCounter = Counter.builder("vetchat.conversation.context.cache")
+                .tag("result", "miss")
+                .description("Conversation contexts rebuilt from the database")
+                .register(meterRegistry);
+        Gauge.builder("vetchat.conversation.context.cache.size", entries, Map::size)
+                .description("Number of conversation contexts held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gets a snapshot of a session's context, rebuilding it with the loader on a miss.
+     *
+     * The loader runs outside the map, so its database round trip never blocks other
+     * sessions; if two threads miss the same session at once, both load it and the
+     * context published first is kept.
+     *
+     * @param sessionId the session to get the context for
+     * @param loader rebuilds the context from the database when it is not cached
+     * @return an independent copy of the session's current context
+     */
+    public ConversationContext snapshot(String sessionId, Function<String, ConversationContext> loader) {
+        CacheEntry entry = entries.get(sessionId);
+        if (entry != null) {
+            hitCounter.increment();
+        } else {
+            missCounter.increment();
+            CacheEntry loaded = new CacheEntry(loader.apply(sessionId));
+            CacheEntry published = entries.putIfAbsent(sessionId, loaded);
+            entry = published != null ? published : loaded;
+        }
+
+        synchronized (entry) {
+            entry.lastAccess = System.currentTimeMillis();
+            return new ConversationContext(entry.context);
+        }
+    }
+
+    /**
+     * Appends a saved message to a cached session's history and merges the symptoms
+     * extracted from it. Does nothing if the session is not cached.
+     *
+     * @param sessionId the session the message belongs to
+     * @param message the message that was saved
+     * @param symptoms the symptoms extracted from the message, may be empty
+     */
+    public void appendMessage(String sessionId, Message message, List<String> symptoms) {
+        update(sessionId, context -> {
+            context.getRecentHistory().add(message);
+            context.addSymptoms(symptoms);
+            trimHistory(context);
+        });
+    }
+
+    /**
+     * Replaces a cached session's animal profile and merges the profile's symptoms.
+     * Does nothing if the session is not cached or the profile is null.
+     *
+     * @param sessionId the session the profile belongs to
+     * @param profile the profile as it was saved
+     */
+    public void updateProfile(String sessionId, AnimalProfile profile) {
+        if (profile == null) {
+            return;
+        }
+        update(sessionId, context -> {
+            context.setAnimalProfile(profile);
+            if (!profile.getSymptomSet().isEmpty()) {
+                context.addSymptoms(profile.getSymptomSet());
+            }
+        });
+    }
+
+    /**
+     * Sets the urgency level of a cached session to the value stored on its conversation.
+     * Does nothing if the session is not cached or the urgency is null.
+     *
+     * @param sessionId the session to update
+     * @param urgency the conversation's last urgency level
+     */
+    public void updateUrgency(String sessionId, UrgencyLevel urgency) {
+        if (urgency == null) {
+            return;
+        }
+        update(sessionId, context -> context.setCurrentUrgency(urgency));
+    }
+
+    /**
+     * Stores a recomputed rolling history summary for a cached session. The summary
+     * only ever moves forward; an older summary arriving late is ignored. Does nothing
+     * if the session is not cached.
+     *
+     * @param sessionId the session to update
+     * @param summary the rolling summary of the messages outside the prompt window
+     * @param summarizedMessageCount the number of leading conversation messages the summary covers
+     */
+    public void updateSummary(String sessionId, String summary, int summarizedMessageCount) {
+        update(sessionId, context -> {
+            if (summarizedMessageCount > context.getSummarizedMessageCount()) {
+                context.setHistorySummary(summary);
+                context.setSummarizedMessageCount(summarizedMessageCount);
+                trimHistory(context);
+            }
+        });
+    }
+
+    /**
+     * Removes a session's context so the next access rebuilds it from the database.
+     *
+     * @param sessionId the session to invalidate
+     */
+    public void invalidate(String sessionId) {
+        if (sessionId != null) {
+            entries.remove(sessionId);
+        }
+    }
+
+    /**
+     * Invalidates a session's context if the current transaction does not commit,
+     * so incremental updates made during a rolled back turn are discarded together
+     * with its database writes.
+     *
+     * @param sessionId the session updated by the current transaction
+     */
+    public void invalidateOnRollback(String sessionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    invalidate(sessionId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Evicts contexts of sessions that have been idle longer than the configured time.
+     */
+    @Scheduled(fixedDelayString = "${conversation.context.cache.sweep-interval-ms:300000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(idleMinutes);
+        entries.values().removeIf(entry -> entry.lastAccess < cutoff);
+    }
+
+    /**
+     * Drops the oldest summarized messages while the history is over its cap. Must be
+     * called while holding the entry's lock.
+     */
+    private void trimHistory(ConversationContext context) {
+        List<Message> history = context.getRecentHistory();
+        int offset = context.getHistoryOffset();
+        int dropped = Math.min(history.size() - maxMessages, context.getSummarizedMessageCount() - offset);
+        if (dropped > 0) {
+            history.subList(0, dropped).clear();
+            context.setHistoryOffset(offset + dropped);
+        }
+    }
+
+    private void update(String sessionId, Consumer<ConversationContext> mutation) {
+        CacheEntry entry = entries.get(sessionId);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            mutation.accept(entry.context);
+            entry.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Cached context together with the time it was last used.
+     */
+    private static class CacheEntry {
+        private final ConversationContext context;
+        private volatile long lastAccess;
+
+        CacheEntry(ConversationContext context) {
+            this.context = context;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+}
@@ -1,17 +1,18 @@
 package com.virtualvet.service;
 
+import com.virtualvet.enums.model.KeywordCategory;
 import com.virtualvet.enums.model.UrgencyLevel;
 import com.virtualvet.model.*;
+import com.virtualvet.util.SymptomVocabulary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -43,46 +44,52 @@ public class EmergencyService {
         new VetLocation("Kanata Animal Hospital", "570 Hazeldean Rd, Ottawa, ON", "+1-613-836-2848", 45.3019, -75.9023)
     );
 
-    @Autowired(required = false) // Make RestTemplate optional
-    private RestTemplate restTemplate;
+    @Autowired
+    private AsyncApiClient asyncApiClient;
     
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     public List<VetLocation> findNearbyVets(double latitude, double longitude, int radiusKm) {
+        return findNearbyVetsAsync(latitude, longitude, radiusKm).join();
+    }
+    
+    /**
+     * Finds veterinary clinics near a location without blocking the calling thread.
+     * 
+     * The geocoding search runs on the shared HTTP client; if it fails, times out or
+     * finds nothing, the future completes with the default emergency locations within
+     * the radius instead. The returned future never completes exceptionally.
+     * 
+     * @param latitude the latitude of the search center
+     * @param longitude the longitude of the search center
+     * @param radiusKm the search radius in kilometers
+     * @return a future completing with up to 10 nearby vets
+     */
+    public CompletableFuture<List<VetLocation>> findNearbyVetsAsync(double latitude, double longitude, int radiusKm) {
         logger.info("Finding nearby vets for coordinates: {}, {} within {} km", latitude, longitude, radiusKm);
         
-        try {
-            // Validate input parameters
-            if (latitude < -90 || latitude > 90) {
-                logger.warn("Invalid latitude: {}. Using default vets.", latitude);
-                return getDefaultVetsWithinRadius(latitude, longitude, radiusKm);
-            }
-            
-            if (longitude < -180 || longitude > 180) {
-                logger.warn("Invalid longitude: {}. Using default vets.", longitude);
-                return getDefaultVetsWithinRadius(latitude, longitude, radiusKm);
-            }
+        // Validate input parameters
+        if (latitude < -90 || latitude > 90) {
+            logger.warn("Invalid latitude: {}. Using default vets.", latitude);
+            return CompletableFuture.completedFuture(getDefaultVetsWithinRadius(latitude, longitude, radiusKm));
+        }
+        
+        if (longitude < -180 || longitude > 180) {
+            logger.warn("Invalid longitude: {}. Using default vets.", longitude);
+            return CompletableFuture.completedFuture(getDefaultVetsWithinRadius(latitude, longitude, radiusKm));
+        }
 
-            // Try to get real vet locations from external API only if RestTemplate is available
-            if (restTemplate != null) {
-                logger.info("Attempting to search with external API...");
-                List<VetLocation> realVets = searchVetsWithNominatim(latitude, longitude, radiusKm);
+        logger.info("Attempting to search with external API...");
+        return searchVetsWithNominatim(latitude, longitude, radiusKm)
+            .thenApply(realVets -> {
                 if (!realVets.isEmpty()) {
                     logger.info("Found {} real vets from external API", realVets.size());
                     return realVets;
-                } else {
-                    logger.info("No real vets found from external API, using defaults");
                 }
-            } else {
-                logger.info("RestTemplate not available, using default vets");
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error occurred while searching for vets: {}", e.getMessage(), e);
-        }
-        
-        // Use default emergency vet locations and calculate distances
-        return getDefaultVetsWithinRadius(latitude, longitude, radiusKm);
+                logger.info("No real vets found from external API, using defaults");
+                // Use default emergency vet locations and calculate distances
+                return getDefaultVetsWithinRadius(latitude, longitude, radiusKm);
+            });
     }
     
     private List<VetLocation> getDefaultVetsWithinRadius(double latitude, double longitude, int radiusKm) {
@@ -131,59 +138,57 @@ public class EmergencyService {
         return result;
     }
     
-    private List<VetLocation> searchVetsWithNominatim(double latitude, double longitude, int radiusKm) {
+    private CompletableFuture<List<VetLocation>> searchVetsWithNominatim(double latitude, double longitude, int radiusKm) {
         logger.info("Searching vets with Nominatim API");
+        
+        // Search for veterinary clinics using Nominatim (OpenStreetMap)
+        String url = String.format(
+            "https://nominatim.openstreetmap.org/search?format=json&q=veterinary+clinic&lat=%f&lon=%f&bounded=1&viewbox=%f,%f,%f,%f&limit=10",
+            latitude, longitude,
+            longitude - 0.1, latitude + 0.1, longitude + 0.1, latitude - 0.1
+        );
+        
+        logger.debug("Making request to: {}", url);
+        
+        return asyncApiClient.get(AsyncApiClient.Backend.GEOCODING, url,
+                Map.of("User-Agent", "VetChatBot/1.0 (Virtual Veterinary Assistant)"))
+            .thenApply(responseBody -> parseNominatimResults(responseBody, latitude, longitude, radiusKm))
+            .exceptionally(throwable -> {
+                Throwable cause = AsyncApiClient.unwrap(throwable);
+                logger.error("Failed to search vets with Nominatim: {}", cause.getMessage(), cause);
+                return new ArrayList<>();
+            });
+    }
+    
+    private List<VetLocation> parseNominatimResults(String responseBody, double latitude, double longitude, int radiusKm) {
         List<VetLocation> vets = new ArrayList<>();
+        logger.debug("API response body length: {}", responseBody != null ? responseBody.length() : 0);
         
         try {
-            // Search for veterinary clinics using Nominatim (OpenStreetMap)
-            String url = String.format(
-                "https://nominatim.openstreetmap.org/search?format=json&q=veterinary+clinic&lat=%f&lon=%f&bounded=1&viewbox=%f,%f,%f,%f&limit=10",
-                latitude, longitude,
-                longitude - 0.1, latitude + 0.1, longitude + 0.1, latitude - 0.1
-            );
-            
-            logger.debug("Making request to: {}", url);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", "VetChatBot/1.0 (Virtual Veterinary Assistant)");
+            JsonNode results = objectMapper.readTree(responseBody);
             
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
-            logger.info("Nominatim API response status: {}", response.getStatusCode());
-            
-            if (response.getStatusCode() == HttpStatus.OK) {
-                String responseBody = response.getBody();
-                logger.debug("API response body length: {}", responseBody != null ? responseBody.length() : 0);
-                
-                JsonNode results = objectMapper.readTree(responseBody);
-                
-                if (results.isArray()) {
-                    logger.info("Processing {} results from Nominatim", results.size());
-                    for (JsonNode result : results) {
-                        try {
-                            VetLocation vet = parseNominatimResult(result);
-                            if (vet != null) {
-                                double distance = calculateDistance(latitude, longitude, vet.getLatitude(), vet.getLongitude());
-                                if (distance <= radiusKm) {
-                                    vet.setDistanceKm(distance);
-                                    vets.add(vet);
-                                    logger.debug("Added external vet: {} at {} km", vet.getName(), distance);
-                                }
+            if (results.isArray()) {
+                logger.info("Processing {} results from Nominatim", results.size());
+                for (JsonNode result : results) {
+                    try {
+                        VetLocation vet = parseNominatimResult(result);
+                        if (vet != null) {
+                            double distance = calculateDistance(latitude, longitude, vet.getLatitude(), vet.getLongitude());
+                            if (distance <= radiusKm) {
+                                vet.setDistanceKm(distance);
+                                vets.add(vet);
+                                logger.debug("Added external vet: {} at {} km", vet.getName(), distance);
                             }
-                        } catch (Exception e) {
-                            logger.warn("Failed to parse individual result: {}", e.getMessage());
                         }
+                    } catch (Exception e) {
+                        logger.warn("Failed to parse individual result: {}", e.getMessage());
                     }
-                } else {
-                    logger.warn("Expected array response from Nominatim, got: {}", results.getNodeType());
                 }
             } else {
-                logger.warn("Nominatim API returned status: {}", response.getStatusCode());
+                logger.warn("Expected array response from Nominatim, got: {}", results.getNodeType());
             }
         } catch (Exception e) {
-            logger.error("Failed to search vets with Nominatim: {}", e.getMessage(), e);
+            logger.error("Failed to parse Nominatim response: {}", e.getMessage(), e);
         }
         
         logger.info("Found {} vets from external API", vets.size());
@@ -215,38 +220,50 @@ public class EmergencyService {
     }
     
     public Map<String, Object> getEmergencyContactInfo(double latitude, double longitude) {
+        return getEmergencyContactInfoAsync(latitude, longitude).join();
+    }
+    
+    /**
+     * Gathers emergency contact information for a location without blocking the calling thread.
+     * 
+     * @param latitude the latitude of the pet owner
+     * @param longitude the longitude of the pet owner
+     * @return a future completing with the contact information, or minimal fallback information on error
+     */
+    public CompletableFuture<Map<String, Object>> getEmergencyContactInfoAsync(double latitude, double longitude) {
         logger.info("Getting emergency contact info for coordinates: {}, {}", latitude, longitude);
         
-        try {
-            Map<String, Object> contactInfo = new HashMap<>();
-            
-            // Get nearby emergency vets
-            List<VetLocation> emergencyVets = findNearbyVets(latitude, longitude, 50)
-                .stream()
-                .filter(VetLocation::isEmergencyClinic)
-                .limit(3)
-                .collect(Collectors.toList());
-            
-            logger.info("Found {} emergency vets for contact info", emergencyVets.size());
-            
-            contactInfo.put("nearestEmergencyVets", emergencyVets);
-            contactInfo.put("emergencyHotline", getEmergencyHotline());
-            contactInfo.put("poisonControlHotline", "1-888-426-4435");
-            contactInfo.put("preparationTips", getEmergencyPreparationTips());
-            
-            logger.info("Emergency contact info prepared successfully");
-            return contactInfo;
-            
-        } catch (Exception e) {
-            logger.error("Error getting emergency contact info: {}", e.getMessage(), e);
-            // Return minimal info on error
-            Map<String, Object> fallbackInfo = new HashMap<>();
-            fallbackInfo.put("nearestEmergencyVets", Collections.emptyList());
-            fallbackInfo.put("emergencyHotline", getEmergencyHotline());
-            fallbackInfo.put("poisonControlHotline", "1-888-426-4435");
-            fallbackInfo.put("error", "Unable to get complete emergency info");
-            return fallbackInfo;
-        }
+        // Get nearby emergency vets
+        return findNearbyVetsAsync(latitude, longitude, 50)
+            .thenApply(nearbyVets -> {
+                List<VetLocation> emergencyVets = nearbyVets
+                    .stream()
+                    .filter(VetLocation::isEmergencyClinic)
+                    .limit(3)
+                    .collect(Collectors.toList());
+                
+                logger.info("Found {} emergency vets for contact info", emergencyVets.size());
+                
+                Map<String, Object> contactInfo = new HashMap<>();
+                contactInfo.put("nearestEmergencyVets", emergencyVets);
+                contactInfo.put("emergencyHotline", getEmergencyHotline());
+                contactInfo.put("poisonControlHotline", "1-888-426-4435");
+                contactInfo.put("preparationTips", getEmergencyPreparationTips());
+                
+                logger.info("Emergency contact info prepared successfully");
+                return contactInfo;
+            })
+            .exceptionally(throwable -> {
+                Throwable cause = AsyncApiClient.unwrap(throwable);
+                logger.error("Error getting emergency contact info: {}", cause.getMessage(), cause);
+                // Return minimal info on error
+                Map<String, Object> fallbackInfo = new HashMap<>();
+                fallbackInfo.put("nearestEmergencyVets", Collections.emptyList());
+                fallbackInfo.put("emergencyHotline", getEmergencyHotline());
+                fallbackInfo.put("poisonControlHotline", "1-888-426-4435");
+                fallbackInfo.put("error", "Unable to get complete emergency info");
+                return fallbackInfo;
+            });
     }
     
     // Keep all your other existing methods unchanged...
@@ -267,16 +284,7 @@ public class EmergencyService {
     }
     
     private boolean isEmergencySymptom(String symptom) {
-        String lowerSymptom = symptom.toLowerCase();
-        
-        List<String> emergencySymptoms = Arrays.asList(
-            "not breathing", "difficulty breathing", "unconscious", "bleeding heavily",
-            "convulsing", "seizure", "choking", "collapsed", "vomiting blood",
-            "severe trauma", "hit by car", "poisoning", "won't wake up",
-            "blue gums", "pale gums", "severe pain", "bloated abdomen"
-        );
-        
-        return emergencySymptoms.stream().anyMatch(lowerSymptom::contains);
+        return SymptomVocabulary.MATCHER.containsAny(symptom, KeywordCategory.EMERGENCY);
     }
     
     public List<String> getEmergencyInstructions(UrgencyLevel urgency, List<String> symptoms) {
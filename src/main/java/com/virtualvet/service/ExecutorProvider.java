@@ -0,0 +1,115 @@
+package com.virtualvet.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Source of the executors used for blocking work in the Virtual Vet application.
+ *
+ * By default every service owns a small pool of daemon platform threads, and view-side
+ * background work runs on the common ForkJoinPool. When spring.threads.virtual.enabled
+ * is set on Java 21 or later, the same executors start one virtual thread per task
+ * instead, so blocking HTTP and database calls no longer tie up a bounded pool and the
+ * number of concurrent chats is not limited by pool sizes. Spring Boot applies the same
+ * property to Tomcat's request threads, the application task executor and the scheduler.
+ *
+ * On older Java versions the property is ignored with a warning and platform threads
+ * are used, so the same build runs on Java 17 and Java 21.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+public class ExecutorProvider {
+
+    private final boolean virtualThreads;
+    private final Executor viewExecutor;
+
+    public ExecutorProvider(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsRequested) {
+        boolean supported = Runtime.version().feature() >= 21;
+        if (virtualThreadsRequested && !supported) {
+            System.err.println("Virtual threads require Java 21 or later; running on Java "
+                    + Runtime.version().feature() + " with platform threads");
+        }
+        this.virtualThreads = virtualThreadsRequested && supported;
+        this.viewExecutor = virtualThreads ? new VirtualThreadTaskExecutor("view-") : ForkJoinPool.commonPool();
+        System.out.println("Execution mode: " + (virtualThreads ? "virtual threads" : "platform threads"));
+    }
+
+    /**
+     * Checks whether blocking work runs on virtual threads.
+     *
+     * @return true if virtual threads are enabled and supported by the running JVM
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Creates an executor for a service's blocking work.
+     *
+     * With virtual threads each task gets its own virtual thread and the pool size is
+     * not used; otherwise a fixed pool of daemon platform threads is created.
+     *
+     * @param name the thread name prefix, for example "chat-turn"
+     * @param platformThreads the pool size when running on platform threads
+     * @return a new executor owned by the caller, who must shut it down
+     */
+    public ExecutorService newExecutor(String name, int platformThreads) {
+        if (virtualThreads) {
+            return newThreadPerTaskExecutor(new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory());
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, platformThreads), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the shared executor for background work started from views.
+     *
+     * @return a virtual-thread-per-task executor, or the common ForkJoinPool
+     */
+    public Executor viewExecutor() {
+        return viewExecutor;
+    }
+
+    /**
+     * Gets an executor that runs view work after a delay.
+     *
+     * @param delay how long to wait before running a task
+     * @param unit the unit of the delay
+     * @return an executor that submits each task to the view executor after the delay
+     */
+    public Executor delayedViewExecutor(long delay, TimeUnit unit) {
+        return CompletableFuture.delayedExecutor(delay, unit, viewExecutor);
+    }
+
+    /**
+     * Calls Executors.newThreadPerTaskExecutor, which only exists on Java 21, so the
+     * source still compiles for Java 17.
+     */
+    private static ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual thread executors are not available", e);
+        }
+    }
+}
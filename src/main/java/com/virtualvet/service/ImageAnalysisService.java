@@ -2,31 +2,31 @@ package com.virtualvet.service;
 
 import com.virtualvet.model.*;
 import com.virtualvet.config.AIServiceConfig;
+import com.virtualvet.enums.model.AnalysisSource;
+import com.virtualvet.enums.model.KeywordCategory;
 import com.virtualvet.enums.model.UrgencyLevel;
+import com.virtualvet.util.CircuitBreaker;
+import com.virtualvet.util.SymptomVocabulary;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.*;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.ResourceAccessException;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 import java.io.*;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.*;
-import java.awt.image.BufferedImage;
-import javax.imageio.ImageIO;
-import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for analyzing animal images using AI-powered visual assessment tools.
@@ -50,6 +50,15 @@ public class ImageAnalysisService {
     @Autowired
     private AIServiceConfig aiServiceConfig;
 
+    @Autowired
+    private AnalysisResultCache analysisResultCache;
+
+    @Autowired
+    private VQAHealthTracker vqaHealthTracker;
+
+    @Autowired
+    private ImagePreprocessor imagePreprocessor;
+
     @Value("${image.storage.path:./uploads}")
     private String imageStoragePath;
 
@@ -59,109 +68,429 @@ public class ImageAnalysisService {
     @Value("${ai.vqa.enabled:true}")
     private boolean vqaEnabled;
 
-    @Value("${ai.vqa.timeout:25}")
-    private int vqaTimeoutSeconds;
-
     @Value("${ai.image-analysis.api-token:}")
     private String huggingFaceToken;
 
+    @Value("${ai.vqa.binary-transport:true}")
+    private boolean vqaBinaryTransport;
+
+    @Value("${image.max-pixels:40000000}")
+    private long maxImagePixels;
+
+    @Value("${image.analysis.parallelism:5}")
+    private int analysisParallelism;
+
+    @Value("${image.analysis.per-image-timeout-seconds:30}")
+    private int perImageTimeoutSeconds;
+
+    @Value("${ai.vqa.max-concurrency:2}")
+    private int vqaMaxConcurrency;
+
+    /** Bounded pool that fans out the images of a turn; created once the configuration is injected */
+    private ExecutorService analysisExecutor;
+
+    /** Limits concurrent calls to the local VQA service across all chat turns */
+    private Semaphore vqaPermits;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private AsyncApiClient asyncApiClient;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final RestTemplate restTemplate;
 
     private static final List<String> ALLOWED_EXTENSIONS = Arrays.asList("jpg", "jpeg", "png", "gif", "bmp");
+    private static final List<String> ALLOWED_FORMATS = Arrays.asList("jpeg", "png", "gif", "bmp");
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
 
-    public ImageAnalysisService(RestTemplateBuilder restTemplateBuilder) {
-        this.restTemplate = restTemplateBuilder
-                .setConnectTimeout(Duration.ofSeconds(10))
-                .setReadTimeout(Duration.ofSeconds(vqaTimeoutSeconds))
-                .build();
+    /** Circuit breaker names of the remote analysis backends */
+    private static final String VQA_BACKEND = "local-vqa";
+    private static final String HUGGING_FACE_BACKEND = "hugging-face";
+
+    /** Header carrying the URL-encoded question for binary quick-question requests */
+    private static final String VQA_QUESTION_HEADER = "X-VQA-Question";
+
+    /** Filename suffix of the thumbnail stored next to each image */
+    private static final String THUMBNAIL_SUFFIX = "_thumb";
+
+    @PostConstruct
+    void initializeAnalysisExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        analysisExecutor = new ThreadPoolExecutor(analysisParallelism, analysisParallelism,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(analysisParallelism * 10),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-analysis-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        vqaPermits = new Semaphore(Math.max(1, vqaMaxConcurrency), true);
+    }
+
+    @PreDestroy
+    void shutdownAnalysisExecutor() {
+        analysisExecutor.shutdownNow();
     }
 
     public AnalysisResult analyzeAnimalImage(MultipartFile image) {
-        try {
-            validateImage(image);
-            System.out.println("Starting comprehensive veterinary image analysis...");
+        return analyzeAnimalImage(image, null);
+    }
 
-            if (vqaEnabled) {
+    /**
+     * Decodes an uploaded image into its derivatives on the bounded analysis pool, so
+     * the images of a turn are decoded in parallel and never on the request thread.
+     * When the pool's queue is full the image is decoded on the calling thread instead,
+     * since the turn cannot store it otherwise.
+     *
+     * @param image the upload handle
+     * @return a future completing with the preprocessed image, or failing if the upload
+     *         is invalid or cannot be decoded
+     */
+    public CompletableFuture<PreprocessedImage> preprocessImageAsync(ImageUpload image) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
                 try {
-                    // First check if VQA service is available
-                    if (isVQAServiceHealthy()) {
-                        return analyzeWithLocalVQA(image);
-                    } else {
-                        System.err.println("Local VQA service is not healthy - falling back to Hugging Face");
-                        return analyzeWithHuggingFace(image);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Local VQA analysis failed: " + e.getMessage());
-                    return analyzeWithHuggingFace(image);
+                    return preprocessImage(image);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
                 }
-            } else {
-                System.out.println("VQA disabled - using Hugging Face fallback");
-                return analyzeWithHuggingFace(image);
+            }, analysisExecutor);
+        } catch (RejectedExecutionException e) {
+            System.err.println("Image analysis queue is full - preprocessing on the calling thread");
+            try {
+                return CompletableFuture.completedFuture(preprocessImage(image));
+            } catch (IOException preprocessFailure) {
+                return CompletableFuture.failedFuture(preprocessFailure);
             }
+        }
+    }
+
+    /**
+     * Stores an image once it has been decoded. The files are written on the thread
+     * that finished the decoding, so the caller does not wait for them.
+     *
+     * @param image the future of the preprocessed image
+     * @param sessionId the session the image belongs to
+     * @return a future completing with the URL of the stored original
+     */
+    public CompletableFuture<String> saveImageAsync(CompletableFuture<PreprocessedImage> image, String sessionId) {
+        return image.thenApply(preprocessed -> {
+            try {
+                return saveImage(preprocessed, sessionId);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
 
+    /**
+     * Starts analyzing an animal image on the bounded analysis pool.
+     *
+     * The pool only runs the cache lookup and starts the backend calls; VQA concurrency
+     * permits are taken without waiting and the calls themselves are non-blocking, so no
+     * pool thread is held while a request is in flight. On a cache hit the result is
+     * returned without waiting for the image to be decoded. Each image gets its own
+     * deadline: if the analysis has not finished within the configured per-image
+     * timeout, the returned future completes with a fallback result so one slow image
+     * cannot hold up the others. The abandoned analysis keeps running in the background
+     * and still populates the analysis cache when it finishes.
+     *
+     * When the pool's queue is full the image is not analyzed at all and the future
+     * completes with a fallback result at once. Running it on the calling thread instead
+     * would block the chat request that submitted it.
+     *
+     * @param image the future of the preprocessed image, from preprocessImageAsync
+     * @param contentHash the SHA-256 hash of the uploaded image content
+     * @return a future that always completes with an analysis result
+     */
+    public CompletableFuture<AnalysisResult> analyzeAnimalImageAsync(CompletableFuture<PreprocessedImage> image,
+            String contentHash) {
+        CompletableFuture<CompletableFuture<AnalysisResult>> submitted;
+        try {
+            submitted = CompletableFuture.supplyAsync(() -> analyzeWithCache(contentHash, image), analysisExecutor);
+        } catch (RejectedExecutionException e) {
+            System.err.println("Image analysis queue is full - returning fallback result");
+            return CompletableFuture.completedFuture(createFallbackResult("Image analysis is at capacity"));
+        }
+        return submitted
+                .thenCompose(analysis -> analysis)
+                .completeOnTimeout(null, perImageTimeoutSeconds, TimeUnit.SECONDS)
+                .exceptionally(throwable -> createFallbackResult(AsyncApiClient.unwrap(throwable).getMessage()))
+                .thenApply(result -> result != null ? result
+                        : createFallbackResult("Analysis did not finish within " + perImageTimeoutSeconds + " seconds"));
+    }
+
+    /**
+     * Analyzes an animal image, reusing an earlier analysis of identical image content when available.
+     *
+     * On a cache hit the image is only validated from its header and hashed; its
+     * pixel data is never decoded.
+     *
+     * @param image the uploaded image to analyze
+     * @param contentHash the SHA-256 hash of the image content, or null to compute it here
+     * @return the analysis result for the image
+     */
+    public AnalysisResult analyzeAnimalImage(MultipartFile image, String contentHash) {
+        try {
+            ImageUpload upload = new ImageUpload(image);
+            validateImage(upload);
+            String hash = contentHash != null ? contentHash : upload.getContentHash();
+            return analyzeWithCache(hash, () -> imagePreprocessor.preprocess(upload)).join();
         } catch (Exception e) {
-            System.err.println("Complete image analysis failed: " + e.getMessage());
-            return createFallbackResult(e.getMessage());
+            String reason = AsyncApiClient.unwrap(e).getMessage();
+            System.err.println("Complete image analysis failed: " + reason);
+            return createFallbackResult(reason);
         }
     }
 
-    private boolean isVQAServiceHealthy() {
+    /**
+     * Analyzes a preprocessed animal image, reusing an earlier analysis of identical
+     * image content when available.
+     *
+     * @param image the preprocessed image to analyze
+     * @param contentHash the SHA-256 hash of the uploaded image content
+     * @return the analysis result for the image
+     */
+    public AnalysisResult analyzeAnimalImage(PreprocessedImage image, String contentHash) {
         try {
-            String healthUrl = vqaServiceUrl + "/health";
-            ResponseEntity<String> response = restTemplate.getForEntity(healthUrl, String.class);
+            return analyzeWithCache(contentHash, () -> image).join();
+        } catch (Exception e) {
+            String reason = AsyncApiClient.unwrap(e).getMessage();
+            System.err.println("Complete image analysis failed: " + reason);
+            return createFallbackResult(reason);
+        }
+    }
 
-            if (response.getStatusCode() == HttpStatus.OK) {
-                JsonNode healthData = objectMapper.readTree(response.getBody());
-                return "healthy".equals(healthData.path("status").asText()) &&
-                        healthData.path("models_loaded").asBoolean();
-            }
-            return false;
+    /**
+     * Returns the cached analysis for a content hash, or obtains the preprocessed image
+     * and runs the analysis chain on a miss.
+     */
+    private CompletableFuture<AnalysisResult> analyzeWithCache(String contentHash, Callable<PreprocessedImage> image) {
+        Optional<AnalysisResult> cached = findCachedAnalysis(contentHash);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        PreprocessedImage preprocessed;
+        try {
+            preprocessed = image.call();
         } catch (Exception e) {
-            System.err.println("VQA service health check failed: " + e.getMessage());
-            return false;
+            return CompletableFuture.failedFuture(e);
         }
+        return analyzeAndCache(contentHash, preprocessed);
     }
 
-    private AnalysisResult analyzeWithLocalVQA(MultipartFile image) throws Exception {
-        System.out.println("Starting local VQA analysis...");
+    /**
+     * Returns the cached analysis for a content hash, or runs the analysis chain once
+     * the image being decoded elsewhere is ready.
+     */
+    private CompletableFuture<AnalysisResult> analyzeWithCache(String contentHash,
+            CompletableFuture<PreprocessedImage> image) {
+        Optional<AnalysisResult> cached = findCachedAnalysis(contentHash);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        return image.thenCompose(preprocessed -> analyzeAndCache(contentHash, preprocessed));
+    }
 
-        String base64Image = Base64.getEncoder().encodeToString(image.getBytes());
+    private Optional<AnalysisResult> findCachedAnalysis(String contentHash) {
+        Optional<AnalysisResult> cached = analysisResultCache.get(contentHash);
+        if (cached.isPresent()) {
+            System.out.println("Reusing cached analysis for image " + contentHash.substring(0, 12));
+        }
+        return cached;
+    }
 
-        // Call the comprehensive analysis endpoint
-        String analyzeUrl = vqaServiceUrl + "/analyze";
+    /**
+     * Runs the analysis chain and caches a reusable result under the content hash.
+     */
+    private CompletableFuture<AnalysisResult> analyzeAndCache(String contentHash, PreprocessedImage preprocessed) {
+        System.out.println("Starting comprehensive veterinary image analysis...");
+        return analyzeUncached(preprocessed).thenApply(result -> {
+            if (result.getSource() != null && result.getSource().isReusable()) {
+                analysisResultCache.put(contentHash, result);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Validates an uploaded image and decodes it once into its model input, stored
+     * and thumbnail derivatives.
+     *
+     * @param image the upload handle
+     * @return the preprocessed image
+     * @throws IOException if the upload is invalid or cannot be decoded
+     */
+    public PreprocessedImage preprocessImage(ImageUpload image) throws IOException {
+        validateImage(image);
+        try {
+            return imagePreprocessor.preprocess(image);
+        } catch (IOException e) {
+            throw new IOException("Unable to process image file: " + e.getMessage(), e);
+        }
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+    /**
+     * Runs the fallback chain Local VQA -> Hugging Face -> basic detection.
+     *
+     * Each remote tier is guarded by its own circuit breaker. A tier whose breaker is
+     * open is skipped immediately, so while the VQA sidecar is down or reloading its
+     * model, requests go straight to the next tier instead of waiting for a timeout.
+     * The remote tiers receive the downscaled model input rather than the original upload.
+     */
+    private CompletableFuture<AnalysisResult> analyzeUncached(PreprocessedImage preprocessed) {
+        MultipartFile image = preprocessed.getModelImageFile();
+
+        return tryLocalVQA(image)
+                .thenCompose(result -> {
+                    if (result != null || huggingFaceToken == null || huggingFaceToken.isEmpty()) {
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    return callThroughBreaker(circuitBreakerRegistry.get(HUGGING_FACE_BACKEND),
+                            () -> analyzeWithHuggingFace(image));
+                })
+                // Basic detection scans the pixels; keep it off the HTTP client's I/O threads
+                .thenApplyAsync(result -> result != null ? result : analyzeWithBasicDetection(preprocessed),
+                        analysisExecutor);
+    }
 
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("image_base64", base64Image);
+    /**
+     * Attempts the local VQA tier, completing with null when it is disabled, unhealthy,
+     * open, at capacity or fails, so the caller can move on to the next tier.
+     */
+    private CompletableFuture<AnalysisResult> tryLocalVQA(MultipartFile image) {
+        if (!vqaEnabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!vqaHealthTracker.isHealthy()) {
+            System.err.println("Local VQA service is not healthy - falling back to next analysis tier");
+            return CompletableFuture.completedFuture(null);
+        }
 
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
+        // Take a concurrency permit first and without waiting: at capacity the image goes
+        // to the next tier at once, and a half-open breaker's trial call is never held
+        // by a request queued for a permit
+        if (!vqaPermits.tryAcquire()) {
+            System.err.println("Local VQA service is at capacity - falling back to next analysis tier");
+            return CompletableFuture.completedFuture(null);
+        }
 
+        CircuitBreaker breaker = circuitBreakerRegistry.get(VQA_BACKEND);
+        if (!breaker.tryAcquirePermission()) {
+            vqaPermits.release();
+            System.err.println("Local VQA circuit is open - falling back to next analysis tier");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return timedCall(breaker, () -> analyzeWithLocalVQA(image))
+                .whenComplete((result, throwable) -> vqaPermits.release());
+    }
+
+    /**
+     * Calls a backend if its circuit breaker permits it.
+     *
+     * @return a future completing with the backend's result, or null if the breaker is open or the call failed
+     */
+    private CompletableFuture<AnalysisResult> callThroughBreaker(CircuitBreaker breaker,
+            Callable<CompletableFuture<AnalysisResult>> call) {
+        if (!breaker.tryAcquirePermission()) {
+            System.err.println("Circuit '" + breaker.getName() + "' is open - skipping");
+            return CompletableFuture.completedFuture(null);
+        }
+        return timedCall(breaker, call);
+    }
+
+    /**
+     * Starts a permitted backend call and records its outcome and latency on the breaker
+     * when it completes.
+     *
+     * @return a future completing with the backend's result, or null if the call failed
+     */
+    private CompletableFuture<AnalysisResult> timedCall(CircuitBreaker breaker,
+            Callable<CompletableFuture<AnalysisResult>> call) {
+        long start = System.nanoTime();
+        CompletableFuture<AnalysisResult> pending;
         try {
-            ResponseEntity<String> response = restTemplate.exchange(
-                    analyzeUrl, HttpMethod.POST, request, String.class);
+            pending = call.call();
+        } catch (Exception e) {
+            pending = CompletableFuture.failedFuture(e);
+        }
 
-            System.out.println("VQA Response Status: " + response.getStatusCode());
-            System.out.println("VQA Response Body: " + response.getBody());
+        return pending.handle((result, throwable) -> {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (throwable == null) {
+                breaker.onSuccess(elapsedMillis);
+                return result;
+            }
+            breaker.onFailure(elapsedMillis);
+            System.err.println("Analysis backend '" + breaker.getName() + "' failed: "
+                    + AsyncApiClient.unwrap(throwable).getMessage());
+            return null;
+        });
+    }
 
-            if (response.getStatusCode() == HttpStatus.OK) {
-                AnalysisResult result = parseLocalVQAResponse(response.getBody());
+    private CompletableFuture<AnalysisResult> analyzeWithLocalVQA(MultipartFile image) throws IOException {
+        System.out.println("Starting local VQA analysis...");
+
+        CompletableFuture<String> response;
+        if (vqaBinaryTransport) {
+            response = postImageBinary(vqaServiceUrl + "/analyze/binary", image, Map.of());
+        } else {
+            Map<String, Object> requestBody = new HashMap<>();
+            requestBody.put("image_base64", Base64.getEncoder().encodeToString(image.getBytes()));
+            response = asyncApiClient.postJson(AsyncApiClient.Backend.VQA, vqaServiceUrl + "/analyze",
+                    objectMapper.writeValueAsBytes(requestBody));
+        }
+
+        return response.handle((body, throwable) -> {
+            if (throwable != null) {
+                recordVQAFailure(throwable);
+                throw new CompletionException(AsyncApiClient.unwrap(throwable));
+            }
+
+            System.out.println("VQA Response Body: " + body);
+            vqaHealthTracker.recordSuccess();
+            try {
+                AnalysisResult result = parseLocalVQAResponse(body);
                 System.out.println("Parsed Analysis Result: " + result.getCondition());
                 System.out.println("Observed Symptoms: " + result.getObservedSymptoms());
                 return result;
-            } else {
-                throw new RuntimeException("Local VQA service failed: " + response.getStatusCode());
+            } catch (Exception e) {
+                throw new CompletionException(e);
             }
+        });
+    }
 
-        } catch (Exception e) {
-            System.err.println("Local VQA service call failed: " + e.getMessage());
-            throw e;
+    /**
+     * Logs a failed VQA call and marks the sidecar unhealthy when it is unreachable,
+     * timed out or still loading its models.
+     */
+    private void recordVQAFailure(Throwable throwable) {
+        Throwable cause = AsyncApiClient.unwrap(throwable);
+        System.err.println("Local VQA service call failed: " + cause.getMessage());
+        if (cause instanceof IOException
+                || (cause instanceof AsyncApiClient.HttpStatusException status && status.getStatusCode() == 503)) {
+            vqaHealthTracker.recordFailure(cause.getMessage());
         }
     }
 
+    /**
+     * Posts an image to the VQA sidecar as a raw application/octet-stream body,
+     * avoiding the Base64 string and JSON map copies of the JSON transport.
+     *
+     * @param url the binary endpoint to call
+     * @param image the image to send
+     * @param extraHeaders additional request headers, such as the question for quick questions
+     * @return a future completing with the response body
+     */
+    private CompletableFuture<String> postImageBinary(String url, MultipartFile image,
+            Map<String, String> extraHeaders) throws IOException {
+        return asyncApiClient.post(AsyncApiClient.Backend.VQA, url, MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                image.getBytes(), extraHeaders);
+    }
+
     private AnalysisResult parseLocalVQAResponse(String responseBody) throws Exception {
         JsonNode jsonResponse = objectMapper.readTree(responseBody);
 
@@ -174,6 +503,7 @@ public class ImageAnalysisService {
         JsonNode assessment = results.path("overall_assessment");
 
         AnalysisResult result = new AnalysisResult();
+        result.setSource(AnalysisSource.LOCAL_VQA);
 
         // Parse overall assessment
         String condition = assessment.path("condition").asText("Assessment completed");
@@ -359,78 +689,72 @@ public class ImageAnalysisService {
 
     // Single question endpoint for quick queries
     public VQAResult askQuickQuestion(MultipartFile image, String question) throws Exception {
-        if (!vqaEnabled || !isVQAServiceHealthy()) {
+        CircuitBreaker breaker = circuitBreakerRegistry.get(VQA_BACKEND);
+        if (!vqaEnabled || !vqaHealthTracker.isHealthy() || !breaker.tryAcquirePermission()) {
             throw new RuntimeException("VQA service is not available");
         }
+        long start = System.nanoTime();
 
-        String base64Image = Base64.getEncoder().encodeToString(image.getBytes());
-        String quickQuestionUrl = vqaServiceUrl + "/quick-question";
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("image_base64", base64Image);
-        requestBody.put("question", question);
-
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-
-        ResponseEntity<String> response = restTemplate.exchange(
-                quickQuestionUrl, HttpMethod.POST, request, String.class);
-
-        if (response.getStatusCode() == HttpStatus.OK) {
-            JsonNode jsonResponse = objectMapper.readTree(response.getBody());
-
-            if (jsonResponse.path("success").asBoolean()) {
-                return new VQAResult(
-                        jsonResponse.path("question").asText(),
-                        jsonResponse.path("answer").asText(),
-                        jsonResponse.path("confidence").asDouble());
+        String responseBody;
+        try {
+            CompletableFuture<String> response;
+            if (vqaBinaryTransport) {
+                // The question travels URL-encoded in a header so the body can be the raw image
+                response = postImageBinary(vqaServiceUrl + "/quick-question/binary", image,
+                        Map.of(VQA_QUESTION_HEADER, URLEncoder.encode(question, StandardCharsets.UTF_8)));
             } else {
-                throw new RuntimeException("Quick question failed: " + jsonResponse.path("error").asText());
+                Map<String, Object> requestBody = new HashMap<>();
+                requestBody.put("image_base64", Base64.getEncoder().encodeToString(image.getBytes()));
+                requestBody.put("question", question);
+                response = asyncApiClient.postJson(AsyncApiClient.Backend.VQA, vqaServiceUrl + "/quick-question",
+                        objectMapper.writeValueAsBytes(requestBody));
             }
+            responseBody = response.join();
+            breaker.onSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            breaker.onFailure(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            recordVQAFailure(e);
+            Throwable cause = AsyncApiClient.unwrap(e);
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+
+        vqaHealthTracker.recordSuccess();
+        JsonNode jsonResponse = objectMapper.readTree(responseBody);
+
+        if (jsonResponse.path("success").asBoolean()) {
+            return new VQAResult(
+                    jsonResponse.path("question").asText(),
+                    jsonResponse.path("answer").asText(),
+                    jsonResponse.path("confidence").asDouble());
         } else {
-            throw new RuntimeException("Quick question API failed: " + response.getStatusCode());
+            throw new RuntimeException("Quick question failed: " + jsonResponse.path("error").asText());
         }
     }
 
     // Fallback to Hugging Face if local VQA fails
-    private AnalysisResult analyzeWithHuggingFace(MultipartFile image) throws Exception {
+    private CompletableFuture<AnalysisResult> analyzeWithHuggingFace(MultipartFile image) throws IOException {
         System.out.println("Using Hugging Face fallback analysis...");
 
-        if (huggingFaceToken == null || huggingFaceToken.isEmpty()) {
-            return analyzeWithBasicDetection(image);
-        }
-
         // Try image classification
         String apiUrl = "https://api-inference.huggingface.co/models/microsoft/resnet-50";
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-        headers.set("Authorization", "Bearer " + huggingFaceToken);
-        headers.add("User-Agent", "VirtualVet/1.0");
-
-        HttpEntity<byte[]> request = new HttpEntity<>(image.getBytes(), headers);
-
-        try {
-            ResponseEntity<String> response = restTemplate.exchange(
-                    apiUrl, HttpMethod.POST, request, String.class);
-
-            if (response.getStatusCode() == HttpStatus.OK) {
-                return parseHuggingFaceResponse(response.getBody());
-            } else {
-                throw new RuntimeException("Hugging Face API failed: " + response.getStatusCode());
-            }
-        } catch (Exception e) {
-            System.err.println("Hugging Face fallback failed: " + e.getMessage());
-            return analyzeWithBasicDetection(image);
-        }
+        return asyncApiClient.post(AsyncApiClient.Backend.HUGGING_FACE, apiUrl,
+                        MediaType.APPLICATION_OCTET_STREAM_VALUE, image.getBytes(),
+                        Map.of("Authorization", "Bearer " + huggingFaceToken, "User-Agent", "VirtualVet/1.0"))
+                .thenApply(body -> {
+                    try {
+                        return parseHuggingFaceResponse(body);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                });
     }
 
     private AnalysisResult parseHuggingFaceResponse(String responseBody) throws Exception {
         JsonNode jsonResponse = objectMapper.readTree(responseBody);
 
         AnalysisResult result = new AnalysisResult();
+        result.setSource(AnalysisSource.HUGGING_FACE);
 
         if (jsonResponse.isArray() && jsonResponse.size() > 0) {
             JsonNode topResult = jsonResponse.get(0);
@@ -466,15 +790,11 @@ public class ImageAnalysisService {
         return result;
     }
 
-    private AnalysisResult analyzeWithBasicDetection(MultipartFile image) throws Exception {
+    private AnalysisResult analyzeWithBasicDetection(PreprocessedImage image) {
         System.out.println("Using basic detection fallback...");
 
         AnalysisResult result = new AnalysisResult();
-        BufferedImage bufferedImage = ImageIO.read(image.getInputStream());
-
-        if (bufferedImage == null) {
-            throw new IOException("Invalid image format");
-        }
+        result.setSource(AnalysisSource.BASIC_DETECTION);
 
         result.setCondition("Image received - veterinary consultation recommended");
         result.setConfidence(0.3);
@@ -493,9 +813,9 @@ public class ImageAnalysisService {
                         "• Note any changes in your pet's behavior\n" +
                         "• Consider scheduling a veterinary consultation\n\n" +
                         "The system can provide better guidance with symptom descriptions.",
-                bufferedImage.getWidth(),
-                bufferedImage.getHeight(),
-                image.getSize() / 1024.0,
+                image.getOriginalWidth(),
+                image.getOriginalHeight(),
+                image.getOriginalSize() / 1024.0,
                 getFileExtension(image.getOriginalFilename()).toUpperCase()));
 
         return result;
@@ -503,6 +823,7 @@ public class ImageAnalysisService {
 
     private AnalysisResult createFallbackResult(String errorMessage) {
         AnalysisResult result = new AnalysisResult();
+        result.setSource(AnalysisSource.FALLBACK);
         result.setCondition("Image analysis unavailable");
         result.setConfidence(0.0);
         result.setUrgency(UrgencyLevel.LOW);
@@ -544,14 +865,13 @@ public class ImageAnalysisService {
         }
 
         for (String symptom : symptoms) {
-            String lower = symptom.toLowerCase();
-            if (containsAny(lower, Arrays.asList("bleeding", "unconscious", "seizure", "choking", "not breathing"))) {
+            if (SymptomVocabulary.MATCHER.containsAny(symptom, KeywordCategory.URGENCY_CRITICAL)) {
                 return UrgencyLevel.CRITICAL;
             }
-            if (containsAny(lower, Arrays.asList("severe pain", "difficulty breathing", "won't eat for days"))) {
+            if (SymptomVocabulary.MATCHER.containsAny(symptom, KeywordCategory.URGENCY_HIGH)) {
                 return UrgencyLevel.HIGH;
             }
-            if (containsAny(lower, Arrays.asList("limping", "lethargy", "discharge", "coughing"))) {
+            if (SymptomVocabulary.MATCHER.containsAny(symptom, KeywordCategory.URGENCY_MEDIUM)) {
                 return UrgencyLevel.MEDIUM;
             }
         }
@@ -560,26 +880,43 @@ public class ImageAnalysisService {
     }
 
     public String saveImage(MultipartFile image, String sessionId) throws IOException {
-        validateImage(image);
+        return saveImage(preprocessImage(new ImageUpload(image)), sessionId);
+    }
 
+    /**
+     * Stores the metadata-free original of a preprocessed image together with its
+     * thumbnail, which is written next to it with a "_thumb" suffix.
+     *
+     * @param image the preprocessed image to store
+     * @param sessionId the session the image belongs to
+     * @return the URL of the stored original
+     * @throws IOException if the files cannot be written
+     */
+    public String saveImage(PreprocessedImage image, String sessionId) throws IOException {
         Path sessionDir = Paths.get(imageStoragePath, sessionId);
         Files.createDirectories(sessionDir);
 
-        String originalFilename = image.getOriginalFilename();
-        String extension = getFileExtension(originalFilename);
-        String filename = "vet_image_" + System.currentTimeMillis() + "." + extension;
+        // The random suffix keeps several images saved within the same millisecond apart
+        String baseName = "vet_image_" + System.currentTimeMillis() + "_" +
+                UUID.randomUUID().toString().substring(0, 8);
+        String filename = baseName + "." + image.getStoredExtension();
 
         Path filePath = sessionDir.resolve(filename);
-
-        try (InputStream inputStream = image.getInputStream()) {
-            Files.copy(inputStream, filePath, StandardCopyOption.REPLACE_EXISTING);
-        }
+        Files.write(filePath, image.getStoredImage());
+        Files.write(sessionDir.resolve(baseName + THUMBNAIL_SUFFIX + ".jpg"), image.getThumbnail());
 
         System.out.println("Image saved: " + filePath.toString());
         return "/images/" + sessionId + "/" + filename;
     }
 
-    private void validateImage(MultipartFile image) throws IOException {
+    /**
+     * Checks an upload's size, name and real format and dimensions from its header,
+     * without decoding any pixel data.
+     *
+     * @param image the upload handle
+     * @throws IOException if the upload is not an acceptable image
+     */
+    public void validateImage(ImageUpload image) throws IOException {
         if (image == null || image.isEmpty()) {
             throw new IOException("Image file is empty");
         }
@@ -598,13 +935,12 @@ public class ImageAnalysisService {
             throw new IOException("Invalid file type. Allowed types: " + String.join(", ", ALLOWED_EXTENSIONS));
         }
 
-        try {
-            BufferedImage bufferedImage = ImageIO.read(image.getInputStream());
-            if (bufferedImage == null) {
-                throw new IOException("Invalid image format or corrupted file");
-            }
-        } catch (Exception e) {
-            throw new IOException("Unable to process image file: " + e.getMessage());
+        // Check the real format and dimensions from the header before anything decodes the pixels
+        if (!ALLOWED_FORMATS.contains(image.getFormatName())) {
+            throw new IOException("Invalid image format: file content is " + image.getFormatName());
+        }
+        if ((long) image.getWidth() * image.getHeight() > maxImagePixels) {
+            throw new IOException("Image dimensions too large: " + image.getWidth() + "x" + image.getHeight());
         }
     }
 
@@ -615,10 +951,6 @@ public class ImageAnalysisService {
         return filename.substring(filename.lastIndexOf(".") + 1);
     }
 
-    private boolean containsAny(String text, List<String> keywords) {
-        return keywords.stream().anyMatch(text::contains);
-    }
-
     public boolean isValidImageFile(String filename) {
         if (filename == null || filename.trim().isEmpty()) {
             return false;
@@ -635,13 +967,17 @@ public class ImageAnalysisService {
                 return;
             }
 
-            File[] files = sessionDir.toFile().listFiles();
+            // Thumbnails are removed together with their original and do not count towards the limit
+            File[] files = sessionDir.toFile().listFiles(file -> !file.getName().contains(THUMBNAIL_SUFFIX + "."));
             if (files != null && files.length > maxFiles) {
                 Arrays.sort(files, (f1, f2) -> Long.compare(f1.lastModified(), f2.lastModified()));
 
                 int filesToDelete = files.length - maxFiles;
                 for (int i = 0; i < filesToDelete; i++) {
+                    String name = files[i].getName();
+                    String baseName = name.contains(".") ? name.substring(0, name.lastIndexOf('.')) : name;
                     files[i].delete();
+                    new File(files[i].getParentFile(), baseName + THUMBNAIL_SUFFIX + ".jpg").delete();
                 }
 
                 System.out.println("Cleaned up " + filesToDelete + " old images for session " + sessionId);
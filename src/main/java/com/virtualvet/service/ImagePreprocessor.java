@@ -0,0 +1,229 @@
+package com.virtualvet.service;
+
+import com.virtualvet.model.ImageUpload;
+import com.virtualvet.model.PreprocessedImage;
+import org.apache.commons.imaging.Imaging;
+import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.formats.jpeg.JpegImageMetadata;
+import org.apache.commons.imaging.formats.tiff.TiffField;
+import org.apache.commons.imaging.formats.tiff.TiffImageMetadata;
+import org.apache.commons.imaging.formats.tiff.constants.TiffTagConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Image preprocessing stage for uploaded pet photos in the Virtual Vet application.
+ *
+ * Every upload is decoded exactly once. The decoded image is normalized to RGB with
+ * its EXIF orientation applied to the pixels, and all derivatives are then produced
+ * from it:
+ * - a model input JPEG downscaled to the resolution the VQA model actually uses,
+ *   so the sidecar's CPU time and the bytes sent over the wire no longer scale with
+ *   the camera's resolution
+ * - a stored copy of the original, optionally capped in size, re-encoded without
+ *   EXIF data so location and device metadata never reach image storage
+ * - a small JPEG thumbnail for display
+ *
+ * Downscaling halves the image with bilinear interpolation until it is within a
+ * factor of two of the target and finishes with a single bicubic step, which keeps
+ * detail without the aliasing of a single large bilinear reduction.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+public class ImagePreprocessor {
+
+    @Value("${image.preprocess.model-size:384}")
+    private int modelSize;
+
+    @Value("${image.preprocess.model-quality:0.85}")
+    private float modelQuality;
+
+    @Value("${image.preprocess.stored-max-size:2048}")
+    private int storedMaxSize;
+
+    @Value("${image.preprocess.stored-quality:0.92}")
+    private float storedQuality;
+
+    @Value("${image.preprocess.thumbnail-size:256}")
+    private int thumbnailSize;
+
+    @Value("${image.preprocess.thumbnail-quality:0.8}")
+    private float thumbnailQuality;
+
+    /**
+     * Decodes an uploaded image once and produces its model input, stored and thumbnail derivatives.
+     *
+     * @param image the validated upload handle
+     * @return the preprocessed image derivatives
+     * @throws IOException if the image cannot be read or decoded
+     */
+    public PreprocessedImage preprocess(ImageUpload image) throws IOException {
+        byte[] bytes = image.getContent();
+        boolean jpeg = "jpeg".equals(image.getFormatName());
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(bytes));
+        if (decoded == null) {
+            throw new IOException("Invalid image format or corrupted file");
+        }
+
+        // Only JPEG uploads carry an EXIF orientation worth parsing
+        BufferedImage normalized = normalize(decoded, jpeg ? readOrientation(bytes) : 1);
+        BufferedImage modelInput = scaleToFit(normalized, modelSize);
+        BufferedImage stored = scaleToFit(normalized, storedMaxSize);
+        BufferedImage thumbnail = scaleToFit(modelSize >= thumbnailSize ? modelInput : normalized, thumbnailSize);
+
+        // JPEG uploads stay JPEG; lossless formats are stored as PNG
+        byte[] storedBytes = jpeg ? encodeJpeg(stored, storedQuality) : encodePng(stored);
+
+        byte[] modelBytes = encodeJpeg(modelInput, modelQuality);
+        System.out.println(String.format("Preprocessed image %dx%d (%.1f KB) -> model input %dx%d (%.1f KB)",
+                normalized.getWidth(), normalized.getHeight(), bytes.length / 1024.0,
+                modelInput.getWidth(), modelInput.getHeight(), modelBytes.length / 1024.0));
+
+        return new PreprocessedImage(image.getOriginalFilename(), normalized.getWidth(), normalized.getHeight(),
+                image.getSize(), modelBytes, storedBytes, jpeg ? "jpg" : "png",
+                encodeJpeg(thumbnail, thumbnailQuality));
+    }
+
+    /**
+     * Reads the EXIF orientation tag of a JPEG image.
+     *
+     * @return the orientation value 1-8, or 1 when absent or unreadable
+     */
+    private int readOrientation(byte[] bytes) {
+        try {
+            ImageMetadata metadata = Imaging.getMetadata(bytes);
+            if (metadata instanceof JpegImageMetadata jpegMetadata) {
+                TiffImageMetadata exif = jpegMetadata.getExif();
+                if (exif != null) {
+                    TiffField orientation = exif.findField(TiffTagConstants.TIFF_TAG_ORIENTATION);
+                    if (orientation != null) {
+                        return orientation.getIntValue();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // Missing or malformed metadata is not an error; the image is used as stored
+        }
+        return 1;
+    }
+
+    /**
+     * Converts an image to opaque RGB and applies its EXIF orientation in a single draw.
+     */
+    private BufferedImage normalize(BufferedImage source, int orientation) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        boolean swapsAxes = orientation >= 5 && orientation <= 8;
+
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { transform.translate(width, 0); transform.scale(-1, 1); }
+            case 3 -> { transform.translate(width, height); transform.rotate(Math.PI); }
+            case 4 -> { transform.translate(0, height); transform.scale(1, -1); }
+            case 5 -> { transform.rotate(-Math.PI / 2); transform.scale(-1, 1); }
+            case 6 -> { transform.translate(height, 0); transform.rotate(Math.PI / 2); }
+            case 7 -> { transform.translate(height, width); transform.rotate(Math.PI / 2); transform.scale(-1, 1); }
+            case 8 -> { transform.translate(0, width); transform.rotate(3 * Math.PI / 2); }
+            default -> {
+                if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+                    return source;
+                }
+            }
+        }
+
+        BufferedImage normalized = new BufferedImage(swapsAxes ? height : width, swapsAxes ? width : height,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = normalized.createGraphics();
+        try {
+            // Flatten any transparency onto white, since JPEG has no alpha channel
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, normalized.getWidth(), normalized.getHeight());
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return normalized;
+    }
+
+    /**
+     * Downscales an image so its longest side fits within maxSize, preserving aspect ratio.
+     *
+     * @param maxSize the maximum length of the longest side, or 0 to keep the full resolution
+     */
+    private BufferedImage scaleToFit(BufferedImage source, int maxSize) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (maxSize <= 0 || Math.max(width, height) <= maxSize) {
+            return source;
+        }
+
+        double scale = (double) maxSize / Math.max(width, height);
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = resize(current, current.getWidth() / 2, current.getHeight() / 2,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+        if (current.getWidth() != targetWidth || current.getHeight() != targetHeight) {
+            current = resize(current, targetWidth, targetHeight, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        }
+        return current;
+    }
+
+    private BufferedImage resize(BufferedImage source, int width, int height, Object interpolation) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    /**
+     * Encodes an image as a baseline JPEG at the given quality, writing no metadata.
+     */
+    private byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(Math.max(0f, Math.min(1f, quality)));
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    private byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,253 @@
+package com.virtualvet.service;
+
+import com.virtualvet.entity.Message;
+import com.virtualvet.enums.entity.MessageType;
+import com.virtualvet.model.ConversationContext;
+import com.virtualvet.util.TokenEstimator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Token-budgeted conversation window for AI prompts in the Virtual Vet application.
+ *
+ * Sending the whole conversation with every request makes prompts, latency and cost
+ * grow without limit over a long consultation. This manager keeps only the most
+ * recent messages verbatim: walking back from the newest message, messages are kept
+ * until either the message limit or the token budget is reached, although a minimum
+ * number of the newest messages is always kept. Messages that slide out of the window
+ * are folded into a rolling summary stored with the session's conversation context.
+ *
+ * The summary is extractive and computed locally: each evicted message contributes
+ * its condensed first sentence, and the oldest lines are dropped once the summary
+ * exceeds its own token budget. Because the window only ever slides forward, the
+ * summary is extended only with the messages that left the window since the last
+ * turn, never recomputed from the start. The animal profile and identified symptoms
+ * are sent separately, so the key facts of early messages are not lost.
+ *
+ * Prompt sizes are estimated with the local TokenEstimator and recorded per turn as
+ * the vetchat.prompt.tokens distribution, tagged by prompt part.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+public class PromptWindowManager {
+
+    @Autowired
+    private ConversationContextCache conversationContextCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.prompt.window.max-messages:12}")
+    private int maxMessages;
+
+    @Value("${ai.prompt.window.min-messages:2}")
+    private int minMessages;
+
+    @Value("${ai.prompt.window.max-tokens:2000}")
+    private int maxTokens;
+
+    @Value("${ai.prompt.summary.max-tokens:400}")
+    private int summaryMaxTokens;
+
+    @Value("${ai.prompt.summary.words-per-message:30}")
+    private int summaryWordsPerMessage;
+
+    private DistributionSummary totalTokens;
+    private DistributionSummary historyTokens;
+    private DistributionSummary summaryTokens;
+
+    /**
+     * Registers the prompt size metrics once the meter registry has been injected.
+     */
+    @PostConstruct
+    void registerMetrics() {
+        totalTokens = promptTokens("total");
+        historyTokens = promptTokens("history");
+        summaryTokens = promptTokens("summary");
+    }
+
+    private DistributionSummary promptTokens(String part) {
+        return DistributionSummary.builder("vetchat.prompt.tokens")
+                .tag("part", part)
+                .baseUnit("tokens")
+                .description("Estimated tokens per AI prompt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Selects the messages to send verbatim and brings the rolling summary up to date.
+     *
+     * Any messages that left the window since the summary was last computed are folded
+     * into it, and the new summary is written back to the session's cached context.
+     *
+     * @param context the conversation context of the current turn
+     * @return the prompt window holding the summary and the verbatim messages
+     */
+    public PromptWindow buildWindow(ConversationContext context) {
+        List<Message> history = context.getRecentHistory();
+
+        int start = history.size();
+        int windowTokens = 0;
+        while (start > 0) {
+            int kept = history.size() - start;
+            if (kept >= maxMessages) {
+                break;
+            }
+            int messageTokens = TokenEstimator.estimate(formatMessage(history.get(start - 1)));
+            if (kept >= minMessages && windowTokens + messageTokens > maxTokens) {
+                break;
+            }
+            windowTokens += messageTokens;
+            start--;
+        }
+
+        // Never resend messages that are already covered by the summary. The summary counts
+        // messages from the start of the conversation, the history may begin later
+        int offset = context.getHistoryOffset();
+        int summarized = Math.max(0, Math.min(context.getSummarizedMessageCount() - offset, history.size()));
+        if (start > summarized) {
+            String summary = extendSummary(context.getHistorySummary(), history.subList(summarized, start));
+            context.setHistorySummary(summary);
+            context.setSummarizedMessageCount(offset + start);
+            conversationContextCache.updateSummary(context.getSessionId(), summary, offset + start);
+        } else if (start < summarized) {
+            for (int i = start; i < summarized; i++) {
+                windowTokens -= TokenEstimator.estimate(formatMessage(history.get(i)));
+            }
+            start = summarized;
+        }
+
+        return new PromptWindow(context.getHistorySummary(), history.subList(start, history.size()), windowTokens);
+    }
+
+    /**
+     * Records the estimated size of a prompt sent to the AI service.
+     *
+     * @param promptTokens the estimated token count of all messages in the request
+     * @param window the prompt window used to build it
+     */
+    public void recordPromptSize(int promptTokens, PromptWindow window) {
+        totalTokens.record(promptTokens);
+        historyTokens.record(window.getHistoryTokens());
+        summaryTokens.record(TokenEstimator.estimate(window.getSummary()));
+    }
+
+    /**
+     * Formats a message the way it appears in the prompt.
+     *
+     * @param message the message to format
+     * @return the message prefixed with its speaker
+     */
+    public String formatMessage(Message message) {
+        String role = message.getMessageType() == MessageType.USER ? "Owner" : "Vet Assistant";
+        return role + ": " + message.getContent();
+    }
+
+    /**
+     * Appends condensed lines for newly evicted messages to the summary, dropping the
+     * oldest lines while the summary is over its token budget.
+     */
+    private String extendSummary(String summary, List<Message> evicted) {
+        Deque<String> lines = new ArrayDeque<>();
+        if (summary != null && !summary.isEmpty()) {
+            Collections.addAll(lines, summary.split("\n"));
+        }
+        for (Message message : evicted) {
+            String condensed = condense(message.getContent());
+            if (!condensed.isEmpty()) {
+                String role = message.getMessageType() == MessageType.USER ? "Owner" : "Vet Assistant";
+                lines.addLast("- " + role + ": " + condensed);
+            }
+        }
+
+        int tokens = lines.stream().mapToInt(TokenEstimator::estimate).sum();
+        while (lines.size() > 1 && tokens > summaryMaxTokens) {
+            tokens -= TokenEstimator.estimate(lines.removeFirst());
+        }
+        return String.join("\n", lines);
+    }
+
+    /**
+     * Reduces a message to its first sentence, without markup, capped at the configured word count.
+     */
+    private String condense(String content) {
+        if (content == null) {
+            return "";
+        }
+
+        String text = content.replace("|||SPLIT|||", " ")
+                .replaceAll("<[^>]+>", " ")
+                .replaceAll("\\*+", "")
+                .replaceAll("\\s+", " ")
+                .trim();
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c == '.' || c == '?' || c == '!') && (i + 1 == text.length() || text.charAt(i + 1) == ' ')) {
+                text = text.substring(0, i + 1);
+                break;
+            }
+        }
+
+        String[] words = text.split(" ");
+        if (words.length > summaryWordsPerMessage) {
+            text = String.join(" ", Arrays.copyOf(words, summaryWordsPerMessage)) + "...";
+        }
+        return text;
+    }
+
+    /**
+     * The part of a conversation sent to the AI for one turn.
+     */
+    public static class PromptWindow {
+        private final String summary;
+        private final List<Message> messages;
+        private final int historyTokens;
+
+        public PromptWindow(String summary, List<Message> messages, int historyTokens) {
+            this.summary = summary;
+            this.messages = messages;
+            this.historyTokens = historyTokens;
+        }
+
+        /**
+         * Gets the rolling summary of messages outside the window.
+         *
+         * @return the summary, or null if no messages have left the window
+         */
+        public String getSummary() {
+            return summary;
+        }
+
+        /**
+         * Gets the messages sent verbatim, oldest first.
+         *
+         * @return the windowed messages
+         */
+        public List<Message> getMessages() {
+            return messages;
+        }
+
+        /**
+         * Gets the estimated token count of the windowed messages.
+         *
+         * @return the estimated history tokens
+         */
+        public int getHistoryTokens() {
+            return historyTokens;
+        }
+    }
+}
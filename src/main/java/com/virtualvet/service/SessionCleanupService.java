@@ -1,27 +1,60 @@
 package com.virtualvet.service;
 
 
+import com.virtualvet.entity.AnimalProfile;
+import com.virtualvet.entity.ProfileSymptom;
+import com.virtualvet.repository.AnimalProfileRepository;
 import com.virtualvet.repository.ConversationRepository;
+import com.virtualvet.repository.ProfileSymptomRepository;
+import com.virtualvet.util.FileUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service for managing automatic cleanup of inactive chat sessions and associated data.
- * 
+ *
  * This service provides scheduled cleanup functionality to maintain system performance
  * and storage efficiency by automatically removing inactive conversations and their
  * associated messages and images. It helps prevent database bloat and ensures that
  * only active and relevant data is retained in the system.
- * 
- * The service includes configurable cleanup intervals, batch processing for efficiency,
- * comprehensive logging of cleanup operations, and transactional safety to ensure
- * data consistency during cleanup operations.
- * 
+ *
+ * Expired sessions are purged in bounded batches, each in its own short transaction:
+ * the IDs of a batch are selected through the last_activity index and the
+ * conversations are removed with one bulk DELETE. No entities are loaded; messages,
+ * images, animal profiles and profile symptoms go with their conversation through the
+ * ON DELETE CASCADE foreign keys. Once a batch has committed, the sessions' upload
+ * directories are deleted in parallel and their cached contexts and registry
+ * entries dropped.
+ *
+ * Batches are separated by a pause, and a run stops after a maximum number of
+ * batches, so a large backlog is worked off over several runs instead of holding
+ * locks for long. During the configured peak hours smaller batches are used.
+ * Progress is published as vetchat.session.cleanup.* metrics.
+ *
  * @author Elliott Starosta
  * @version 1.0
  * @since 2025
@@ -32,33 +65,290 @@ public class SessionCleanupService {
     /** Repository for managing conversation entities */
     @Autowired
     private ConversationRepository conversationRepository;
-    
+
+    /** Profiles and symptoms deleted by cascade are looked up to evict them from the second-level cache */
+    @Autowired
+    private AnimalProfileRepository animalProfileRepository;
+
+    @Autowired
+    private ProfileSymptomRepository profileSymptomRepository;
+
+    /** Cached contexts of purged sessions would otherwise be served until they idle out */
+    @Autowired
+    private ConversationContextCache conversationContextCache;
+
+    /** Registered IDs of purged sessions must not be handed out again */
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ExecutorProvider executorProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /** Timeout period in minutes for considering sessions inactive */
     @Value("${session.timeout.minutes:30}")
     private int sessionTimeoutMinutes;
 
+    /** Directory holding one upload directory per session */
+    @Value("${image.storage.path:./uploads}")
+    private String imageStoragePath;
+
+    /** Conversations deleted per transaction */
+    @Value("${session.cleanup.batch-size:500}")
+    private int batchSize;
+
+    /** Conversations deleted per transaction during peak hours */
+    @Value("${session.cleanup.peak-batch-size:50}")
+    private int peakBatchSize;
+
+    /** Peak hours as "start-end" in 24-hour local time, such as 08-20; empty for none */
+    @Value("${session.cleanup.peak-hours:}")
+    private String peakHours;
+
+    /** Pause between batches, letting other transactions take the locks */
+    @Value("${session.cleanup.pause-ms:200}")
+    private long pauseMs;
+
+    /** Batches per run; what is left over is purged by the next run */
+    @Value("${session.cleanup.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    /** Threads deleting upload directories */
+    @Value("${session.cleanup.file-threads:4}")
+    private int fileThreads;
+
+    private ExecutorService fileExecutor;
+
+    private Timer runTimer;
+    private Counter sessionsDeleted;
+    private Counter batchesRun;
+    private Counter directoriesDeleted;
+    private Counter directoriesFailed;
+
+    /** Expired sessions left after the last run */
+    private final AtomicLong backlog = new AtomicLong();
+
+    @PostConstruct
+    void initialize() {
+        fileExecutor = executorProvider.newExecutor("session-cleanup-files", fileThreads);
+        runTimer = Timer.builder("vetchat.session.cleanup.run")
+                .description("Time to purge expired sessions")
+                .register(meterRegistry);
+        sessionsDeleted = Counter.builder("vetchat.session.cleanup.sessions")
+                .description("Expired sessions deleted")
+                .register(meterRegistry);
+        batchesRun = Counter.builder("vetchat.session.cleanup.batches")
+                .description("Delete batches run")
+                .register(meterRegistry);
+        directoriesDeleted = Counter.builder("vetchat.session.cleanup.directories")
+                .description("Upload directories of expired sessions")
+                .tag("result", "deleted")
+                .register(meterRegistry);
+        directoriesFailed = Counter.builder("vetchat.session.cleanup.directories")
+                .description("Upload directories of expired sessions")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        Gauge.builder("vetchat.session.cleanup.backlog", backlog, AtomicLong::get)
+                .description("Expired sessions left after the last cleanup run")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fileExecutor.shutdown();
+    }
+
     /**
      * Scheduled task to clean up inactive chat sessions.
-     * 
-     * This method runs automatically every hour to remove conversations that have been
-     * inactive for longer than the configured timeout period. It helps maintain system
-     * performance by preventing the accumulation of stale data.
-     * 
-     * The cleanup operation is performed within a transaction to ensure data consistency,
-     * and any errors during cleanup are logged but do not interrupt the scheduled task.
-     * 
-     * @see ConversationRepository#deleteByLastActivityBefore(LocalDateTime)
+     *
+     * This method runs every session.cleanup.interval.minutes to remove conversations
+     * that have been inactive for longer than the configured timeout period. It helps
+     * maintain system performance by preventing the accumulation of stale data.
+     *
+     * Each batch is deleted in its own transaction, and any errors during cleanup are
+     * logged but do not interrupt the scheduled task.
+     *
+     * @see ConversationRepository#deleteInactiveByIdIn
      */
-    @Scheduled(fixedRate = 3600000) // Run every hour
-    @Transactional
+    @Scheduled(fixedDelayString = "${session.cleanup.interval.minutes:60}",
+               initialDelayString = "${session.cleanup.interval.minutes:60}",
+               timeUnit = TimeUnit.MINUTES)
     public void cleanupInactiveSessions() {
         try {
-            LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(sessionTimeoutMinutes);
-            conversationRepository.deleteByLastActivityBefore(cutoffTime);
+            runTimer.record(this::purgeExpiredSessions);
         } catch (Exception e) {
             // Log error but don't throw - cleanup should be non-critical
             System.err.println("Failed to cleanup inactive sessions: " + e.getMessage());
         }
     }
-}
 
+    /**
+     * Deletes expired sessions batch by batch until none are left or the run's batch
+     * limit is reached.
+     */
+    private void purgeExpiredSessions() {
+        LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(sessionTimeoutMinutes);
+        int size = isPeakHour(LocalTime.now()) ? peakBatchSize : batchSize;
+        PageRequest batch = PageRequest.of(0, size);
+
+        long deleted = 0;
+        int batches = 0;
+        while (batches < maxBatchesPerRun) {
+            PurgedBatch purged = transactionTemplate.execute(status -> deleteBatch(cutoffTime, batch));
+            if (purged == null || purged.sessionIds.isEmpty()) {
+                break;
+            }
+            List<String> purgedSessions = purged.sessionIds;
+            batches++;
+            batchesRun.increment();
+            deleted += purgedSessions.size();
+            sessionsDeleted.increment(purgedSessions.size());
+
+            // Only after the commit, so a rolled back batch keeps its images
+            evictCascadedRows(purged);
+            deleteUploads(purgedSessions);
+            System.out.println("Session cleanup: batch " + batches + " deleted " + purgedSessions.size()
+                    + " sessions (" + deleted + " this run)");
+
+            if (purgedSessions.size() < size || !pause()) {
+                break;
+            }
+        }
+
+        backlog.set(conversationRepository.countByLastActivityBefore(cutoffTime));
+        if (deleted > 0 || backlog.get() > 0) {
+            System.out.println("Session cleanup: deleted " + deleted + " expired sessions in " + batches
+                    + " batches, " + backlog.get() + " left for the next run");
+        }
+    }
+
+    /**
+     * Deletes one batch of expired conversations.
+     *
+     * @return the session IDs of the deleted conversations, with the IDs of the profile
+     *         rows the delete cascades to
+     */
+    private PurgedBatch deleteBatch(LocalDateTime cutoffTime, PageRequest batch) {
+        List<Long> ids = conversationRepository.findInactiveIds(cutoffTime, batch);
+        if (ids.isEmpty()) {
+            return new PurgedBatch(List.of(), List.of(), List.of());
+        }
+        List<String> sessionIds = conversationRepository.findSessionIdsByIdIn(ids);
+        List<Long> profileIds = animalProfileRepository.findIdsByConversationIdIn(ids);
+        List<Long> symptomIds = profileIds.isEmpty()
+                ? List.of()
+                : profileSymptomRepository.findIdsByProfileIdIn(profileIds);
+        int deleted = conversationRepository.deleteInactiveByIdIn(ids, cutoffTime);
+        if (deleted < ids.size()) {
+            // Some sessions became active again after they were selected; keep their uploads
+            sessionIds = new ArrayList<>(sessionIds);
+            sessionIds.removeAll(conversationRepository.findSessionIdsByIdIn(ids));
+        }
+        // Profiles of conversations that were kept are evicted too, which only costs a reload
+        return new PurgedBatch(sessionIds, profileIds, symptomIds);
+    }
+
+    /**
+     * Drops the second-level cache entries of rows the database removed through
+     * ON DELETE CASCADE. Hibernate evicts the conversations of a bulk delete itself,
+     * but does not know about the profiles and symptoms deleted with them. Only the
+     * purged rows are evicted, so the cached profiles of active sessions stay warm.
+     *
+     * The profileByConversation query results of purged conversations are left to
+     * expire: conversation IDs come from a sequence and are never reused, and a purged
+     * session is no longer registered, so those results are never looked up again.
+     */
+    private void evictCascadedRows(PurgedBatch purged) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        String symptomsRole = AnimalProfile.class.getName() + ".symptoms";
+        for (Long profileId : purged.profileIds) {
+            cache.evictEntityData(AnimalProfile.class, profileId);
+            cache.evictCollectionData(symptomsRole, profileId);
+        }
+        for (Long symptomId : purged.symptomIds) {
+            cache.evictEntityData(ProfileSymptom.class, symptomId);
+        }
+    }
+
+    /**
+     * Deletes the upload directories of purged sessions in parallel and drops their
+     * cached contexts. Waits until every directory has been handled.
+     */
+    private void deleteUploads(List<String> sessionIds) {
+        List<CompletableFuture<Void>> deletions = new ArrayList<>();
+        for (String sessionId : sessionIds) {
+            conversationContextCache.invalidate(sessionId);
+            sessionRegistry.invalidate(sessionId);
+            Path sessionDir = Paths.get(imageStoragePath, sessionId);
+            deletions.add(CompletableFuture.runAsync(() -> {
+                if (FileUtils.deleteDirectory(sessionDir)) {
+                    directoriesDeleted.increment();
+                } else {
+                    directoriesFailed.increment();
+                }
+            }, fileExecutor));
+        }
+        CompletableFuture.allOf(deletions.toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * Checks whether a time falls in the configured peak hours. A range such as 20-06
+     * wraps past midnight.
+     */
+    private boolean isPeakHour(LocalTime time) {
+        if (peakHours == null || peakHours.isBlank()) {
+            return false;
+        }
+        try {
+            String[] range = peakHours.trim().split("-");
+            int start = Integer.parseInt(range[0].trim());
+            int end = Integer.parseInt(range[1].trim());
+            int hour = time.getHour();
+            return start <= end ? hour >= start && hour < end : hour >= start || hour < end;
+        } catch (RuntimeException e) {
+            System.err.println("Invalid session.cleanup.peak-hours '" + peakHours + "': " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Pauses between batches.
+     *
+     * @return false if the thread was interrupted and the run should stop
+     */
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Rows removed by one delete batch.
+     */
+    private static class PurgedBatch {
+        private final List<String> sessionIds;
+        private final List<Long> profileIds;
+        private final List<Long> symptomIds;
+
+        PurgedBatch(List<String> sessionIds, List<Long> profileIds, List<Long> symptomIds) {
+            this.sessionIds = sessionIds;
+            this.profileIds = profileIds;
+            this.symptomIds = symptomIds;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.virtualvet.service;
+
+import com.virtualvet.entity.AnimalProfile;
+import com.virtualvet.entity.Conversation;
+import com.virtualvet.repository.AnimalProfileRepository;
+import com.virtualvet.repository.ConversationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived map from session IDs to the database IDs of their conversation and
+ * animal profile.
+ *
+ * Nearly every step of a chat turn starts from the session ID, and each used to look
+ * the conversation up again with findBySessionId, followed by findByConversationId
+ * for the profile. The registry remembers both IDs once they are known, so later
+ * steps go straight to the rows by primary key, or take a reference to the
+ * conversation without querying at all when only its ID is needed.
+ *
+ * Entries expire after session.timeout.minutes without use, the same time after which
+ * the cleanup job deletes the session, and the cleanup job invalidates the sessions
+ * it deletes. IDs registered inside a transaction only become visible once it
+ * commits, so a rolled back insert never leaves an ID of a row that does not exist.
+ * Sessions that are not found are not remembered.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+public class SessionRegistry {
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private AnimalProfileRepository animalProfileRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${session.timeout.minutes:30}")
+    private long timeoutMinutes;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    /**
+     * Registers the registry metrics once the meter registry has been injected.
+     */
+    @PostConstruct
+    void registerMetrics() {
+        hitCounter = Counter.builder("vetchat.session.registry")
+                .tag("result", "hit")
+                .description("Session lookups answered from memory")
+                .register(meterRegistry);
+        missCounter = Counter.builder("vetchat.session.registry")
+                .tag("result", "miss")
+                .description("Session lookups that queried the conversation by session ID")
+                .register(meterRegistry);
+        Gauge.builder("vetchat.session.registry.size", entries, Map::size)
+                .description("Number of sessions held in the registry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gets the conversation ID of a session, querying it only when it is not registered.
+     *
+     * @param sessionId the session to look up
+     * @return the conversation ID, or empty if the session has no conversation
+     */
+    public Optional<Long> findConversationId(String sessionId) {
+        Entry entry = lookup(sessionId);
+        if (entry != null) {
+            return Optional.of(entry.conversationId);
+        }
+        return loadConversation(sessionId).map(Conversation::getId);
+    }
+
+    /**
+     * Loads the conversation of a session, by primary key when its ID is registered.
+     *
+     * @param sessionId the session to look up
+     * @return the conversation, or empty if the session has no conversation
+     */
+    public Optional<Conversation> findConversation(String sessionId) {
+        Entry entry = lookup(sessionId);
+        if (entry != null) {
+            Optional<Conversation> conversation = conversationRepository.findById(entry.conversationId);
+            if (conversation.isPresent()) {
+                return conversation;
+            }
+            // Deleted without going through the cleanup job
+            invalidate(sessionId);
+        }
+        return loadConversation(sessionId);
+    }
+
+    /**
+     * Gets the conversation of a session, creating it if the session has none.
+     *
+     * When the conversation ID is registered, an unloaded reference is returned and no
+     * query is made. It can be used to link new rows to the conversation; reading its
+     * fields loads it.
+     *
+     * @param sessionId the session to get the conversation for
+     * @return the conversation or a reference to it
+     */
+    public Conversation getOrCreateConversation(String sessionId) {
+        Entry entry = lookup(sessionId);
+        if (entry != null) {
+            return conversationRepository.getReferenceById(entry.conversationId);
+        }
+        return loadConversation(sessionId)
+                .orElseGet(() -> {
+                    Conversation conversation = conversationRepository.save(new Conversation(sessionId));
+                    register(sessionId, conversation.getId());
+                    return conversation;
+                });
+    }
+
+    /**
+     * Loads the animal profile of a session's conversation, by primary key when its
+     * ID is registered.
+     *
+     * @param sessionId the session the conversation belongs to
+     * @param conversationId the ID of the session's conversation
+     * @return the profile, or empty if the conversation has none yet
+     */
+    public Optional<AnimalProfile> findProfile(String sessionId, Long conversationId) {
+        Entry entry = lookup(sessionId);
+        if (entry != null && entry.profileId != null) {
+            Optional<AnimalProfile> profile = animalProfileRepository.findById(entry.profileId);
+            if (profile.isPresent()) {
+                return profile;
+            }
+            entry.profileId = null;
+        }
+
+        Optional<AnimalProfile> profile = animalProfileRepository.findByConversationId(conversationId)
+                .stream()
+                .findFirst();
+        if (profile.isPresent()) {
+            registerProfile(sessionId, conversationId, profile.get().getId());
+        }
+        return profile;
+    }
+
+    /**
+     * Loads the animal profile of a session.
+     *
+     * @param sessionId the session to look up
+     * @return the profile, or empty if the session has no conversation or profile
+     */
+    public Optional<AnimalProfile> findProfile(String sessionId) {
+        Optional<Long> conversationId = findConversationId(sessionId);
+        if (!conversationId.isPresent()) {
+            return Optional.empty();
+        }
+        return findProfile(sessionId, conversationId.get());
+    }
+
+    /**
+     * Registers the conversation of a session. Inside a transaction, the entry is
+     * added once the transaction commits.
+     *
+     * @param sessionId the session
+     * @param conversationId the ID of its conversation
+     */
+    public void register(String sessionId, Long conversationId) {
+        afterCommit(() -> entries.computeIfAbsent(sessionId, id -> new Entry(conversationId)));
+    }
+
+    /**
+     * Registers the animal profile of a session. Inside a transaction, the entry is
+     * updated once the transaction commits.
+     *
+     * @param sessionId the session
+     * @param conversationId the ID of its conversation
+     * @param profileId the ID of the conversation's profile
+     */
+    public void registerProfile(String sessionId, Long conversationId, Long profileId) {
+        afterCommit(() -> entries.computeIfAbsent(sessionId, id -> new Entry(conversationId)).profileId = profileId);
+    }
+
+    /**
+     * Removes a session, so its IDs are queried again on next use.
+     *
+     * @param sessionId the session to remove
+     */
+    public void invalidate(String sessionId) {
+        if (sessionId != null) {
+            entries.remove(sessionId);
+        }
+    }
+
+    /**
+     * Removes sessions that have not been used for longer than the session timeout.
+     */
+    @Scheduled(fixedDelayString = "${session.registry.sweep-interval-ms:300000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        entries.values().removeIf(entry -> entry.lastAccess < cutoff);
+    }
+
+    /**
+     * Gets a session's entry and marks it used, or returns null if it is not registered
+     * or has expired.
+     */
+    private Entry lookup(String sessionId) {
+        Entry entry = sessionId != null ? entries.get(sessionId) : null;
+        if (entry != null && entry.lastAccess < System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(timeoutMinutes)) {
+            entries.remove(sessionId, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        entry.lastAccess = System.currentTimeMillis();
+        return entry;
+    }
+
+    private Optional<Conversation> loadConversation(String sessionId) {
+        Optional<Conversation> conversation = conversationRepository.findBySessionId(sessionId);
+        if (conversation.isPresent()) {
+            register(sessionId, conversation.get().getId());
+        }
+        return conversation;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Registered IDs of a session together with the time they were last used.
+     */
+    private static class Entry {
+        private final Long conversationId;
+        private volatile Long profileId;
+        private volatile long lastAccess;
+
+        Entry(Long conversationId) {
+            this.conversationId = conversationId;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.virtualvet.service;
+
+import com.virtualvet.dto.StructuredVetResponse;
+import com.virtualvet.entity.AnimalProfile;
+import com.virtualvet.enums.entity.SymptomSource;
+import com.virtualvet.model.ChatTurn;
+import com.virtualvet.model.TurnCompletedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies the profile and symptom updates of completed chat turns after their reply
+ * has been returned.
+ *
+ * Building the reply only needs the conversation context. Detecting the animal's
+ * type, breed, age and weight from the owner's message and extracting symptoms from
+ * every segment of the AI response are not needed for it, so ChatService stores the
+ * turn's messages on the response path, publishes a TurnCompletedEvent and this
+ * service does the profile work on its own pool. The updated profile is put in the
+ * context cache, where the next turn of the session reads it, and its changes are
+ * written through the ChatTurnWriter as a turn without messages. A crash before the
+ * enrichment finishes therefore loses only profile updates, never messages.
+ *
+ * Turns of one session are enriched one at a time in the order they completed, so
+ * their profile updates never overtake each other; different sessions are enriched in
+ * parallel. Before a session's context or history is read, the caller continues from
+ * awaitSessionAsync(), which completes once the session's pending enrichment has
+ * finished, so the next turn sees the results of the previous one without a thread
+ * being blocked on it. If the wait times out, the caller rebuilds the context from the
+ * database instead.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class TurnEnrichmentService {
+
+    @Autowired
+    private AIConversationService aiConversationService;
+
+    @Autowired
+    private AnimalProfileService animalProfileService;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @Autowired
+    private ConversationContextCache conversationContextCache;
+
+    @Autowired
+    private ChatTurnWriter chatTurnWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ExecutorProvider executorProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${chat.enrichment.threads:2}")
+    private int enrichmentThreads;
+
+    /** How long a reader waits for a session's pending enrichment before rebuilding from the database */
+    @Value("${chat.enrichment.await-timeout-ms:10000}")
+    private long awaitTimeoutMs;
+
+    private ExecutorService enrichmentExecutor;
+
+    /** Loads profiles without flushing the in-memory changes made to them */
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    /** Last enrichment queued for each session; the next one of the session runs after it */
+    private final Map<String, CompletableFuture<Void>> sessionTails = new ConcurrentHashMap<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private Timer enrichmentTimer;
+
+    @PostConstruct
+    void initialize() {
+        enrichmentExecutor = executorProvider.newExecutor("turn-enrichment", enrichmentThreads);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+        enrichmentTimer = Timer.builder("vetchat.chat.turn.enrichment")
+                .description("Time to update the profile and store a completed chat turn")
+                .register(meterRegistry);
+        Gauge.builder("vetchat.chat.turn.enrichment.pending", pendingCount, AtomicInteger::get)
+                .description("Completed chat turns waiting for enrichment")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finishes the enrichments already queued before the application stops, so their
+     * profile changes are stored.
+     */
+    @PreDestroy
+    void shutdown() {
+        CompletableFuture<?>[] pending = sessionTails.values().toArray(new CompletableFuture[0]);
+        try {
+            CompletableFuture.allOf(pending).get(awaitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            System.err.println("Stopped before all chat turns were enriched: " + e.getMessage());
+        }
+        enrichmentExecutor.shutdown();
+    }
+
+    /**
+     * Queues the enrichment of a completed turn behind the earlier turns of its session.
+     *
+     * @param event the completed turn
+     */
+    @EventListener
+    public void onTurnCompleted(TurnCompletedEvent event) {
+        String sessionId = event.getTurn().getSessionId();
+        pendingCount.incrementAndGet();
+        CompletableFuture<Void> queued = sessionTails.compute(sessionId, (id, tail) -> {
+            CompletableFuture<Void> previous = tail != null ? tail : CompletableFuture.completedFuture(null);
+            return previous.exceptionally(throwable -> null)
+                    .thenRunAsync(() -> enrichmentTimer.record(() -> enrich(event)), enrichmentExecutor);
+        });
+        // Outside compute(), which must not be re-entered if the enrichment has already finished
+        queued.whenComplete((ignored, throwable) -> {
+            pendingCount.decrementAndGet();
+            sessionTails.remove(sessionId, queued);
+        });
+    }
+
+    /**
+     * Gets a future that completes once the enrichments queued so far for a session
+     * have finished, or once the await timeout has passed. No thread waits on it; the
+     * future is already complete when nothing is pending. A timed out future completes
+     * on a timer thread, so callers continue from it with an async stage on their own
+     * executor.
+     *
+     * @param sessionId the session to wait for
+     * @return a future completing with true if the enrichments finished, or false if the
+     *         wait timed out, in which case the session's cached context may not include them
+     */
+    public CompletableFuture<Boolean> awaitSessionAsync(String sessionId) {
+        CompletableFuture<Void> tail = sessionId != null ? sessionTails.get(sessionId) : null;
+        if (tail == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        // A failed enrichment has already been logged and does not hold up readers
+        return tail.exceptionally(throwable -> null)
+                .thenApply(ignored -> true)
+                .completeOnTimeout(false, awaitTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Updates the profile from a completed turn, publishes it to the context cache and
+     * stores the profile changes. Never throws, so a failed turn does not hold up the
+     * next one.
+     */
+    private void enrich(TurnCompletedEvent event) {
+        ChatTurn turn = event.getTurn();
+        String sessionId = turn.getSessionId();
+        // The turn's messages were handed to the writer before the reply; record the
+        // profile changes in a turn of their own
+        ChatTurn profileChanges = new ChatTurn(sessionId, null);
+
+        try {
+            // Earlier profile changes still queued for write-behind must be stored before the profile is read
+            chatTurnWriter.flush(sessionId);
+            AnimalProfile profile = readOnlyTransactionTemplate.execute(status -> {
+                AnimalProfile loaded = sessionRegistry.findProfile(sessionId, event.getConversation().getId())
+                        .orElseGet(() -> new AnimalProfile(event.getConversation()));
+
+                // Update profile from user message
+                profileChanges.addSymptoms(animalProfileService.applyMessage(loaded,
+                        turn.getUserMessage().getContent()), SymptomSource.USER_TEXT);
+                return loaded;
+            });
+
+            // Symptoms from the image analyses
+            profile.addSymptoms(event.getImageSymptoms(), SymptomSource.IMAGE);
+            profileChanges.addSymptoms(event.getImageSymptoms(), SymptomSource.IMAGE);
+
+            // Symptoms mentioned in the AI response
+            List<String> aiSymptoms = extractSymptomsFromStructuredResponse(event.getStructuredResponse());
+            profile.addSymptoms(aiSymptoms, SymptomSource.AI);
+            profileChanges.addSymptoms(aiSymptoms, SymptomSource.AI);
+
+            profileChanges.setDetectedProfile(profile);
+            conversationContextCache.updateProfile(sessionId, profile);
+        } catch (Exception e) {
+            System.err.println("Error updating profile of session " + sessionId + ": " + e.getMessage());
+            return;
+        }
+
+        try {
+            chatTurnWriter.write(profileChanges);
+        } catch (Exception e) {
+            System.err.println("Error storing profile of session " + sessionId + ": " + e.getMessage());
+            // Rebuild the context and IDs from what was actually stored
+            conversationContextCache.invalidate(sessionId);
+            sessionRegistry.invalidate(sessionId);
+        }
+    }
+
+    private List<String> extractSymptomsFromStructuredResponse(StructuredVetResponse response) {
+        Set<String> symptoms = new LinkedHashSet<>();
+
+        if (response == null) {
+            return new ArrayList<>(symptoms);
+        }
+
+        // Check assessment for symptoms
+        if (response.getAssessment() != null) {
+            symptoms.addAll(aiConversationService.extractSymptomsFromText(response.getAssessment()));
+        }
+
+        // Check message content for symptoms
+        if (response.getMessages() != null) {
+            for (StructuredVetResponse.ResponseMessage message : response.getMessages()) {
+                if (message != null && message.getContent() != null) {
+                    symptoms.addAll(aiConversationService.extractSymptomsFromText(message.getContent()));
+                }
+            }
+        }
+
+        return new ArrayList<>(symptoms);
+    }
+}
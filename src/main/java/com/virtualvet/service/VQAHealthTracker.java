@@ -0,0 +1,158 @@
+package com.virtualvet.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Shared health state of the local Python VQA service in the Virtual Vet application.
+ *
+ * The state is kept current by a background prober that polls the service's /health
+ * endpoint on a fixed delay, and by passive failure detection: callers report the
+ * outcome of real analysis calls, so a crashed or hung sidecar is noticed on the
+ * first failed request instead of waiting for the next probe. Reading the state is a
+ * single volatile read, which lets the request path check availability without any
+ * HTTP round trip or locking.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+public class VQAHealthTracker {
+
+    @Value("${ai.vqa.service.url:http://127.0.0.1:5000}")
+    private String vqaServiceUrl;
+
+    @Value("${ai.vqa.enabled:true}")
+    private boolean vqaEnabled;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RestTemplate probeTemplate;
+
+    /** Whether the service answered its last probe or call successfully */
+    private volatile boolean healthy = false;
+
+    /** Time of the last state update in epoch milliseconds, 0 if never checked */
+    private volatile long lastUpdated = 0L;
+
+    /** Reason for the most recent failure, null while healthy */
+    private volatile String lastError;
+
+    /**
+     * Constructs the tracker with a dedicated short-timeout client for health probes.
+     *
+     * @param restTemplateBuilder builder used to create the probe client
+     * @param probeTimeoutSeconds timeout for connecting to and reading from /health
+     */
+    public VQAHealthTracker(RestTemplateBuilder restTemplateBuilder,
+            @Value("${vqa.health.probe.timeout-seconds:3}") int probeTimeoutSeconds) {
+        this.probeTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(probeTimeoutSeconds))
+                .setReadTimeout(Duration.ofSeconds(probeTimeoutSeconds))
+                .build();
+    }
+
+    /**
+     * Checks whether the VQA service is currently considered healthy.
+     *
+     * @return true if the last probe or call succeeded, false otherwise
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Gets the time the health state was last updated.
+     *
+     * @return the last update time in epoch milliseconds, or 0 if never checked
+     */
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    /**
+     * Gets the reason for the most recent failure.
+     *
+     * @return the last failure reason, or null while the service is healthy
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Background prober that refreshes the health state on a fixed delay.
+     */
+    @Scheduled(initialDelayString = "${vqa.health.probe.initial-delay-ms:5000}",
+            fixedDelayString = "${vqa.health.probe.interval-ms:15000}")
+    public void scheduledProbe() {
+        if (vqaEnabled) {
+            probe();
+        }
+    }
+
+    /**
+     * Probes the VQA service's /health endpoint immediately and updates the state.
+     *
+     * The service counts as healthy only when it reports a healthy status and has
+     * its models loaded.
+     *
+     * @return true if the service is healthy, false otherwise
+     */
+    public boolean probe() {
+        try {
+            ResponseEntity<String> response = probeTemplate.getForEntity(vqaServiceUrl + "/health", String.class);
+
+            if (response.getStatusCode() == HttpStatus.OK) {
+                JsonNode healthData = objectMapper.readTree(response.getBody());
+                if ("healthy".equals(healthData.path("status").asText()) &&
+                        healthData.path("models_loaded").asBoolean()) {
+                    recordSuccess();
+                    return true;
+                }
+                recordFailure("Models not loaded");
+                return false;
+            }
+            recordFailure("Health endpoint returned " + response.getStatusCode());
+            return false;
+        } catch (Exception e) {
+            recordFailure(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Records a successful call to the VQA service.
+     */
+    public void recordSuccess() {
+        if (!healthy) {
+            System.out.println("Local VQA service is healthy");
+        }
+        lastError = null;
+        lastUpdated = System.currentTimeMillis();
+        healthy = true;
+    }
+
+    /**
+     * Records a failed call to the VQA service, marking it unhealthy until the
+     * next successful probe or call.
+     *
+     * @param reason description of the failure
+     */
+    public void recordFailure(String reason) {
+        if (healthy) {
+            System.err.println("Local VQA service marked unhealthy: " + reason);
+        }
+        lastError = reason;
+        lastUpdated = System.currentTimeMillis();
+        healthy = false;
+    }
+}
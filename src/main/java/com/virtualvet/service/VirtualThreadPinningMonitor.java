@@ -0,0 +1,122 @@
+package com.virtualvet.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread.
+ *
+ * A virtual thread that blocks while holding a monitor or inside native code cannot
+ * unmount, so it keeps a carrier thread busy and reduces the concurrency virtual threads
+ * are meant to provide. When virtual threads are enabled, this monitor subscribes to the
+ * JDK's jdk.VirtualThreadPinned flight recorder events in-process and records every
+ * pinning that lasts longer than the configured threshold in the
+ * vetchat.virtual-threads.pinned timer, tagged with the first application frame on the
+ * pinned stack, or the top frame if there is none. The first frames of each stack are
+ * also logged so the offending lock can be found.
+ *
+ * The monitor does nothing when running on platform threads.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /** Number of stack frames logged for each pinning */
+    private static final int LOGGED_FRAMES = 8;
+
+    @Autowired
+    private ExecutorProvider executorProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${virtual-threads.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream recordingStream;
+
+    /**
+     * Starts listening for pinning events if virtual threads are in use.
+     */
+    @PostConstruct
+    void startMonitoring() {
+        if (!executorProvider.isVirtualThreads()) {
+            return;
+        }
+
+        try {
+            recordingStream = new RecordingStream();
+            recordingStream.enable(PINNED_EVENT)
+                    .withThreshold(Duration.ofMillis(thresholdMs))
+                    .withStackTrace();
+            recordingStream.onEvent(PINNED_EVENT, this::recordPinning);
+            recordingStream.startAsync();
+            System.out.println("Monitoring virtual thread pinning longer than " + thresholdMs + "ms");
+        } catch (Exception e) {
+            System.err.println("Virtual thread pinning monitor unavailable: " + e.getMessage());
+            recordingStream = null;
+        }
+    }
+
+    @PreDestroy
+    void stopMonitoring() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void recordPinning(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String site = "unknown";
+        StringBuilder frames = new StringBuilder();
+        if (stackTrace != null && !stackTrace.getFrames().isEmpty()) {
+            site = stackTrace.getFrames().stream()
+                    .filter(frame -> frame.getMethod() != null && !isJdkFrame(frame))
+                    .findFirst()
+                    .map(VirtualThreadPinningMonitor::describe)
+                    .orElse(describe(stackTrace.getFrames().get(0)));
+            stackTrace.getFrames().stream()
+                    .limit(LOGGED_FRAMES)
+                    .forEach(frame -> frames.append("\n    at ").append(describe(frame)));
+        }
+
+        Timer.builder("vetchat.virtual-threads.pinned")
+                .tag("site", site)
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        String thread = event.getThread() != null ? event.getThread().getJavaName() : "unknown thread";
+        System.err.println("Virtual thread pinned for " + event.getDuration().toMillis() + "ms on "
+                + thread + frames);
+    }
+
+    private static boolean isJdkFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        if (frame.getMethod() == null) {
+            return "unknown";
+        }
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+}
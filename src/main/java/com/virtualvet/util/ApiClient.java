@@ -7,7 +7,14 @@ import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Utility class for making HTTP API calls to external services.
@@ -18,8 +25,10 @@ import java.util.Map;
  * for integrating with external AI services and third-party APIs.
  * 
  * The class includes error handling, logging, and response processing capabilities
- * to ensure reliable communication with external services. It uses Spring's RestTemplate
- * for HTTP operations and Jackson ObjectMapper for JSON processing.
+ * to ensure reliable communication with external services. JSON requests go through a
+ * shared, connection-pooling java.net.http.HttpClient and can be sent without blocking;
+ * multipart requests use Spring's RestTemplate for its form encoding. Jackson
+ * ObjectMapper is used for JSON processing.
  * 
  * @author Elliott Starosta
  * @version 1.0
@@ -27,8 +36,16 @@ import java.util.Map;
  */
 public class ApiClient {
 
-    /** REST template for making HTTP requests to external APIs */
+    /** REST template for making multipart HTTP requests to external APIs */
     private static final RestTemplate restTemplate = new RestTemplate();
+
+    /** Shared HTTP client for JSON requests; connections are pooled across calls */
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    /** Maximum time to wait for a response to a JSON request */
+    private static final Duration JSON_REQUEST_TIMEOUT = Duration.ofSeconds(60);
     
     /** Object mapper for JSON serialization and deserialization */
     private static final ObjectMapper objectMapper = new ObjectMapper();
@@ -85,29 +102,49 @@ public class ApiClient {
      * @return the response body as a string, or error message if the request fails
      */
     public static String postJson(String url, Object request) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<String> entity = new HttpEntity<>(
-                    objectMapper.writeValueAsString(request),
-                    headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    String.class);
+        return postJsonAsync(url, request).join();
+    }
 
-            return response.getBody();
+    /**
+     * Sends a JSON POST request to the specified URL without blocking the calling thread.
+     * 
+     * The request object is serialized to JSON and sent on the shared HTTP client. The
+     * returned future never completes exceptionally; failures produce the same error
+     * body as postJson.
+     * 
+     * @param url the target URL for the POST request
+     * @param request the request object to be serialized to JSON
+     * @return a future completing with the response body, or an error message if the request fails
+     */
+    public static CompletableFuture<String> postJsonAsync(String url, Object request) {
+        try {
+            HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(JSON_REQUEST_TIMEOUT)
+                    .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(request)))
+                    .build();
+
+            return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                    .thenApply(response -> {
+                        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                            throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+                        }
+                        return response.body();
+                    })
+                    .exceptionally(ApiClient::jsonCallFailed);
 
         } catch (Exception e) {
-            System.err.println("JSON API call failed: " + e.getMessage());
-            e.printStackTrace();
-            return "{\"response\":\"API call failed: " + e.getMessage() + "\"}";
+            return CompletableFuture.completedFuture(jsonCallFailed(e));
         }
     }
 
+    private static String jsonCallFailed(Throwable throwable) {
+        Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+        System.err.println("JSON API call failed: " + cause.getMessage());
+        cause.printStackTrace();
+        return "{\"response\":\"API call failed: " + cause.getMessage() + "\"}";
+    }
+
     /**
      * Sends a multipart POST request with complex form data.
      * 
@@ -122,8 +159,6 @@ public class ApiClient {
      * @throws Exception if there's an error making the request or processing the response
      */
     public static String postMultipart(String url, MultiValueMap<String, Object> body) throws Exception {
-        RestTemplate restTemplate = new RestTemplate();
-
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.MULTIPART_FORM_DATA);
 
@@ -0,0 +1,260 @@
+package com.virtualvet.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Count-based circuit breaker guarding calls to a single external backend.
+ *
+ * The breaker records the outcome and latency of the most recent calls in a
+ * fixed-size rolling window. Once the window holds enough calls and either the
+ * failure rate or the slow-call rate reaches its threshold, the breaker opens
+ * and rejects calls immediately, letting callers fail over to another backend
+ * instead of waiting on one that is down or stuck. After the open period has
+ * elapsed the breaker becomes half-open and lets a limited number of trial
+ * calls through: if they succeed it closes again, if any fails it reopens.
+ *
+ * All methods are synchronized; the breaker is shared by every thread calling
+ * the same backend and the critical sections are tiny.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public class CircuitBreaker {
+
+    /**
+     * States of the circuit breaker.
+     */
+    public enum State {
+        /** Calls flow normally while outcomes are recorded */
+        CLOSED,
+        /** Calls are rejected until the open period elapses */
+        OPEN,
+        /** A limited number of trial calls decide whether to close or reopen */
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallThresholdMillis;
+    private final double slowCallRateThreshold;
+    private final long openDurationMillis;
+    private final int halfOpenTrialCalls;
+
+    /** Rolling window of call outcomes; failures and slow calls are tracked separately */
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int windowPosition = 0;
+    private int recordedCalls = 0;
+    private int failureCount = 0;
+    private int slowCount = 0;
+
+    private State state = State.CLOSED;
+    private long openedAt = 0L;
+    private int trialCallsInFlight = 0;
+    private int trialCallsSucceeded = 0;
+    private long rejectedCalls = 0L;
+
+    /**
+     * Constructs a circuit breaker.
+     *
+     * @param name the name of the guarded backend, used in logs and metrics
+     * @param windowSize the number of recent calls kept in the rolling window
+     * @param minimumCalls the number of calls required before rates are evaluated
+     * @param failureRateThreshold failure percentage (0-100) at which the breaker opens
+     * @param slowCallThresholdMillis duration above which a call counts as slow
+     * @param slowCallRateThreshold slow-call percentage (0-100) at which the breaker opens
+     * @param openDurationMillis how long the breaker stays open before allowing trial calls
+     * @param halfOpenTrialCalls the number of trial calls allowed while half-open
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+            long slowCallThresholdMillis, double slowCallRateThreshold, long openDurationMillis,
+            int halfOpenTrialCalls) {
+        this.name = name;
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdMillis = slowCallThresholdMillis;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenTrialCalls = Math.max(1, halfOpenTrialCalls);
+        this.failedCalls = new boolean[this.windowSize];
+        this.slowCalls = new boolean[this.windowSize];
+    }
+
+    /**
+     * Asks for permission to call the backend.
+     *
+     * Every granted permission must be followed by exactly one call to
+     * {@link #onSuccess(long)}, {@link #onFailure(long)} or {@link #releasePermission()}.
+     *
+     * @return true if the call may proceed, false if it should fail over immediately
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMillis) {
+                rejectedCalls++;
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (trialCallsInFlight + trialCallsSucceeded >= halfOpenTrialCalls) {
+                rejectedCalls++;
+                return false;
+            }
+            trialCallsInFlight++;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a permission that was granted but not used for a call.
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && trialCallsInFlight > 0) {
+            trialCallsInFlight--;
+        }
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param durationMillis how long the call took
+     */
+    public synchronized void onSuccess(long durationMillis) {
+        boolean slow = durationMillis >= slowCallThresholdMillis;
+        if (state == State.HALF_OPEN) {
+            trialCallsInFlight = Math.max(0, trialCallsInFlight - 1);
+            if (slow) {
+                transitionTo(State.OPEN);
+                return;
+            }
+            trialCallsSucceeded++;
+            if (trialCallsSucceeded >= halfOpenTrialCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false, slow);
+    }
+
+    /**
+     * Records a failed call.
+     *
+     * @param durationMillis how long the call took before failing
+     */
+    public synchronized void onFailure(long durationMillis) {
+        if (state == State.HALF_OPEN) {
+            trialCallsInFlight = Math.max(0, trialCallsInFlight - 1);
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true, durationMillis >= slowCallThresholdMillis);
+    }
+
+    /**
+     * Gets the current state, moving an expired open breaker to half-open.
+     *
+     * @return the current state of the breaker
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMillis) {
+            transitionTo(State.HALF_OPEN);
+        }
+        return state;
+    }
+
+    /**
+     * Gets the name of the guarded backend.
+     *
+     * @return the breaker name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Builds a snapshot of the breaker's state and rolling-window statistics.
+     *
+     * @return map of state, rates and counters suitable for JSON output
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("state", getState().name());
+        snapshot.put("bufferedCalls", recordedCalls);
+        snapshot.put("failedCalls", failureCount);
+        snapshot.put("slowCalls", slowCount);
+        snapshot.put("failureRate", recordedCalls == 0 ? 0.0 : failureCount * 100.0 / recordedCalls);
+        snapshot.put("slowCallRate", recordedCalls == 0 ? 0.0 : slowCount * 100.0 / recordedCalls);
+        snapshot.put("rejectedCalls", rejectedCalls);
+        snapshot.put("failureRateThreshold", failureRateThreshold);
+        snapshot.put("slowCallThresholdMillis", slowCallThresholdMillis);
+        snapshot.put("slowCallRateThreshold", slowCallRateThreshold);
+        if (state == State.OPEN) {
+            snapshot.put("retryInMillis", Math.max(0L, openDurationMillis - (System.currentTimeMillis() - openedAt)));
+        }
+        return snapshot;
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (recordedCalls == windowSize) {
+            if (failedCalls[windowPosition]) {
+                failureCount--;
+            }
+            if (slowCalls[windowPosition]) {
+                slowCount--;
+            }
+        } else {
+            recordedCalls++;
+        }
+
+        failedCalls[windowPosition] = failed;
+        slowCalls[windowPosition] = slow;
+        if (failed) {
+            failureCount++;
+        }
+        if (slow) {
+            slowCount++;
+        }
+        windowPosition = (windowPosition + 1) % windowSize;
+
+        if (state == State.CLOSED && recordedCalls >= minimumCalls) {
+            double failureRate = failureCount * 100.0 / recordedCalls;
+            double slowCallRate = slowCount * 100.0 / recordedCalls;
+            if (failureRate >= failureRateThreshold || slowCallRate >= slowCallRateThreshold) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    private void transitionTo(State newState) {
+        if (state == newState) {
+            return;
+        }
+        System.out.println("Circuit breaker '" + name + "' " + state + " -> " + newState);
+        state = newState;
+        trialCallsInFlight = 0;
+        trialCallsSucceeded = 0;
+
+        if (newState == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        } else if (newState == State.CLOSED) {
+            resetWindow();
+        }
+    }
+
+    private void resetWindow() {
+        Arrays.fill(failedCalls, false);
+        Arrays.fill(slowCalls, false);
+        windowPosition = 0;
+        recordedCalls = 0;
+        failureCount = 0;
+        slowCount = 0;
+    }
+}
@@ -7,6 +7,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.stream.Stream;
 
 /**
  * Utility class for file operations and image handling in the Virtual Vet application.
@@ -138,6 +140,37 @@ public class FileUtils {
         }
     }
 
+    /**
+     * Deletes a directory together with everything in it.
+     * 
+     * Files are deleted before the directories that contain them. A directory that
+     * does not exist counts as deleted.
+     * 
+     * @param directory the directory to delete
+     * @return true if the directory no longer exists, false if some of it could not be deleted
+     */
+    public static boolean deleteDirectory(Path directory) {
+        if (!Files.exists(directory)) {
+            return true;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            boolean deleted = true;
+            // Deepest paths first, so each directory is empty when it is deleted
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    System.err.println("Failed to delete: " + path);
+                    deleted = false;
+                }
+            }
+            return deleted;
+        } catch (IOException e) {
+            System.err.println("Failed to delete directory: " + directory);
+            return false;
+        }
+    }
+
     /**
      * Calculates the total size of all files in a directory and its subdirectories.
      * 
@@ -0,0 +1,107 @@
+package com.virtualvet.util;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * MultipartFile implementation backed by a byte array that is already in memory.
+ *
+ * This class lets in-process callers, such as the Vaadin chat view, hand uploaded
+ * files directly to services that accept MultipartFile without going through a
+ * multipart HTTP round trip. The wrapped byte array is shared by reference rather
+ * than copied, so callers must not modify it after handing it over.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public class InMemoryMultipartFile implements MultipartFile {
+
+    /** Form field name reported for the file */
+    private final String name;
+
+    /** Original filename supplied by the client */
+    private final String originalFilename;
+
+    /** MIME content type of the file, may be null */
+    private final String contentType;
+
+    /** File content, shared by reference with the caller */
+    private final byte[] content;
+
+    /**
+     * Constructs an in-memory file using "images" as the field name.
+     *
+     * @param originalFilename the original filename of the upload
+     * @param contentType the MIME content type of the upload
+     * @param content the file content (not copied)
+     */
+    public InMemoryMultipartFile(String originalFilename, String contentType, byte[] content) {
+        this("images", originalFilename, contentType, content);
+    }
+
+    /**
+     * Constructs an in-memory file with an explicit field name.
+     *
+     * @param name the form field name of the upload
+     * @param originalFilename the original filename of the upload
+     * @param contentType the MIME content type of the upload
+     * @param content the file content (not copied)
+     */
+    public InMemoryMultipartFile(String name, String originalFilename, String contentType, byte[] content) {
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.content = content != null ? content : new byte[0];
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return content.length == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return content.length;
+    }
+
+    /**
+     * Returns the backing byte array itself rather than a copy.
+     *
+     * @return the file content
+     */
+    @Override
+    public byte[] getBytes() {
+        return content;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException, IllegalStateException {
+        Files.write(dest.toPath(), content);
+    }
+}
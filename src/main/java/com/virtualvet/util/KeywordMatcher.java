@@ -0,0 +1,405 @@
+package com.virtualvet.util;
+
+import com.virtualvet.enums.model.KeywordCategory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable multi-keyword matcher based on the Aho-Corasick automaton.
+ *
+ * All terms are compiled once into a single automaton, so a text is checked against
+ * the whole vocabulary in one linear pass, however many terms there are. Matching is
+ * case-insensitive, treats every whitespace character as a space and accepts
+ * both straight and typographic apostrophes.
+ *
+ * Matches must start at a word boundary. A WORD term must also end at a word boundary,
+ * optionally followed by a plural "s" or "es", so "cat" matches "cats" but not
+ * "cattle". A PREFIX term may be followed by further letters, so the stem "vomit"
+ * matches "vomiting" and "vomited".
+ *
+ * Instances are thread-safe and intended to be built once and shared.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public final class KeywordMatcher {
+
+    /**
+     * How the end of a term is matched.
+     */
+    public enum MatchMode {
+        /** The term must end at a word boundary, optionally followed by a plural ending */
+        WORD,
+        /** The term is a stem and may be followed by further letters */
+        PREFIX
+    }
+
+    private static final Term[] NO_TERMS = new Term[0];
+
+    /** Endings accepted after a WORD term, tried in order */
+    private static final String[] WORD_ENDINGS = { "", "s", "es" };
+
+    /** Sorted transition characters of each state */
+    private final char[][] edgeChars;
+
+    /** Target states, parallel to edgeChars */
+    private final int[][] edgeTargets;
+
+    /** Failure link of each state */
+    private final int[] failure;
+
+    /** Terms ending in each state, including those reached through failure links */
+    private final Term[][] outputs;
+
+    /**
+     * Compiles the terms into a matcher.
+     *
+     * @param terms the terms to match
+     */
+    public KeywordMatcher(Collection<Term> terms) {
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Term>> terminal = new ArrayList<>();
+        children.add(new TreeMap<>());
+        terminal.add(new ArrayList<>());
+
+        for (Term term : terms) {
+            int state = 0;
+            for (int i = 0; i < term.pattern.length(); i++) {
+                char c = term.pattern.charAt(i);
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    terminal.add(new ArrayList<>());
+                    children.get(state).put(c, next);
+                }
+                state = next;
+            }
+            terminal.get(state).add(term);
+        }
+
+        int stateCount = children.size();
+        edgeChars = new char[stateCount][];
+        edgeTargets = new int[stateCount][];
+        failure = new int[stateCount];
+        outputs = new Term[stateCount][];
+
+        for (int state = 0; state < stateCount; state++) {
+            TreeMap<Character, Integer> edges = children.get(state);
+            edgeChars[state] = new char[edges.size()];
+            edgeTargets[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[state][i] = edge.getKey();
+                edgeTargets[state][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // Breadth-first, so the failure target of every state is complete before its children
+        outputs[0] = terminal.get(0).toArray(NO_TERMS);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Term> stateOutputs = new ArrayList<>(terminal.get(state));
+            stateOutputs.addAll(Arrays.asList(outputs[failure[state]]));
+            outputs[state] = stateOutputs.isEmpty() ? NO_TERMS : stateOutputs.toArray(NO_TERMS);
+
+            for (int i = 0; i < edgeChars[state].length; i++) {
+                int child = edgeTargets[state][i];
+                failure[child] = state == 0 ? 0 : next(failure[state], edgeChars[state][i]);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Finds every occurrence of every term in a text, in the order their ends are reached.
+     *
+     * @param text the text to search, may be null
+     * @return all matches, empty if there are none
+     */
+    public List<Match> findAll(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        scan(text, null, match -> {
+            matches.add(match);
+            return true;
+        });
+        return matches;
+    }
+
+    /**
+     * Gets the canonical forms of the terms of one category found in a text.
+     *
+     * @param text the text to search, may be null
+     * @param category the category of terms to look for
+     * @return the distinct canonical terms, in the order they were found
+     */
+    public Set<String> findCanonical(CharSequence text, KeywordCategory category) {
+        Set<String> found = new LinkedHashSet<>();
+        scan(text, category, match -> {
+            found.add(match.getCanonical());
+            return true;
+        });
+        return found;
+    }
+
+    /**
+     * Gets the canonical forms of all terms found in a text, grouped by category.
+     *
+     * @param text the text to search, may be null
+     * @return the distinct canonical terms found for each category; categories without matches are absent
+     */
+    public Map<KeywordCategory, Set<String>> findCanonicalByCategory(CharSequence text) {
+        Map<KeywordCategory, Set<String>> found = new HashMap<>();
+        scan(text, null, match -> {
+            found.computeIfAbsent(match.getCategory(), category -> new LinkedHashSet<>()).add(match.getCanonical());
+            return true;
+        });
+        return found;
+    }
+
+    /**
+     * Gets the first term of one category found in a text.
+     *
+     * @param text the text to search, may be null
+     * @param category the category of terms to look for
+     * @return the match that ends first, or empty if there is none
+     */
+    public Optional<Match> findFirst(CharSequence text, KeywordCategory category) {
+        Match[] first = new Match[1];
+        scan(text, category, match -> {
+            first[0] = match;
+            return false;
+        });
+        return Optional.ofNullable(first[0]);
+    }
+
+    /**
+     * Checks whether a text contains any term of one category, stopping at the first match.
+     *
+     * @param text the text to search, may be null
+     * @param category the category of terms to look for
+     * @return true if at least one term of the category was found
+     */
+    public boolean containsAny(CharSequence text, KeywordCategory category) {
+        return findFirst(text, category).isPresent();
+    }
+
+    /**
+     * Runs the automaton over a text and passes each accepted match to the visitor
+     * until it asks to stop.
+     */
+    private void scan(CharSequence text, KeywordCategory category, MatchVisitor visitor) {
+        if (text == null) {
+            return;
+        }
+
+        int state = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            state = next(state, normalize(text.charAt(i)));
+            for (Term term : outputs[state]) {
+                if (category != null && term.category != category) {
+                    continue;
+                }
+                int start = i + 1 - term.pattern.length();
+                int end = acceptedEnd(text, term, start, i + 1);
+                if (end >= 0 && !visitor.visit(new Match(term, start, end))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the word boundaries of a candidate match.
+     *
+     * @return the end of the match including any plural ending, or -1 if it is not at word boundaries
+     */
+    private static int acceptedEnd(CharSequence text, Term term, int start, int end) {
+        if (start > 0 && isWordChar(text.charAt(start - 1)) && isWordChar(text.charAt(start))) {
+            return -1;
+        }
+        if (term.mode == MatchMode.PREFIX || !isWordChar(text.charAt(end - 1))) {
+            return end;
+        }
+
+        for (String ending : WORD_ENDINGS) {
+            int candidate = end + ending.length();
+            if (candidate <= text.length() && regionMatches(text, end, ending)
+                    && (candidate == text.length() || !isWordChar(text.charAt(candidate)))) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(CharSequence text, int offset, String expected) {
+        for (int i = 0; i < expected.length(); i++) {
+            if (normalize(text.charAt(offset + i)) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            int index = Arrays.binarySearch(edgeChars[state], c);
+            if (index >= 0) {
+                return edgeTargets[state][index];
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failure[state];
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    private static char normalize(char c) {
+        if (Character.isWhitespace(c)) {
+            return ' ';
+        }
+        if (c == '\u2019') {
+            return '\'';
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private static String normalize(String pattern) {
+        StringBuilder normalized = new StringBuilder(pattern.length());
+        for (int i = 0; i < pattern.length(); i++) {
+            normalized.append(normalize(pattern.charAt(i)));
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Receives matches during a scan.
+     */
+    private interface MatchVisitor {
+        /**
+         * @return true to continue scanning, false to stop
+         */
+        boolean visit(Match match);
+    }
+
+    /**
+     * A phrase to look for, with the canonical form reported when it is found.
+     */
+    public static final class Term {
+        private final String pattern;
+        private final String canonical;
+        private final KeywordCategory category;
+        private final MatchMode mode;
+
+        public Term(String pattern, String canonical, KeywordCategory category, MatchMode mode) {
+            this.pattern = normalize(pattern);
+            this.canonical = canonical;
+            this.category = category;
+            this.mode = mode;
+        }
+
+        /**
+         * Creates a term matched as whole words, allowing a plural ending.
+         *
+         * @param pattern the phrase to look for
+         * @param canonical the form reported when it is found
+         * @param category the category of the term
+         * @return the term
+         */
+        public static Term word(String pattern, String canonical, KeywordCategory category) {
+            return new Term(pattern, canonical, category, MatchMode.WORD);
+        }
+
+        /**
+         * Creates a term matched as a word stem.
+         *
+         * @param pattern the stem to look for
+         * @param canonical the form reported when it is found
+         * @param category the category of the term
+         * @return the term
+         */
+        public static Term prefix(String pattern, String canonical, KeywordCategory category) {
+            return new Term(pattern, canonical, category, MatchMode.PREFIX);
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public String getCanonical() {
+            return canonical;
+        }
+
+        public KeywordCategory getCategory() {
+            return category;
+        }
+
+        public MatchMode getMode() {
+            return mode;
+        }
+    }
+
+    /**
+     * One occurrence of a term in a text.
+     */
+    public static final class Match {
+        private final Term term;
+        private final int start;
+        private final int end;
+
+        Match(Term term, int start, int end) {
+            this.term = term;
+            this.start = start;
+            this.end = end;
+        }
+
+        public Term getTerm() {
+            return term;
+        }
+
+        public String getCanonical() {
+            return term.canonical;
+        }
+
+        public KeywordCategory getCategory() {
+            return term.category;
+        }
+
+        /**
+         * @return the index of the first character of the match
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * @return the index after the last character of the match, including any plural ending
+         */
+        public int getEnd() {
+            return end;
+        }
+    }
+}
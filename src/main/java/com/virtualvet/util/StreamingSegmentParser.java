@@ -0,0 +1,152 @@
+package com.virtualvet.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser for the elements of one array in a streamed JSON response.
+ *
+ * AI responses are streamed as small text fragments that rarely line up with JSON
+ * tokens. This parser is fed those fragments in order and tracks only the nesting
+ * depth, string and escape state, and the most recent top-level key. Each time an
+ * object element of the watched top-level array is closed, exactly that element is
+ * parsed with Jackson and passed to the listener, so callers can act on it while the
+ * rest of the response is still being generated.
+ *
+ * Any text before the first opening brace, such as a markdown code fence, is ignored.
+ * The complete response text stays available for a normal parse once the stream ends.
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public class StreamingSegmentParser {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String arrayField;
+    private final Consumer<JsonNode> elementListener;
+
+    private final StringBuilder text = new StringBuilder();
+    private int position;
+    private int depth;
+    private boolean started;
+    private boolean inString;
+    private boolean escaped;
+    private int stringStart;
+    private String lastString;
+    private String currentKey;
+    private boolean inArray;
+    private int elementStart = -1;
+    private int emittedCount;
+
+    /**
+     * Creates a parser that watches one top-level array field.
+     *
+     * @param arrayField the name of the top-level array whose elements are emitted
+     * @param elementListener receives each complete element, in order
+     */
+    public StreamingSegmentParser(String arrayField, Consumer<JsonNode> elementListener) {
+        this.arrayField = arrayField;
+        this.elementListener = elementListener;
+    }
+
+    /**
+     * Appends a streamed fragment and emits any array elements it completes.
+     *
+     * @param fragment the next piece of the response text
+     */
+    public void feed(String fragment) {
+        if (fragment == null || fragment.isEmpty()) {
+            return;
+        }
+        text.append(fragment);
+
+        for (; position < text.length(); position++) {
+            char c = text.charAt(position);
+
+            if (!started) {
+                if (c != '{') {
+                    continue;
+                }
+                started = true;
+            }
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                    if (depth == 1) {
+                        lastString = text.substring(stringStart, position);
+                    }
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    stringStart = position + 1;
+                }
+                case ':' -> {
+                    if (depth == 1) {
+                        currentKey = lastString;
+                    }
+                }
+                case '{', '[' -> {
+                    depth++;
+                    if (c == '[' && depth == 2 && arrayField.equals(currentKey)) {
+                        inArray = true;
+                    } else if (c == '{' && inArray && depth == 3) {
+                        elementStart = position;
+                    }
+                }
+                case '}', ']' -> {
+                    if (c == '}' && inArray && depth == 3 && elementStart >= 0) {
+                        emit(text.substring(elementStart, position + 1));
+                        elementStart = -1;
+                    } else if (c == ']' && inArray && depth == 2) {
+                        inArray = false;
+                    }
+                    depth--;
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the full text received so far.
+     *
+     * @return the concatenated fragments
+     */
+    public String getText() {
+        return text.toString();
+    }
+
+    /**
+     * Gets the number of array elements emitted so far.
+     *
+     * @return the emitted element count
+     */
+    public int getEmittedCount() {
+        return emittedCount;
+    }
+
+    private void emit(String element) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(element);
+        } catch (Exception e) {
+            System.err.println("Skipping unparseable streamed element: " + e.getMessage());
+            return;
+        }
+        emittedCount++;
+        elementListener.accept(node);
+    }
+}
@@ -0,0 +1,145 @@
+package com.virtualvet.util;
+
+import com.virtualvet.enums.model.KeywordCategory;
+import com.virtualvet.util.KeywordMatcher.Term;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.virtualvet.enums.model.KeywordCategory.*;
+
+/**
+ * Shared keyword vocabulary of the Virtual Vet application.
+ *
+ * Symptoms, emergency signs, urgency indicators, animal types and breeds are listed
+ * here once, each with the canonical form that is reported when it is found. The
+ * vocabulary is compiled into a single KeywordMatcher when the class is loaded, and
+ * every keyword check in the application uses that one matcher, so a message is
+ * scanned in one linear pass instead of once per keyword list.
+ *
+ * Stems such as "vomit" are matched as prefixes so that different word forms are
+ * found; other terms are matched as whole words, so "cut" does not match "cute".
+ *
+ * @author Elliott Starosta
+ * @version 1.0
+ * @since 2025
+ */
+public final class SymptomVocabulary {
+
+    /** Matcher compiled from the whole vocabulary */
+    public static final KeywordMatcher MATCHER = new KeywordMatcher(buildTerms());
+
+    private SymptomVocabulary() {
+    }
+
+    private static List<Term> buildTerms() {
+        List<Term> terms = new ArrayList<>();
+
+        // Symptoms
+        terms.add(Term.prefix("vomit", "vomiting", SYMPTOM));
+        terms.add(Term.word("throw up", "vomiting", SYMPTOM));
+        terms.add(Term.word("throwing up", "vomiting", SYMPTOM));
+        terms.add(Term.prefix("limp", "limping", SYMPTOM));
+        terms.add(Term.prefix("diarrh", "diarrhea", SYMPTOM));
+        terms.add(Term.word("loose stool", "diarrhea", SYMPTOM));
+        terms.add(Term.word("not eating", "loss of appetite", SYMPTOM));
+        terms.add(Term.word("won't eat", "loss of appetite", SYMPTOM));
+        terms.add(Term.word("appetite", "appetite changes", SYMPTOM));
+        terms.add(Term.word("lethargic", "lethargy", SYMPTOM));
+        terms.add(Term.word("tired", "lethargy", SYMPTOM));
+        terms.add(Term.prefix("weak", "weakness", SYMPTOM));
+        terms.add(Term.prefix("scratch", "scratching", SYMPTOM));
+        terms.add(Term.prefix("itch", "itching", SYMPTOM));
+        terms.add(Term.prefix("cough", "coughing", SYMPTOM));
+        terms.add(Term.prefix("sneez", "sneezing", SYMPTOM));
+        terms.add(Term.word("discharge", "discharge", SYMPTOM));
+        terms.add(Term.word("runny", "discharge", SYMPTOM));
+        terms.add(Term.word("swelling", "swelling", SYMPTOM));
+        terms.add(Term.word("swollen", "swelling", SYMPTOM));
+        terms.add(Term.prefix("pain", "pain", SYMPTOM));
+        terms.add(Term.prefix("hurt", "pain", SYMPTOM));
+        terms.add(Term.prefix("yelp", "pain", SYMPTOM));
+        terms.add(Term.prefix("whimper", "pain", SYMPTOM));
+        terms.add(Term.word("breathing", "breathing difficulty", SYMPTOM));
+        terms.add(Term.word("panting", "excessive panting", SYMPTOM));
+        terms.add(Term.prefix("drool", "drooling", SYMPTOM));
+        terms.add(Term.word("shaking", "trembling", SYMPTOM));
+        terms.add(Term.prefix("trembl", "trembling", SYMPTOM));
+        terms.add(Term.prefix("seizure", "seizure", SYMPTOM));
+        terms.add(Term.prefix("convuls", "convulsions", SYMPTOM));
+        terms.add(Term.prefix("blood", "bleeding", SYMPTOM));
+        terms.add(Term.prefix("bleed", "bleeding", SYMPTOM));
+        terms.add(Term.word("wound", "wound", SYMPTOM));
+        terms.add(Term.word("cut", "cut", SYMPTOM));
+
+        // Emergency signs
+        terms.add(Term.word("emergency", "emergency", EMERGENCY));
+        terms.add(Term.word("urgent", "emergency", EMERGENCY));
+        terms.add(Term.word("dying", "dying", EMERGENCY));
+        terms.add(Term.word("not breathing", "not breathing", EMERGENCY));
+        terms.add(Term.word("can't breathe", "not breathing", EMERGENCY));
+        terms.add(Term.word("difficulty breathing", "difficulty breathing", EMERGENCY));
+        terms.add(Term.word("unconscious", "unconscious", EMERGENCY));
+        terms.add(Term.word("won't wake up", "unconscious", EMERGENCY));
+        terms.add(Term.prefix("bleed", "bleeding", EMERGENCY));
+        terms.add(Term.prefix("blood", "bleeding", EMERGENCY));
+        terms.add(Term.prefix("convuls", "seizure", EMERGENCY));
+        terms.add(Term.prefix("seizure", "seizure", EMERGENCY));
+        terms.add(Term.prefix("chok", "choking", EMERGENCY));
+        terms.add(Term.prefix("collapse", "collapsed", EMERGENCY));
+        terms.add(Term.word("severe pain", "severe pain", EMERGENCY));
+        terms.add(Term.word("severe trauma", "severe trauma", EMERGENCY));
+        terms.add(Term.word("hit by car", "hit by car", EMERGENCY));
+        terms.add(Term.word("hit by a car", "hit by car", EMERGENCY));
+        terms.add(Term.prefix("poison", "poisoning", EMERGENCY));
+        terms.add(Term.word("blue gums", "blue gums", EMERGENCY));
+        terms.add(Term.word("pale gums", "pale gums", EMERGENCY));
+        terms.add(Term.word("bloated abdomen", "bloated abdomen", EMERGENCY));
+
+        // Urgency of image analysis findings
+        terms.add(Term.prefix("bleed", "bleeding", URGENCY_CRITICAL));
+        terms.add(Term.word("unconscious", "unconscious", URGENCY_CRITICAL));
+        terms.add(Term.prefix("seizure", "seizure", URGENCY_CRITICAL));
+        terms.add(Term.prefix("chok", "choking", URGENCY_CRITICAL));
+        terms.add(Term.word("not breathing", "not breathing", URGENCY_CRITICAL));
+        terms.add(Term.word("severe pain", "severe pain", URGENCY_HIGH));
+        terms.add(Term.word("difficulty breathing", "difficulty breathing", URGENCY_HIGH));
+        terms.add(Term.word("won't eat for days", "not eating for days", URGENCY_HIGH));
+        terms.add(Term.word("limping", "limping", URGENCY_MEDIUM));
+        terms.add(Term.word("lethargy", "lethargy", URGENCY_MEDIUM));
+        terms.add(Term.word("discharge", "discharge", URGENCY_MEDIUM));
+        terms.add(Term.word("coughing", "coughing", URGENCY_MEDIUM));
+
+        // Animal types
+        addAll(terms, ANIMAL_TYPE, "dog", "dog", "puppy", "puppies", "canine", "pup");
+        addAll(terms, ANIMAL_TYPE, "cat", "cat", "kitten", "feline", "kitty", "kitties");
+        addAll(terms, ANIMAL_TYPE, "bird", "bird", "parrot", "canary", "canaries", "cockatiel", "budgie");
+        addAll(terms, ANIMAL_TYPE, "rabbit", "rabbit", "bunny", "bunnies", "hare");
+        addAll(terms, ANIMAL_TYPE, "hamster", "hamster", "gerbil", "guinea pig");
+        addAll(terms, ANIMAL_TYPE, "reptile", "lizard", "snake", "gecko", "iguana", "bearded dragon");
+        addAll(terms, ANIMAL_TYPE, "fish", "fish", "goldfish", "betta");
+
+        // Breeds, reported by name
+        for (String breed : new String[] { "labrador", "golden retriever", "german shepherd", "rottweiler",
+                "doberman", "great dane", "mastiff", "husky", "malamute", "saint bernard", "border collie",
+                "australian shepherd", "cocker spaniel", "bulldog", "boxer", "beagle", "corgi", "shiba inu",
+                "australian cattle dog", "chihuahua", "yorkshire terrier", "pomeranian", "maltese", "pug",
+                "french bulldog", "boston terrier", "dachshund", "jack russell" }) {
+            terms.add(Term.word(breed, breed, DOG_BREED));
+        }
+        for (String breed : new String[] { "persian", "maine coon", "ragdoll", "norwegian forest", "siberian",
+                "himalayan", "angora", "siamese", "british shorthair", "bengal", "russian blue", "abyssinian",
+                "scottish fold", "american shorthair", "domestic shorthair" }) {
+            terms.add(Term.word(breed, breed, CAT_BREED));
+        }
+        addAll(terms, MIXED_BREED, "mixed breed", "mixed", "mix", "mutt");
+
+        return terms;
+    }
+
+    private static void addAll(List<Term> terms, KeywordCategory category, String canonical, String... words) {
+        for (String word : words) {
+            terms.add(Term.word(word, canonical, category));
+        }
+    }
+}
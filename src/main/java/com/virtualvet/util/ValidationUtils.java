@@ -1,5 +1,6 @@
 package com.virtualvet.util;
 
+import com.virtualvet.enums.model.KeywordCategory;
 
 import java.util.regex.Pattern;
 
@@ -109,19 +110,7 @@ public class ValidationUtils {
             return false;
         }
         
-        String lowerMessage = message.toLowerCase();
-        String[] emergencyKeywords = {
-            "emergency", "urgent", "dying", "unconscious", "bleeding", 
-            "choking", "seizure", "convulsing", "not breathing", "collapsed"
-        };
-        
-        for (String keyword : emergencyKeywords) {
-            if (lowerMessage.contains(keyword)) {
-                return true;
-            }
-        }
-        
-        return false;
+        return SymptomVocabulary.MATCHER.containsAny(message, KeywordCategory.EMERGENCY);
     }
 }
 
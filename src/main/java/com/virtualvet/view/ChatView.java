@@ -23,24 +23,25 @@ import com.vaadin.flow.component.upload.Upload;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.theme.lumo.LumoUtility;
+import com.virtualvet.dto.ChatResponse;
 import com.virtualvet.dto.StructuredVetResponse;
-import com.virtualvet.model.ConversationContext;
 import com.virtualvet.service.ChatService;
+import com.virtualvet.service.ExecutorProvider;
 import com.virtualvet.util.ApiClient;
+import com.virtualvet.util.InMemoryMultipartFile;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vaadin.flow.component.upload.receivers.MultiFileMemoryBuffer;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Map;
 import java.io.InputStream;
@@ -117,6 +118,10 @@ public class ChatView extends VerticalLayout {
     @Autowired
     private ChatService chatService;
 
+    /** Executors for background and delayed UI work */
+    @Autowired
+    private ExecutorProvider executorProvider;
+
     // === GEOLOCATION ===
     /** User's latitude for location-based services */
     private double userLatitude = 0.0;
@@ -602,57 +607,27 @@ public class ChatView extends VerticalLayout {
         setInputEnabled(false);
         scrollToBottom();
 
-        // Process the message
-        analyzeImagesAsync(filesToProcess)
-                .thenCompose(imageAnalysisResult -> {
-                    return CompletableFuture.supplyAsync(() -> {
-                        try {
-                            MultiValueMap<String, Object> requestBody = new LinkedMultiValueMap<>();
-
-                            requestBody.add("sessionId", currentSessionId);
-
-                            // Combine user message with image analysis results
-                            String finalMessage = message;
-                            if (!imageAnalysisResult.isEmpty()) {
-                                finalMessage = message + "\n\nImage analysis results:\n" + imageAnalysisResult;
-                            }
-                            requestBody.add("message", finalMessage);
-                            ConversationContext context = chatService.buildConversationContext(currentSessionId);
-                            System.out.println("Built context: " + context);
-                            requestBody.add("conversationHistory", context);
-
-                            // Include the actual image files
-                            for (UploadedFileData fileData : filesToProcess) {
-                                ByteArrayResource fileResource = new ByteArrayResource(fileData.getData()) {
-                                    @Override
-                                    public String getFilename() {
-                                        return fileData.getFilename();
-                                    }
-                                };
-                                requestBody.add("images", fileResource);
-                            }
-
-                            String response = ApiClient.postMultipart("http://localhost:8080/api/chat/message",
-                                    requestBody);
-                            JsonNode jsonResponse = objectMapper.readTree(response);
-                            System.out.println("JSON RESPONSE: " + jsonResponse);
-                            return jsonResponse.path("response").asText("Sorry, I couldn't generate a response.");
-
-                        } catch (Exception e) {
-                            System.err.println("API Error: " + e.getMessage());
-                            return "I'm having trouble connecting right now. Please try again in a moment.";
-                        }
-                    });
+        // Process the message. Images are analyzed once inside the chat turn and reach the AI
+        // through the conversation context, so they are not pre-analyzed here. Response
+        // segments are shown as they are generated; the rest follows when the turn completes.
+        List<String> streamedSegments = new ArrayList<>();
+        Consumer<String> segmentConsumer = streamSegments(getUI().orElse(null), streamedSegments);
+        // Only storing the message and images runs on the pool thread; the turn then continues
+        // as the analyses and the AI response complete, without a thread waiting for them
+        CompletableFuture.supplyAsync(() -> processChatTurn(message, filesToProcess, segmentConsumer),
+                        executorProvider.viewExecutor())
+                .thenCompose(turn -> turn)
+                .exceptionally(throwable -> {
+                    System.err.println("Chat processing error: " + throwable.getMessage());
+                    return "I'm having trouble connecting right now. Please try again in a moment.";
                 })
                 .thenAccept(responseText -> {
                     UI ui = getUI().orElse(null);
                     if (ui != null) {
                         ui.access(() -> {
                             try {
-                                removeTypingIndicator();
                                 System.out.println("Bot response: " + responseText);
-                                List<String> messages = splitIntoMessages(responseText);
-                                addBotMessages(messages);
+                                finishStreamedResponse(responseText, streamedSegments);
                                 setInputEnabled(true);
                                 messageInput.focus();
                                 scrollToBottom();
@@ -683,69 +658,115 @@ public class ChatView extends VerticalLayout {
                 });
     }
 
-    private CompletableFuture<String> analyzeImagesAsync(List<UploadedFileData> images) {
-        if (images.isEmpty()) {
-            return CompletableFuture.completedFuture("");
-        }
-
-        return CompletableFuture.supplyAsync(() -> {
-            StringBuilder analysisResults = new StringBuilder();
-
-            for (int i = 0; i < images.size(); i++) {
-                try {
-                    UploadedFileData fileData = images.get(i);
-
-                    // Create multipart request for image analysis
-                    MultiValueMap<String, Object> analysisRequest = new LinkedMultiValueMap<>();
-                    ByteArrayResource imageResource = new ByteArrayResource(fileData.getData()) {
-                        @Override
-                        public String getFilename() {
-                            return fileData.getFilename();
-                        }
-                    };
-                    analysisRequest.add("image", imageResource);
-
-                    // Call analysis API
-                    String analysisResponse = ApiClient.postMultipart(
-                            "http://localhost:8080/api/analysis/image",
-                            analysisRequest);
-
-                    // Parse the analysis response
-                    JsonNode analysisJson = objectMapper.readTree(analysisResponse);
-
-                    if (analysisJson.path("success").asBoolean(false)) {
-                        String condition = analysisJson.path("condition").asText("Unknown");
-                        String description = analysisJson.path("description").asText("No description available");
-                        String confidence = analysisJson.path("confidence").asText("Unknown");
-                        String urgencyLevel = analysisJson.path("urgencyLevel").asText("Unknown");
-
-                        // Format the analysis result
-                        String imagePrefix = images.size() > 1
-                                ? "Image " + (i + 1) + " (" + fileData.getFilename() + ")"
-                                : "The uploaded image";
-                        analysisResults.append(String.format(
-                                "%s shows: %s (Confidence: %s, Urgency: %s) - %s",
-                                imagePrefix, condition, confidence, urgencyLevel, description));
-
-                        if (i < images.size() - 1) {
-                            analysisResults.append("\n\n");
-                        }
-                    } else {
-                        String error = analysisJson.path("message").asText("Analysis failed");
-                        analysisResults.append(String.format("Image analysis failed for %s: %s",
-                                fileData.getFilename(), error));
+    /**
+     * Runs a chat turn in-process through the ChatService.
+     *
+     * The view and the chat service live in the same JVM, so uploaded files are
+     * handed over as in-memory MultipartFiles that share the uploaded byte arrays
+     * instead of being encoded into a multipart request to /api/chat/message.
+     * The REST endpoint remains available for external clients.
+     *
+     * @param message the message text to send
+     * @param files the files attached to the message
+     * @param segmentConsumer receives each response segment as soon as it is generated
+     * @return a future completing with the display text of the bot response
+     */
+    private CompletableFuture<String> processChatTurn(String message, List<UploadedFileData> files,
+            Consumer<String> segmentConsumer) {
+        MultipartFile[] images = files.stream()
+                .map(fileData -> new InMemoryMultipartFile(fileData.getFilename(), fileData.getContentType(),
+                        fileData.getData()))
+                .toArray(MultipartFile[]::new);
+
+        return chatService.processMessageAsync(currentSessionId, message, images, segmentConsumer)
+                .thenApply(response -> {
+                    if (response == null || response.getResponse() == null) {
+                        return "Sorry, I couldn't generate a response.";
                     }
+                    if (response.isError()) {
+                        System.err.println("Chat processing error: " + response.getErrorMessage());
+                    }
+                    return response.getResponse();
+                });
+    }
 
-                } catch (Exception e) {
-                    System.err
-                            .println("Image analysis error for " + images.get(i).getFilename() + ": " + e.getMessage());
-                    analysisResults.append(String.format("Could not analyze image %s: %s",
-                            images.get(i).getFilename(), e.getMessage()));
-                }
+    /**
+     * Creates a consumer that shows streamed response segments as they arrive.
+     *
+     * Segments are delivered from the chat processing thread and pushed to the browser
+     * through the UI's push connection. The typing indicator is replaced by the first
+     * segment, and every shown segment is recorded so the final response can skip it.
+     *
+     * @param ui the UI to show the segments in
+     * @param streamedSegments collects the segments shown so far, in order
+     * @return the segment consumer to pass to the chat service
+     */
+    private Consumer<String> streamSegments(UI ui, List<String> streamedSegments) {
+        return segment -> {
+            if (ui == null) {
+                return;
             }
+            ui.access(() -> {
+                if (streamedSegments.isEmpty()) {
+                    removeTypingIndicator();
+                }
+                streamedSegments.add(segment);
+                for (String part : splitIntoMessages(segment)) {
+                    addBotMessage(part, false);
+                }
+                scrollToBottom();
+                ui.push();
+            });
+        };
+    }
 
-            return analysisResults.toString();
-        });
+    /**
+     * Shows the part of a completed response that was not already streamed.
+     *
+     * The streamed segments form the start of the response's display text, so only the
+     * text after them (lists, warnings, questions and next steps) is added. If the final
+     * text does not start with the streamed segments, as when the turn fell back to an
+     * error message, the whole response is shown.
+     *
+     * @param responseText the display text of the complete response
+     * @param streamedSegments the segments already shown while streaming
+     */
+    private void finishStreamedResponse(String responseText, List<String> streamedSegments) {
+        if (streamedSegments.isEmpty()) {
+            removeTypingIndicator();
+            addBotMessages(splitIntoMessages(responseText));
+            return;
+        }
+
+        // The display text is trimmed, so compare without leading whitespace
+        String streamedText = String.join("|||SPLIT|||", streamedSegments).stripLeading();
+        String remainingText = responseText != null && responseText.startsWith(streamedText)
+                ? responseText.substring(streamedText.length())
+                : responseText;
+
+        List<String> remaining = remainingText == null || remainingText.replace("|||SPLIT|||", "").trim().isEmpty()
+                ? List.of()
+                : splitIntoMessages(remainingText);
+        if (remaining.isEmpty()) {
+            showAvatarOnLastBotMessage();
+        } else {
+            addBotMessages(remaining);
+        }
+    }
+
+    /**
+     * Shows the bot avatar next to the most recent bot message, which closes its message group.
+     */
+    private void showAvatarOnLastBotMessage() {
+        if (!"bot".equals(lastMessageSender) || currentMessageGroup.isEmpty()) {
+            return;
+        }
+        Div lastRow = currentMessageGroup.get(currentMessageGroup.size() - 1);
+        List<Component> parts = lastRow.getChildren().collect(Collectors.toList());
+        if (parts.size() == 2) {
+            parts.get(0).getElement().getStyle().set("display", "flex");
+            parts.get(1).getElement().getStyle().set("margin-left", "0");
+        }
     }
 
     private List<String> splitIntoMessages(String text) {
@@ -902,8 +923,8 @@ public class ChatView extends VerticalLayout {
             // Calculate total delay for this message
             int totalDelay = (index * delayFinal) + 300;
 
-            // Schedule the message addition using CompletableFuture with proper delay
-            CompletableFuture.delayedExecutor(totalDelay, java.util.concurrent.TimeUnit.MILLISECONDS)
+            // Schedule the message addition on the view executor with proper delay
+            executorProvider.delayedViewExecutor(totalDelay, java.util.concurrent.TimeUnit.MILLISECONDS)
                     .execute(() -> {
                         UI ui = getUI().orElse(null);
                         if (ui != null) {
@@ -1163,41 +1184,29 @@ public class ChatView extends VerticalLayout {
                         scrollToBottom();
 
                         // Process the corrected message
-                        CompletableFuture.supplyAsync(() -> {
-                            try {
-                                MultiValueMap<String, Object> requestBody = new LinkedMultiValueMap<>();
-                                requestBody.add("sessionId", currentSessionId);
-
-                                // Send the correction instruction
-                                String correctionInstruction = "CORRECTION: The user previously said \"" + text +
-                                        "\" but corrected it to \"" + newText +
-                                        "\". Please respond to the corrected version and ignore the previous message.";
-                                requestBody.add("message", correctionInstruction);
-
-                                ConversationContext context = chatService.buildConversationContext(currentSessionId);
-                                requestBody.add("conversationHistory", context);
-
-                                String response = ApiClient.postMultipart("http://localhost:8080/api/chat/message",
-                                        requestBody);
-                                JsonNode jsonResponse = objectMapper.readTree(response);
-                                return jsonResponse.path("response").asText("Sorry, I couldn't generate a response.");
-                            } catch (Exception ex) {
-                                return "I'm having trouble connecting right now. Please try again in a moment.";
-                            }
-                        }).thenAccept(responseText -> {
-                            UI ui = getUI().orElse(null);
-                            if (ui != null) {
-                                ui.access(() -> {
-                                    removeTypingIndicator();
-                                    List<String> messages = splitIntoMessages(responseText);
-                                    addBotMessages(messages);
-                                    setInputEnabled(true);
-                                    messageInput.focus();
-                                    scrollToBottom();
-                                    ui.push();
+                        List<String> streamedSegments = new ArrayList<>();
+                        Consumer<String> segmentConsumer = streamSegments(getUI().orElse(null), streamedSegments);
+                        // Send the correction instruction
+                        String correctionInstruction = "CORRECTION: The user previously said \"" + text +
+                                "\" but corrected it to \"" + newText +
+                                "\". Please respond to the corrected version and ignore the previous message.";
+
+                        CompletableFuture.supplyAsync(() -> processChatTurn(correctionInstruction, List.of(), segmentConsumer),
+                                        executorProvider.viewExecutor())
+                                .thenCompose(turn -> turn)
+                                .exceptionally(ex -> "I'm having trouble connecting right now. Please try again in a moment.")
+                                .thenAccept(responseText -> {
+                                    UI ui = getUI().orElse(null);
+                                    if (ui != null) {
+                                        ui.access(() -> {
+                                            finishStreamedResponse(responseText, streamedSegments);
+                                            setInputEnabled(true);
+                                            messageInput.focus();
+                                            scrollToBottom();
+                                            ui.push();
+                                        });
+                                    }
                                 });
-                            }
-                        });
                     }
                 } else if (newText.equals(text)) {
                     Notification.show("No changes made", 2000, Notification.Position.BOTTOM_START);
@@ -1668,7 +1677,7 @@ public class ChatView extends VerticalLayout {
                     // Remove after animation completes
                     getUI().ifPresent(ui -> ui.access(() -> {
                         ui.setPollInterval(50);
-                        CompletableFuture.delayedExecutor(300, java.util.concurrent.TimeUnit.MILLISECONDS)
+                        executorProvider.delayedViewExecutor(300, java.util.concurrent.TimeUnit.MILLISECONDS)
                                 .execute(() -> {
                                     ui.access(() -> {
                                         messagesContainer.remove(indicator);
@@ -1720,23 +1729,14 @@ public class ChatView extends VerticalLayout {
             return;
         }
 
-        CompletableFuture.supplyAsync(() -> {
-            try {
-                System.out.println("Making API call to find nearby vets...");
-                String response = ApiClient.postJson(
-                        "http://localhost:8080/api/emergency/nearby-vets",
-                        Map.of(
-                                "latitude", userLatitude,
-                                "longitude", userLongitude,
-                                "radiusKm", 25));
-                System.out.println("API Response: " + response);
-                return response;
-            } catch (Exception ex) {
-                System.err.println("Error finding nearby vets: " + ex.getMessage());
-                ex.printStackTrace(); // Add full stack trace
-                return null;
-            }
-        }).thenAccept(response -> {
+        System.out.println("Making API call to find nearby vets...");
+        ApiClient.postJsonAsync(
+                "http://localhost:8080/api/emergency/nearby-vets",
+                Map.of(
+                        "latitude", userLatitude,
+                        "longitude", userLongitude,
+                        "radiusKm", 25)).thenAccept(response -> {
+            System.out.println("API Response: " + response);
             getUI().ifPresent(ui -> ui.access(() -> {
                 if (response != null) {
                     System.out.println("Showing dialog with response: " + response);
@@ -2185,11 +2185,8 @@ public class ChatView extends VerticalLayout {
      * blocking the UI thread.
      */
     private void startNewSession() {
-        CompletableFuture.supplyAsync(() -> {
+        ApiClient.postJsonAsync("http://localhost:8080/api/chat/start", Map.of()).thenApply(response -> {
             try {
-                String response = ApiClient.postJson(
-                        "http://localhost:8080/api/chat/start",
-                        Map.of());
                 JsonNode jsonResponse = objectMapper.readTree(response);
                 return jsonResponse.path("sessionId").asText();
             } catch (Exception e) {
@@ -0,0 +1,9 @@
+-- Messages and message images take their IDs from pooled sequences, so a chat turn's
+-- inserts can be sent as JDBC batches. The sequences continue after the existing rows;
+-- the old identity columns accept the explicit IDs Hibernate now supplies.
+
+CREATE SEQUENCE messages_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE messages_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM messages);
+
+CREATE SEQUENCE message_images_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE message_images_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM message_images);
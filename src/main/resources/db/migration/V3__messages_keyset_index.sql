@@ -0,0 +1,6 @@
+-- One composite index serves both the lookup of a conversation's messages and keyset
+-- pagination of its history on (timestamp, id); it replaces the single-column indexes.
+
+CREATE INDEX idx_messages_conversation_timestamp_id ON messages(conversation_id, timestamp, id);
+DROP INDEX IF EXISTS idx_messages_conversation_id;
+DROP INDEX IF EXISTS idx_messages_timestamp;
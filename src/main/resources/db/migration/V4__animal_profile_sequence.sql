@@ -0,0 +1,7 @@
+-- Animal profiles take their IDs from a pooled sequence like the other chat turn tables,
+-- so a turn's profile insert no longer needs a round trip of its own and can be batched.
+-- The sequence continues after the existing rows; the old identity column accepts the
+-- explicit IDs Hibernate now supplies.
+
+CREATE SEQUENCE animal_profiles_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE animal_profiles_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM animal_profiles);
@@ -1,7 +1,15 @@
+-- Schema of the in-memory development database, run at startup.
+-- The prod profile builds the same schema with Flyway from db/migration; keep the two in step.
+
 -- Drop in correct order (children first, then parents)
 DROP TABLE IF EXISTS message_images;
+DROP SEQUENCE IF EXISTS message_images_seq;
+DROP TABLE IF EXISTS profile_symptoms;
+DROP SEQUENCE IF EXISTS profile_symptoms_seq;
 DROP TABLE IF EXISTS animal_profiles;
+DROP SEQUENCE IF EXISTS animal_profiles_seq;
 DROP TABLE IF EXISTS messages;
+DROP SEQUENCE IF EXISTS messages_seq;
 DROP TABLE IF EXISTS conversations;
 
 -- Create conversations table
@@ -14,8 +22,10 @@ CREATE TABLE conversations (
 );
 
 -- Create messages table
+CREATE SEQUENCE messages_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE messages (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    id BIGINT PRIMARY KEY,
     conversation_id BIGINT NOT NULL,
     message_type VARCHAR(10) NOT NULL CHECK (message_type IN ('USER', 'BOT')),
     content TEXT NOT NULL,
@@ -26,33 +36,53 @@ CREATE TABLE messages (
 );
 
 -- Create animal_profiles table
+CREATE SEQUENCE animal_profiles_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE animal_profiles (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    id BIGINT PRIMARY KEY,
     conversation_id BIGINT NOT NULL,
     animal_type VARCHAR(100),
     breed VARCHAR(100),
     age INTEGER CHECK (age >= 0 AND age <= 30),
     weight DECIMAL(5,2) CHECK (weight > 0 AND weight <= 500),
-    symptoms TEXT,
     FOREIGN KEY (conversation_id) REFERENCES conversations(id) ON DELETE CASCADE
 );
 
+-- Create profile_symptoms table (one row per symptom per profile)
+CREATE SEQUENCE profile_symptoms_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE profile_symptoms (
+    id BIGINT PRIMARY KEY,
+    profile_id BIGINT NOT NULL,
+    symptom VARCHAR(255) NOT NULL,
+    first_seen TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    source VARCHAR(20) NOT NULL CHECK (source IN ('USER_TEXT', 'IMAGE', 'AI')),
+    CONSTRAINT uk_profile_symptoms_profile_symptom UNIQUE (profile_id, symptom),
+    FOREIGN KEY (profile_id) REFERENCES animal_profiles(id) ON DELETE CASCADE
+);
+
 -- Create message_images table
+CREATE SEQUENCE message_images_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE message_images (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    id BIGINT PRIMARY KEY,
     message_id BIGINT NOT NULL,
     image_order INTEGER,
     image_url VARCHAR(500) NOT NULL,
     analysis_result TEXT,
+    content_hash VARCHAR(64),
     FOREIGN KEY (message_id) REFERENCES messages(id) ON DELETE CASCADE
 );
 
 -- Create indexes for better performance
 CREATE INDEX idx_conversations_session_id ON conversations(session_id);
 CREATE INDEX idx_conversations_last_activity ON conversations(last_activity);
-CREATE INDEX idx_messages_conversation_id ON messages(conversation_id);
-CREATE INDEX idx_messages_timestamp ON messages(timestamp);
+-- Serves conversation lookups and keyset pagination of the history on (timestamp, id)
+CREATE INDEX idx_messages_conversation_timestamp_id ON messages(conversation_id, timestamp, id);
 CREATE INDEX idx_messages_type ON messages(message_type);
 CREATE INDEX idx_animal_profiles_conversation_id ON animal_profiles(conversation_id);
 CREATE INDEX idx_animal_profiles_animal_type ON animal_profiles(animal_type);
+CREATE INDEX idx_profile_symptoms_profile_id ON profile_symptoms(profile_id);
+CREATE INDEX idx_profile_symptoms_symptom ON profile_symptoms(symptom);
 CREATE INDEX idx_message_images_message_id ON message_images(message_id);
+CREATE INDEX idx_message_images_content_hash ON message_images(content_hash);